@@ -1,8 +0,0 @@
-package com.mx.utils;
-
-/**
- * @author milo
- */
-public final class JCTreeUtils {
-
-}
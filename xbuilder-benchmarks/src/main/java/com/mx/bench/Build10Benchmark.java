@@ -0,0 +1,109 @@
+package com.mx.bench;
+
+import com.mx.bench.fixture.Fields10Copy;
+import com.mx.bench.fixture.Fields10Mutable;
+import com.mx.bench.fixture.Fields10Persistent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated by {@link FixtureGenerator}, do not edit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Build10Benchmark extends FixtureValues {
+
+    @Benchmark
+    public Object constructor() {
+        return new Fields10Copy(
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue);
+    }
+
+    @Benchmark
+    public Object copyBuilder() {
+        return Fields10Copy.build(Fields10Copy.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue));
+    }
+
+    @Benchmark
+    public Object copyLocalBuilder() {
+        return Fields10Copy.build(Fields10Copy.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableBuilder() {
+        return Fields10Mutable.build(Fields10Mutable.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableLocalBuilder() {
+        return Fields10Mutable.build(Fields10Mutable.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue));
+    }
+
+    @Benchmark
+    public Object persistentBuilder() {
+        return Fields10Persistent.build(Fields10Persistent.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue));
+    }
+}
@@ -0,0 +1,1249 @@
+package com.mx.bench;
+
+import com.mx.bench.fixture.Fields200Copy;
+import com.mx.bench.fixture.Fields200Mutable;
+import com.mx.bench.fixture.Fields200Persistent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated by {@link FixtureGenerator}, do not edit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Build200Benchmark extends FixtureValues {
+
+    @Benchmark
+    public Object constructor() {
+        return new Fields200Copy(
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue);
+    }
+
+    @Benchmark
+    public Object copyBuilder() {
+        return Fields200Copy.build(Fields200Copy.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue)
+                .f50(this.longValue)
+                .f51(this.listValue)
+                .f52(this.doubleValue)
+                .f53(this.mapValue)
+                .f54(this.booleanValue)
+                .f55(this.setValue)
+                .f56(this.intValue)
+                .f57(this.stringValue)
+                .f58(this.longValue)
+                .f59(this.listValue)
+                .f60(this.doubleValue)
+                .f61(this.mapValue)
+                .f62(this.booleanValue)
+                .f63(this.setValue)
+                .f64(this.intValue)
+                .f65(this.stringValue)
+                .f66(this.longValue)
+                .f67(this.listValue)
+                .f68(this.doubleValue)
+                .f69(this.mapValue)
+                .f70(this.booleanValue)
+                .f71(this.setValue)
+                .f72(this.intValue)
+                .f73(this.stringValue)
+                .f74(this.longValue)
+                .f75(this.listValue)
+                .f76(this.doubleValue)
+                .f77(this.mapValue)
+                .f78(this.booleanValue)
+                .f79(this.setValue)
+                .f80(this.intValue)
+                .f81(this.stringValue)
+                .f82(this.longValue)
+                .f83(this.listValue)
+                .f84(this.doubleValue)
+                .f85(this.mapValue)
+                .f86(this.booleanValue)
+                .f87(this.setValue)
+                .f88(this.intValue)
+                .f89(this.stringValue)
+                .f90(this.longValue)
+                .f91(this.listValue)
+                .f92(this.doubleValue)
+                .f93(this.mapValue)
+                .f94(this.booleanValue)
+                .f95(this.setValue)
+                .f96(this.intValue)
+                .f97(this.stringValue)
+                .f98(this.longValue)
+                .f99(this.listValue)
+                .f100(this.doubleValue)
+                .f101(this.mapValue)
+                .f102(this.booleanValue)
+                .f103(this.setValue)
+                .f104(this.intValue)
+                .f105(this.stringValue)
+                .f106(this.longValue)
+                .f107(this.listValue)
+                .f108(this.doubleValue)
+                .f109(this.mapValue)
+                .f110(this.booleanValue)
+                .f111(this.setValue)
+                .f112(this.intValue)
+                .f113(this.stringValue)
+                .f114(this.longValue)
+                .f115(this.listValue)
+                .f116(this.doubleValue)
+                .f117(this.mapValue)
+                .f118(this.booleanValue)
+                .f119(this.setValue)
+                .f120(this.intValue)
+                .f121(this.stringValue)
+                .f122(this.longValue)
+                .f123(this.listValue)
+                .f124(this.doubleValue)
+                .f125(this.mapValue)
+                .f126(this.booleanValue)
+                .f127(this.setValue)
+                .f128(this.intValue)
+                .f129(this.stringValue)
+                .f130(this.longValue)
+                .f131(this.listValue)
+                .f132(this.doubleValue)
+                .f133(this.mapValue)
+                .f134(this.booleanValue)
+                .f135(this.setValue)
+                .f136(this.intValue)
+                .f137(this.stringValue)
+                .f138(this.longValue)
+                .f139(this.listValue)
+                .f140(this.doubleValue)
+                .f141(this.mapValue)
+                .f142(this.booleanValue)
+                .f143(this.setValue)
+                .f144(this.intValue)
+                .f145(this.stringValue)
+                .f146(this.longValue)
+                .f147(this.listValue)
+                .f148(this.doubleValue)
+                .f149(this.mapValue)
+                .f150(this.booleanValue)
+                .f151(this.setValue)
+                .f152(this.intValue)
+                .f153(this.stringValue)
+                .f154(this.longValue)
+                .f155(this.listValue)
+                .f156(this.doubleValue)
+                .f157(this.mapValue)
+                .f158(this.booleanValue)
+                .f159(this.setValue)
+                .f160(this.intValue)
+                .f161(this.stringValue)
+                .f162(this.longValue)
+                .f163(this.listValue)
+                .f164(this.doubleValue)
+                .f165(this.mapValue)
+                .f166(this.booleanValue)
+                .f167(this.setValue)
+                .f168(this.intValue)
+                .f169(this.stringValue)
+                .f170(this.longValue)
+                .f171(this.listValue)
+                .f172(this.doubleValue)
+                .f173(this.mapValue)
+                .f174(this.booleanValue)
+                .f175(this.setValue)
+                .f176(this.intValue)
+                .f177(this.stringValue)
+                .f178(this.longValue)
+                .f179(this.listValue)
+                .f180(this.doubleValue)
+                .f181(this.mapValue)
+                .f182(this.booleanValue)
+                .f183(this.setValue)
+                .f184(this.intValue)
+                .f185(this.stringValue)
+                .f186(this.longValue)
+                .f187(this.listValue)
+                .f188(this.doubleValue)
+                .f189(this.mapValue)
+                .f190(this.booleanValue)
+                .f191(this.setValue)
+                .f192(this.intValue)
+                .f193(this.stringValue)
+                .f194(this.longValue)
+                .f195(this.listValue)
+                .f196(this.doubleValue)
+                .f197(this.mapValue)
+                .f198(this.booleanValue)
+                .f199(this.setValue));
+    }
+
+    @Benchmark
+    public Object copyLocalBuilder() {
+        return Fields200Copy.build(Fields200Copy.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue)
+                .f50(this.longValue)
+                .f51(this.listValue)
+                .f52(this.doubleValue)
+                .f53(this.mapValue)
+                .f54(this.booleanValue)
+                .f55(this.setValue)
+                .f56(this.intValue)
+                .f57(this.stringValue)
+                .f58(this.longValue)
+                .f59(this.listValue)
+                .f60(this.doubleValue)
+                .f61(this.mapValue)
+                .f62(this.booleanValue)
+                .f63(this.setValue)
+                .f64(this.intValue)
+                .f65(this.stringValue)
+                .f66(this.longValue)
+                .f67(this.listValue)
+                .f68(this.doubleValue)
+                .f69(this.mapValue)
+                .f70(this.booleanValue)
+                .f71(this.setValue)
+                .f72(this.intValue)
+                .f73(this.stringValue)
+                .f74(this.longValue)
+                .f75(this.listValue)
+                .f76(this.doubleValue)
+                .f77(this.mapValue)
+                .f78(this.booleanValue)
+                .f79(this.setValue)
+                .f80(this.intValue)
+                .f81(this.stringValue)
+                .f82(this.longValue)
+                .f83(this.listValue)
+                .f84(this.doubleValue)
+                .f85(this.mapValue)
+                .f86(this.booleanValue)
+                .f87(this.setValue)
+                .f88(this.intValue)
+                .f89(this.stringValue)
+                .f90(this.longValue)
+                .f91(this.listValue)
+                .f92(this.doubleValue)
+                .f93(this.mapValue)
+                .f94(this.booleanValue)
+                .f95(this.setValue)
+                .f96(this.intValue)
+                .f97(this.stringValue)
+                .f98(this.longValue)
+                .f99(this.listValue)
+                .f100(this.doubleValue)
+                .f101(this.mapValue)
+                .f102(this.booleanValue)
+                .f103(this.setValue)
+                .f104(this.intValue)
+                .f105(this.stringValue)
+                .f106(this.longValue)
+                .f107(this.listValue)
+                .f108(this.doubleValue)
+                .f109(this.mapValue)
+                .f110(this.booleanValue)
+                .f111(this.setValue)
+                .f112(this.intValue)
+                .f113(this.stringValue)
+                .f114(this.longValue)
+                .f115(this.listValue)
+                .f116(this.doubleValue)
+                .f117(this.mapValue)
+                .f118(this.booleanValue)
+                .f119(this.setValue)
+                .f120(this.intValue)
+                .f121(this.stringValue)
+                .f122(this.longValue)
+                .f123(this.listValue)
+                .f124(this.doubleValue)
+                .f125(this.mapValue)
+                .f126(this.booleanValue)
+                .f127(this.setValue)
+                .f128(this.intValue)
+                .f129(this.stringValue)
+                .f130(this.longValue)
+                .f131(this.listValue)
+                .f132(this.doubleValue)
+                .f133(this.mapValue)
+                .f134(this.booleanValue)
+                .f135(this.setValue)
+                .f136(this.intValue)
+                .f137(this.stringValue)
+                .f138(this.longValue)
+                .f139(this.listValue)
+                .f140(this.doubleValue)
+                .f141(this.mapValue)
+                .f142(this.booleanValue)
+                .f143(this.setValue)
+                .f144(this.intValue)
+                .f145(this.stringValue)
+                .f146(this.longValue)
+                .f147(this.listValue)
+                .f148(this.doubleValue)
+                .f149(this.mapValue)
+                .f150(this.booleanValue)
+                .f151(this.setValue)
+                .f152(this.intValue)
+                .f153(this.stringValue)
+                .f154(this.longValue)
+                .f155(this.listValue)
+                .f156(this.doubleValue)
+                .f157(this.mapValue)
+                .f158(this.booleanValue)
+                .f159(this.setValue)
+                .f160(this.intValue)
+                .f161(this.stringValue)
+                .f162(this.longValue)
+                .f163(this.listValue)
+                .f164(this.doubleValue)
+                .f165(this.mapValue)
+                .f166(this.booleanValue)
+                .f167(this.setValue)
+                .f168(this.intValue)
+                .f169(this.stringValue)
+                .f170(this.longValue)
+                .f171(this.listValue)
+                .f172(this.doubleValue)
+                .f173(this.mapValue)
+                .f174(this.booleanValue)
+                .f175(this.setValue)
+                .f176(this.intValue)
+                .f177(this.stringValue)
+                .f178(this.longValue)
+                .f179(this.listValue)
+                .f180(this.doubleValue)
+                .f181(this.mapValue)
+                .f182(this.booleanValue)
+                .f183(this.setValue)
+                .f184(this.intValue)
+                .f185(this.stringValue)
+                .f186(this.longValue)
+                .f187(this.listValue)
+                .f188(this.doubleValue)
+                .f189(this.mapValue)
+                .f190(this.booleanValue)
+                .f191(this.setValue)
+                .f192(this.intValue)
+                .f193(this.stringValue)
+                .f194(this.longValue)
+                .f195(this.listValue)
+                .f196(this.doubleValue)
+                .f197(this.mapValue)
+                .f198(this.booleanValue)
+                .f199(this.setValue));
+    }
+
+    @Benchmark
+    public Object mutableBuilder() {
+        return Fields200Mutable.build(Fields200Mutable.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue)
+                .f50(this.longValue)
+                .f51(this.listValue)
+                .f52(this.doubleValue)
+                .f53(this.mapValue)
+                .f54(this.booleanValue)
+                .f55(this.setValue)
+                .f56(this.intValue)
+                .f57(this.stringValue)
+                .f58(this.longValue)
+                .f59(this.listValue)
+                .f60(this.doubleValue)
+                .f61(this.mapValue)
+                .f62(this.booleanValue)
+                .f63(this.setValue)
+                .f64(this.intValue)
+                .f65(this.stringValue)
+                .f66(this.longValue)
+                .f67(this.listValue)
+                .f68(this.doubleValue)
+                .f69(this.mapValue)
+                .f70(this.booleanValue)
+                .f71(this.setValue)
+                .f72(this.intValue)
+                .f73(this.stringValue)
+                .f74(this.longValue)
+                .f75(this.listValue)
+                .f76(this.doubleValue)
+                .f77(this.mapValue)
+                .f78(this.booleanValue)
+                .f79(this.setValue)
+                .f80(this.intValue)
+                .f81(this.stringValue)
+                .f82(this.longValue)
+                .f83(this.listValue)
+                .f84(this.doubleValue)
+                .f85(this.mapValue)
+                .f86(this.booleanValue)
+                .f87(this.setValue)
+                .f88(this.intValue)
+                .f89(this.stringValue)
+                .f90(this.longValue)
+                .f91(this.listValue)
+                .f92(this.doubleValue)
+                .f93(this.mapValue)
+                .f94(this.booleanValue)
+                .f95(this.setValue)
+                .f96(this.intValue)
+                .f97(this.stringValue)
+                .f98(this.longValue)
+                .f99(this.listValue)
+                .f100(this.doubleValue)
+                .f101(this.mapValue)
+                .f102(this.booleanValue)
+                .f103(this.setValue)
+                .f104(this.intValue)
+                .f105(this.stringValue)
+                .f106(this.longValue)
+                .f107(this.listValue)
+                .f108(this.doubleValue)
+                .f109(this.mapValue)
+                .f110(this.booleanValue)
+                .f111(this.setValue)
+                .f112(this.intValue)
+                .f113(this.stringValue)
+                .f114(this.longValue)
+                .f115(this.listValue)
+                .f116(this.doubleValue)
+                .f117(this.mapValue)
+                .f118(this.booleanValue)
+                .f119(this.setValue)
+                .f120(this.intValue)
+                .f121(this.stringValue)
+                .f122(this.longValue)
+                .f123(this.listValue)
+                .f124(this.doubleValue)
+                .f125(this.mapValue)
+                .f126(this.booleanValue)
+                .f127(this.setValue)
+                .f128(this.intValue)
+                .f129(this.stringValue)
+                .f130(this.longValue)
+                .f131(this.listValue)
+                .f132(this.doubleValue)
+                .f133(this.mapValue)
+                .f134(this.booleanValue)
+                .f135(this.setValue)
+                .f136(this.intValue)
+                .f137(this.stringValue)
+                .f138(this.longValue)
+                .f139(this.listValue)
+                .f140(this.doubleValue)
+                .f141(this.mapValue)
+                .f142(this.booleanValue)
+                .f143(this.setValue)
+                .f144(this.intValue)
+                .f145(this.stringValue)
+                .f146(this.longValue)
+                .f147(this.listValue)
+                .f148(this.doubleValue)
+                .f149(this.mapValue)
+                .f150(this.booleanValue)
+                .f151(this.setValue)
+                .f152(this.intValue)
+                .f153(this.stringValue)
+                .f154(this.longValue)
+                .f155(this.listValue)
+                .f156(this.doubleValue)
+                .f157(this.mapValue)
+                .f158(this.booleanValue)
+                .f159(this.setValue)
+                .f160(this.intValue)
+                .f161(this.stringValue)
+                .f162(this.longValue)
+                .f163(this.listValue)
+                .f164(this.doubleValue)
+                .f165(this.mapValue)
+                .f166(this.booleanValue)
+                .f167(this.setValue)
+                .f168(this.intValue)
+                .f169(this.stringValue)
+                .f170(this.longValue)
+                .f171(this.listValue)
+                .f172(this.doubleValue)
+                .f173(this.mapValue)
+                .f174(this.booleanValue)
+                .f175(this.setValue)
+                .f176(this.intValue)
+                .f177(this.stringValue)
+                .f178(this.longValue)
+                .f179(this.listValue)
+                .f180(this.doubleValue)
+                .f181(this.mapValue)
+                .f182(this.booleanValue)
+                .f183(this.setValue)
+                .f184(this.intValue)
+                .f185(this.stringValue)
+                .f186(this.longValue)
+                .f187(this.listValue)
+                .f188(this.doubleValue)
+                .f189(this.mapValue)
+                .f190(this.booleanValue)
+                .f191(this.setValue)
+                .f192(this.intValue)
+                .f193(this.stringValue)
+                .f194(this.longValue)
+                .f195(this.listValue)
+                .f196(this.doubleValue)
+                .f197(this.mapValue)
+                .f198(this.booleanValue)
+                .f199(this.setValue));
+    }
+
+    @Benchmark
+    public Object mutableLocalBuilder() {
+        return Fields200Mutable.build(Fields200Mutable.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue)
+                .f50(this.longValue)
+                .f51(this.listValue)
+                .f52(this.doubleValue)
+                .f53(this.mapValue)
+                .f54(this.booleanValue)
+                .f55(this.setValue)
+                .f56(this.intValue)
+                .f57(this.stringValue)
+                .f58(this.longValue)
+                .f59(this.listValue)
+                .f60(this.doubleValue)
+                .f61(this.mapValue)
+                .f62(this.booleanValue)
+                .f63(this.setValue)
+                .f64(this.intValue)
+                .f65(this.stringValue)
+                .f66(this.longValue)
+                .f67(this.listValue)
+                .f68(this.doubleValue)
+                .f69(this.mapValue)
+                .f70(this.booleanValue)
+                .f71(this.setValue)
+                .f72(this.intValue)
+                .f73(this.stringValue)
+                .f74(this.longValue)
+                .f75(this.listValue)
+                .f76(this.doubleValue)
+                .f77(this.mapValue)
+                .f78(this.booleanValue)
+                .f79(this.setValue)
+                .f80(this.intValue)
+                .f81(this.stringValue)
+                .f82(this.longValue)
+                .f83(this.listValue)
+                .f84(this.doubleValue)
+                .f85(this.mapValue)
+                .f86(this.booleanValue)
+                .f87(this.setValue)
+                .f88(this.intValue)
+                .f89(this.stringValue)
+                .f90(this.longValue)
+                .f91(this.listValue)
+                .f92(this.doubleValue)
+                .f93(this.mapValue)
+                .f94(this.booleanValue)
+                .f95(this.setValue)
+                .f96(this.intValue)
+                .f97(this.stringValue)
+                .f98(this.longValue)
+                .f99(this.listValue)
+                .f100(this.doubleValue)
+                .f101(this.mapValue)
+                .f102(this.booleanValue)
+                .f103(this.setValue)
+                .f104(this.intValue)
+                .f105(this.stringValue)
+                .f106(this.longValue)
+                .f107(this.listValue)
+                .f108(this.doubleValue)
+                .f109(this.mapValue)
+                .f110(this.booleanValue)
+                .f111(this.setValue)
+                .f112(this.intValue)
+                .f113(this.stringValue)
+                .f114(this.longValue)
+                .f115(this.listValue)
+                .f116(this.doubleValue)
+                .f117(this.mapValue)
+                .f118(this.booleanValue)
+                .f119(this.setValue)
+                .f120(this.intValue)
+                .f121(this.stringValue)
+                .f122(this.longValue)
+                .f123(this.listValue)
+                .f124(this.doubleValue)
+                .f125(this.mapValue)
+                .f126(this.booleanValue)
+                .f127(this.setValue)
+                .f128(this.intValue)
+                .f129(this.stringValue)
+                .f130(this.longValue)
+                .f131(this.listValue)
+                .f132(this.doubleValue)
+                .f133(this.mapValue)
+                .f134(this.booleanValue)
+                .f135(this.setValue)
+                .f136(this.intValue)
+                .f137(this.stringValue)
+                .f138(this.longValue)
+                .f139(this.listValue)
+                .f140(this.doubleValue)
+                .f141(this.mapValue)
+                .f142(this.booleanValue)
+                .f143(this.setValue)
+                .f144(this.intValue)
+                .f145(this.stringValue)
+                .f146(this.longValue)
+                .f147(this.listValue)
+                .f148(this.doubleValue)
+                .f149(this.mapValue)
+                .f150(this.booleanValue)
+                .f151(this.setValue)
+                .f152(this.intValue)
+                .f153(this.stringValue)
+                .f154(this.longValue)
+                .f155(this.listValue)
+                .f156(this.doubleValue)
+                .f157(this.mapValue)
+                .f158(this.booleanValue)
+                .f159(this.setValue)
+                .f160(this.intValue)
+                .f161(this.stringValue)
+                .f162(this.longValue)
+                .f163(this.listValue)
+                .f164(this.doubleValue)
+                .f165(this.mapValue)
+                .f166(this.booleanValue)
+                .f167(this.setValue)
+                .f168(this.intValue)
+                .f169(this.stringValue)
+                .f170(this.longValue)
+                .f171(this.listValue)
+                .f172(this.doubleValue)
+                .f173(this.mapValue)
+                .f174(this.booleanValue)
+                .f175(this.setValue)
+                .f176(this.intValue)
+                .f177(this.stringValue)
+                .f178(this.longValue)
+                .f179(this.listValue)
+                .f180(this.doubleValue)
+                .f181(this.mapValue)
+                .f182(this.booleanValue)
+                .f183(this.setValue)
+                .f184(this.intValue)
+                .f185(this.stringValue)
+                .f186(this.longValue)
+                .f187(this.listValue)
+                .f188(this.doubleValue)
+                .f189(this.mapValue)
+                .f190(this.booleanValue)
+                .f191(this.setValue)
+                .f192(this.intValue)
+                .f193(this.stringValue)
+                .f194(this.longValue)
+                .f195(this.listValue)
+                .f196(this.doubleValue)
+                .f197(this.mapValue)
+                .f198(this.booleanValue)
+                .f199(this.setValue));
+    }
+
+    @Benchmark
+    public Object persistentBuilder() {
+        return Fields200Persistent.build(Fields200Persistent.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue)
+                .f50(this.longValue)
+                .f51(this.listValue)
+                .f52(this.doubleValue)
+                .f53(this.mapValue)
+                .f54(this.booleanValue)
+                .f55(this.setValue)
+                .f56(this.intValue)
+                .f57(this.stringValue)
+                .f58(this.longValue)
+                .f59(this.listValue)
+                .f60(this.doubleValue)
+                .f61(this.mapValue)
+                .f62(this.booleanValue)
+                .f63(this.setValue)
+                .f64(this.intValue)
+                .f65(this.stringValue)
+                .f66(this.longValue)
+                .f67(this.listValue)
+                .f68(this.doubleValue)
+                .f69(this.mapValue)
+                .f70(this.booleanValue)
+                .f71(this.setValue)
+                .f72(this.intValue)
+                .f73(this.stringValue)
+                .f74(this.longValue)
+                .f75(this.listValue)
+                .f76(this.doubleValue)
+                .f77(this.mapValue)
+                .f78(this.booleanValue)
+                .f79(this.setValue)
+                .f80(this.intValue)
+                .f81(this.stringValue)
+                .f82(this.longValue)
+                .f83(this.listValue)
+                .f84(this.doubleValue)
+                .f85(this.mapValue)
+                .f86(this.booleanValue)
+                .f87(this.setValue)
+                .f88(this.intValue)
+                .f89(this.stringValue)
+                .f90(this.longValue)
+                .f91(this.listValue)
+                .f92(this.doubleValue)
+                .f93(this.mapValue)
+                .f94(this.booleanValue)
+                .f95(this.setValue)
+                .f96(this.intValue)
+                .f97(this.stringValue)
+                .f98(this.longValue)
+                .f99(this.listValue)
+                .f100(this.doubleValue)
+                .f101(this.mapValue)
+                .f102(this.booleanValue)
+                .f103(this.setValue)
+                .f104(this.intValue)
+                .f105(this.stringValue)
+                .f106(this.longValue)
+                .f107(this.listValue)
+                .f108(this.doubleValue)
+                .f109(this.mapValue)
+                .f110(this.booleanValue)
+                .f111(this.setValue)
+                .f112(this.intValue)
+                .f113(this.stringValue)
+                .f114(this.longValue)
+                .f115(this.listValue)
+                .f116(this.doubleValue)
+                .f117(this.mapValue)
+                .f118(this.booleanValue)
+                .f119(this.setValue)
+                .f120(this.intValue)
+                .f121(this.stringValue)
+                .f122(this.longValue)
+                .f123(this.listValue)
+                .f124(this.doubleValue)
+                .f125(this.mapValue)
+                .f126(this.booleanValue)
+                .f127(this.setValue)
+                .f128(this.intValue)
+                .f129(this.stringValue)
+                .f130(this.longValue)
+                .f131(this.listValue)
+                .f132(this.doubleValue)
+                .f133(this.mapValue)
+                .f134(this.booleanValue)
+                .f135(this.setValue)
+                .f136(this.intValue)
+                .f137(this.stringValue)
+                .f138(this.longValue)
+                .f139(this.listValue)
+                .f140(this.doubleValue)
+                .f141(this.mapValue)
+                .f142(this.booleanValue)
+                .f143(this.setValue)
+                .f144(this.intValue)
+                .f145(this.stringValue)
+                .f146(this.longValue)
+                .f147(this.listValue)
+                .f148(this.doubleValue)
+                .f149(this.mapValue)
+                .f150(this.booleanValue)
+                .f151(this.setValue)
+                .f152(this.intValue)
+                .f153(this.stringValue)
+                .f154(this.longValue)
+                .f155(this.listValue)
+                .f156(this.doubleValue)
+                .f157(this.mapValue)
+                .f158(this.booleanValue)
+                .f159(this.setValue)
+                .f160(this.intValue)
+                .f161(this.stringValue)
+                .f162(this.longValue)
+                .f163(this.listValue)
+                .f164(this.doubleValue)
+                .f165(this.mapValue)
+                .f166(this.booleanValue)
+                .f167(this.setValue)
+                .f168(this.intValue)
+                .f169(this.stringValue)
+                .f170(this.longValue)
+                .f171(this.listValue)
+                .f172(this.doubleValue)
+                .f173(this.mapValue)
+                .f174(this.booleanValue)
+                .f175(this.setValue)
+                .f176(this.intValue)
+                .f177(this.stringValue)
+                .f178(this.longValue)
+                .f179(this.listValue)
+                .f180(this.doubleValue)
+                .f181(this.mapValue)
+                .f182(this.booleanValue)
+                .f183(this.setValue)
+                .f184(this.intValue)
+                .f185(this.stringValue)
+                .f186(this.longValue)
+                .f187(this.listValue)
+                .f188(this.doubleValue)
+                .f189(this.mapValue)
+                .f190(this.booleanValue)
+                .f191(this.setValue)
+                .f192(this.intValue)
+                .f193(this.stringValue)
+                .f194(this.longValue)
+                .f195(this.listValue)
+                .f196(this.doubleValue)
+                .f197(this.mapValue)
+                .f198(this.booleanValue)
+                .f199(this.setValue));
+    }
+}
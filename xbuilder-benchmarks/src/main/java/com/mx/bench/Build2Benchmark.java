@@ -0,0 +1,61 @@
+package com.mx.bench;
+
+import com.mx.bench.fixture.Fields2Copy;
+import com.mx.bench.fixture.Fields2Mutable;
+import com.mx.bench.fixture.Fields2Persistent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated by {@link FixtureGenerator}, do not edit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Build2Benchmark extends FixtureValues {
+
+    @Benchmark
+    public Object constructor() {
+        return new Fields2Copy(
+                this.intValue,
+                this.stringValue);
+    }
+
+    @Benchmark
+    public Object copyBuilder() {
+        return Fields2Copy.build(Fields2Copy.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue));
+    }
+
+    @Benchmark
+    public Object copyLocalBuilder() {
+        return Fields2Copy.build(Fields2Copy.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableBuilder() {
+        return Fields2Mutable.build(Fields2Mutable.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableLocalBuilder() {
+        return Fields2Mutable.build(Fields2Mutable.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue));
+    }
+
+    @Benchmark
+    public Object persistentBuilder() {
+        return Fields2Persistent.build(Fields2Persistent.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue));
+    }
+}
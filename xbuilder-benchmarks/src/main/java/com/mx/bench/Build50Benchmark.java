@@ -0,0 +1,349 @@
+package com.mx.bench;
+
+import com.mx.bench.fixture.Fields50Copy;
+import com.mx.bench.fixture.Fields50Mutable;
+import com.mx.bench.fixture.Fields50Persistent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated by {@link FixtureGenerator}, do not edit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Build50Benchmark extends FixtureValues {
+
+    @Benchmark
+    public Object constructor() {
+        return new Fields50Copy(
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue,
+                this.longValue,
+                this.listValue,
+                this.doubleValue,
+                this.mapValue,
+                this.booleanValue,
+                this.setValue,
+                this.intValue,
+                this.stringValue);
+    }
+
+    @Benchmark
+    public Object copyBuilder() {
+        return Fields50Copy.build(Fields50Copy.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue));
+    }
+
+    @Benchmark
+    public Object copyLocalBuilder() {
+        return Fields50Copy.build(Fields50Copy.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableBuilder() {
+        return Fields50Mutable.build(Fields50Mutable.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue));
+    }
+
+    @Benchmark
+    public Object mutableLocalBuilder() {
+        return Fields50Mutable.build(Fields50Mutable.localBuilder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue));
+    }
+
+    @Benchmark
+    public Object persistentBuilder() {
+        return Fields50Persistent.build(Fields50Persistent.builder()
+                .f0(this.intValue)
+                .f1(this.stringValue)
+                .f2(this.longValue)
+                .f3(this.listValue)
+                .f4(this.doubleValue)
+                .f5(this.mapValue)
+                .f6(this.booleanValue)
+                .f7(this.setValue)
+                .f8(this.intValue)
+                .f9(this.stringValue)
+                .f10(this.longValue)
+                .f11(this.listValue)
+                .f12(this.doubleValue)
+                .f13(this.mapValue)
+                .f14(this.booleanValue)
+                .f15(this.setValue)
+                .f16(this.intValue)
+                .f17(this.stringValue)
+                .f18(this.longValue)
+                .f19(this.listValue)
+                .f20(this.doubleValue)
+                .f21(this.mapValue)
+                .f22(this.booleanValue)
+                .f23(this.setValue)
+                .f24(this.intValue)
+                .f25(this.stringValue)
+                .f26(this.longValue)
+                .f27(this.listValue)
+                .f28(this.doubleValue)
+                .f29(this.mapValue)
+                .f30(this.booleanValue)
+                .f31(this.setValue)
+                .f32(this.intValue)
+                .f33(this.stringValue)
+                .f34(this.longValue)
+                .f35(this.listValue)
+                .f36(this.doubleValue)
+                .f37(this.mapValue)
+                .f38(this.booleanValue)
+                .f39(this.setValue)
+                .f40(this.intValue)
+                .f41(this.stringValue)
+                .f42(this.longValue)
+                .f43(this.listValue)
+                .f44(this.doubleValue)
+                .f45(this.mapValue)
+                .f46(this.booleanValue)
+                .f47(this.setValue)
+                .f48(this.intValue)
+                .f49(this.stringValue));
+    }
+}
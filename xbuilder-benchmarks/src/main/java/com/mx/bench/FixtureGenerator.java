@@ -0,0 +1,98 @@
+package com.mx.bench;
+
+import com.mx.ann.Builder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Regenerates the checked-in fixtures and {@code BuildNBenchmark} classes, one fixture per field count and
+ * {@link Builder.Mode}. Fixtures are reusable but with {@link Builder.Mode#PERSISTENT}, so {@code localBuilder()}
+ * is measured too. Run from the module directory after adding a mode:
+ * <pre>
+ * java -cp target/classes:$XBUILDER_JAR com.mx.bench.FixtureGenerator src/main/java
+ * </pre>
+ *
+ * @author milo
+ */
+public final class FixtureGenerator {
+
+    static final int[] FIELD_NUMS = {2, 10, 50, 200};
+
+    static final String BENCH_PACKAGE = "com.mx.bench";
+    static final String FIXTURE_PACKAGE = "com.mx.bench.fixture";
+
+    public static void main(String[] args) throws IOException {
+        Path sourceRoot = Paths.get(args.length > 0 ? args[0] : "src/main/java");
+        for (int fieldNum : FIELD_NUMS) {
+            for (Builder.Mode mode : Builder.Mode.values()) {
+                String className = FixtureSources.className(fieldNum, mode);
+                write(sourceRoot, FIXTURE_PACKAGE, className,
+                        FixtureSources.fixtureClass(FIXTURE_PACKAGE, className, fieldNum, mode, reusable(mode)));
+            }
+            String benchmarkName = "Build" + fieldNum + "Benchmark";
+            write(sourceRoot, BENCH_PACKAGE, benchmarkName, benchmarkClass(benchmarkName, fieldNum));
+        }
+    }
+
+    static String benchmarkClass(String className, int fieldNum) {
+        String indent = "                ";
+        // the all args constructor is the same in every fixture of this width
+        String baseline = FixtureSources.className(fieldNum, Builder.Mode.COPY);
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(BENCH_PACKAGE).append(";\n\n");
+        for (Builder.Mode mode : Builder.Mode.values()) {
+            src.append("import ").append(FIXTURE_PACKAGE).append('.')
+                    .append(FixtureSources.className(fieldNum, mode)).append(";\n");
+        }
+        src.append("import org.openjdk.jmh.annotations.*;\n\n")
+                .append("import java.util.concurrent.TimeUnit;\n\n")
+                .append("/**\n * Generated by {@link FixtureGenerator}, do not edit.\n */\n")
+                .append("@BenchmarkMode(Mode.Throughput)\n")
+                .append("@OutputTimeUnit(TimeUnit.MICROSECONDS)\n")
+                .append("@Warmup(iterations = 5, time = 1)\n")
+                .append("@Measurement(iterations = 5, time = 1)\n")
+                .append("@Fork(1)\n")
+                .append("public class ").append(className).append(" extends FixtureValues {\n\n")
+                .append("    @Benchmark\n")
+                .append("    public Object constructor() {\n")
+                .append("        return ").append(FixtureSources.constructorCall(baseline, fieldNum, "this", indent))
+                .append(";\n    }\n");
+        for (Builder.Mode mode : Builder.Mode.values()) {
+            String fixture = FixtureSources.className(fieldNum, mode);
+            src.append("\n    @Benchmark\n")
+                    .append("    public Object ").append(mode.name().toLowerCase()).append("Builder() {\n")
+                    .append("        return ").append(FixtureSources.builderCall(fixture, fieldNum, "this", indent))
+                    .append(";\n    }\n");
+            if (!reusable(mode)) {
+                continue;
+            }
+            src.append("\n    @Benchmark\n")
+                    .append("    public Object ").append(mode.name().toLowerCase()).append("LocalBuilder() {\n")
+                    .append("        return ")
+                    .append(FixtureSources.builderCall(fixture, "localBuilder", fieldNum, "this", indent))
+                    .append(";\n    }\n");
+        }
+        return src.append("}\n").toString();
+    }
+
+    /**
+     * A persistent builder never changes, so has nothing to reuse
+     */
+    static boolean reusable(Builder.Mode mode) {
+        return mode != Builder.Mode.PERSISTENT;
+    }
+
+    private static void write(Path sourceRoot, String packageName, String className, String source)
+            throws IOException {
+        Path dir = sourceRoot.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(className + ".java"), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private FixtureGenerator() {
+    }
+}
@@ -0,0 +1,126 @@
+package com.mx.bench;
+
+import com.mx.ann.Builder;
+import com.mx.utils.StringUtils;
+
+/**
+ * Source text of wide {@code @Builder} fixture classes and of the calls that construct them.
+ * Field {@code fK} gets the K-th type of {@link #FIELD_TYPES}, cyclically.
+ *
+ * @author milo
+ */
+public final class FixtureSources {
+
+    static final String[][] FIELD_TYPES = {
+            // type, FixtureValues field
+            {"int", "intValue"},
+            {"String", "stringValue"},
+            {"long", "longValue"},
+            {"java.util.List<String>", "listValue"},
+            {"double", "doubleValue"},
+            {"java.util.Map<String, Integer>", "mapValue"},
+            {"boolean", "booleanValue"},
+            {"java.util.Set<String>", "setValue"},
+    };
+
+    public static String fieldType(int index) {
+        return FIELD_TYPES[index % FIELD_TYPES.length][0];
+    }
+
+    public static String fieldValue(int index) {
+        return FIELD_TYPES[index % FIELD_TYPES.length][1];
+    }
+
+    public static String fieldName(int index) {
+        return "f" + index;
+    }
+
+    /**
+     * JVM parameter slots taken by the all args constructor, {@code long} and {@code double} take two.
+     */
+    public static int parameterSlots(int fieldNum) {
+        int slots = 0;
+        for (int i = 0; i < fieldNum; i++) {
+            String type = fieldType(i);
+            slots += "long".equals(type) || "double".equals(type) ? 2 : 1;
+        }
+        return slots;
+    }
+
+    public static String className(int fieldNum, Builder.Mode mode) {
+        return "Fields" + fieldNum + modeName(mode);
+    }
+
+    public static String modeName(Builder.Mode mode) {
+        return StringUtils.upperFirstChar(mode.name().toLowerCase());
+    }
+
+    /**
+     * A public class with {@code fieldNum} private final fields and a public all args constructor.
+     */
+    public static String fixtureClass(String packageName, String className, int fieldNum, Builder.Mode mode) {
+        return fixtureClass(packageName, className, fieldNum, mode, false);
+    }
+
+    public static String fixtureClass(String packageName, String className, int fieldNum, Builder.Mode mode,
+                                      boolean reusable) {
+        StringBuilder src = new StringBuilder();
+        if (packageName != null) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import com.mx.ann.Builder;\n\n");
+        src.append("@Builder(mode = Builder.Mode.").append(mode.name())
+                .append(reusable ? ", reusable = true)\n" : ")\n");
+        src.append("public class ").append(className).append(" {\n");
+        for (int i = 0; i < fieldNum; i++) {
+            src.append("    private final ").append(fieldType(i)).append(' ').append(fieldName(i)).append(";\n");
+        }
+        src.append("\n    public ").append(className).append('(');
+        for (int i = 0; i < fieldNum; i++) {
+            src.append(i == 0 ? "" : ", ").append(fieldType(i)).append(' ').append(fieldName(i));
+        }
+        src.append(") {\n");
+        for (int i = 0; i < fieldNum; i++) {
+            src.append("        this.").append(fieldName(i)).append(" = ").append(fieldName(i)).append(";\n");
+        }
+        src.append("    }\n}\n");
+        return src.toString();
+    }
+
+    /**
+     * {@code Foo.build(Foo.builder().f0(v.intValue)...)}, reading values from {@code valuesRef}.
+     */
+    public static String builderCall(String className, int fieldNum, String valuesRef, String indent) {
+        return builderCall(className, "builder", fieldNum, valuesRef, indent);
+    }
+
+    /**
+     * {@code Foo.build(Foo.builderMethod().f0(v.intValue)...)}
+     */
+    public static String builderCall(String className, String builderMethod, int fieldNum, String valuesRef,
+                                     String indent) {
+        StringBuilder src = new StringBuilder();
+        src.append(className).append(".build(").append(className).append('.').append(builderMethod).append("()");
+        for (int i = 0; i < fieldNum; i++) {
+            src.append('\n').append(indent).append('.').append(fieldName(i))
+                    .append('(').append(valuesRef).append('.').append(fieldValue(i)).append(')');
+        }
+        return src.append(')').toString();
+    }
+
+    /**
+     * {@code new Foo(v.intValue, ...)}, reading values from {@code valuesRef}.
+     */
+    public static String constructorCall(String className, int fieldNum, String valuesRef, String indent) {
+        StringBuilder src = new StringBuilder();
+        src.append("new ").append(className).append('(');
+        for (int i = 0; i < fieldNum; i++) {
+            src.append(i == 0 ? "" : ",").append('\n').append(indent)
+                    .append(valuesRef).append('.').append(fieldValue(i));
+        }
+        return src.append(')').toString();
+    }
+
+    private FixtureSources() {
+    }
+}
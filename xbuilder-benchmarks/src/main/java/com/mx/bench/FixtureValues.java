@@ -0,0 +1,30 @@
+package com.mx.bench;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field values fed into the fixtures. Kept in non-final state fields so the JIT can't constant-fold the
+ * construction away.
+ *
+ * @author milo
+ */
+@State(Scope.Thread)
+public class FixtureValues {
+
+    public int intValue = 42;
+    public long longValue = 42L;
+    public double doubleValue = 4.2D;
+    public boolean booleanValue = true;
+    public String stringValue = "xbuilder";
+    public List<String> listValue = Arrays.asList("a", "b", "c");
+    public Set<String> setValue = new HashSet<>(Arrays.asList("a", "b", "c"));
+    public Map<String, Integer> mapValue = Collections.singletonMap("a", 1);
+}
@@ -0,0 +1,58 @@
+package com.mx.bench.batch;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a batch of {@link Row}s from columns, row by row through the builder or with the batch factories.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    long[] ids;
+    int[] counts;
+    double[] prices;
+    String[] names;
+
+    @Setup
+    public void setUp() {
+        ids = new long[size];
+        counts = new int[size];
+        prices = new double[size];
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+            counts[i] = i % 100;
+            prices[i] = i * 0.5;
+            names[i] = "row" + i;
+        }
+    }
+
+    @Benchmark
+    public Object builder() {
+        Row[] rows = new Row[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = Row.build(Row.builder().id(ids[i]).count(counts[i]).price(prices[i]).name(names[i]));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public Object buildAll() {
+        return Row.buildAll(ids, counts, prices, names);
+    }
+
+    @Benchmark
+    public Object buildAllParallel() {
+        return Row.buildAllParallel(ids, counts, prices, names);
+    }
+}
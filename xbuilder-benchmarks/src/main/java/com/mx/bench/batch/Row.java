@@ -0,0 +1,21 @@
+package com.mx.bench.batch;
+
+import com.mx.ann.Builder;
+
+/**
+ * A columnar row, built one by one or in batches by {@link BatchBenchmark}.
+ */
+@Builder(mode = Builder.Mode.MUTABLE, batch = true)
+public class Row {
+    private final long id;
+    private final int count;
+    private final double price;
+    private final String name;
+
+    public Row(long id, int count, double price, String name) {
+        this.id = id;
+        this.count = count;
+        this.price = price;
+        this.name = name;
+    }
+}
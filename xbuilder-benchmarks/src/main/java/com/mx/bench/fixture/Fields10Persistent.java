@@ -0,0 +1,30 @@
+package com.mx.bench.fixture;
+
+import com.mx.ann.Builder;
+
+@Builder(mode = Builder.Mode.PERSISTENT)
+public class Fields10Persistent {
+    private final int f0;
+    private final String f1;
+    private final long f2;
+    private final java.util.List<String> f3;
+    private final double f4;
+    private final java.util.Map<String, Integer> f5;
+    private final boolean f6;
+    private final java.util.Set<String> f7;
+    private final int f8;
+    private final String f9;
+
+    public Fields10Persistent(int f0, String f1, long f2, java.util.List<String> f3, double f4, java.util.Map<String, Integer> f5, boolean f6, java.util.Set<String> f7, int f8, String f9) {
+        this.f0 = f0;
+        this.f1 = f1;
+        this.f2 = f2;
+        this.f3 = f3;
+        this.f4 = f4;
+        this.f5 = f5;
+        this.f6 = f6;
+        this.f7 = f7;
+        this.f8 = f8;
+        this.f9 = f9;
+    }
+}
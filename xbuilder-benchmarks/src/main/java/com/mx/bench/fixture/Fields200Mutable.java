@@ -0,0 +1,410 @@
+package com.mx.bench.fixture;
+
+import com.mx.ann.Builder;
+
+@Builder(mode = Builder.Mode.MUTABLE, reusable = true)
+public class Fields200Mutable {
+    private final int f0;
+    private final String f1;
+    private final long f2;
+    private final java.util.List<String> f3;
+    private final double f4;
+    private final java.util.Map<String, Integer> f5;
+    private final boolean f6;
+    private final java.util.Set<String> f7;
+    private final int f8;
+    private final String f9;
+    private final long f10;
+    private final java.util.List<String> f11;
+    private final double f12;
+    private final java.util.Map<String, Integer> f13;
+    private final boolean f14;
+    private final java.util.Set<String> f15;
+    private final int f16;
+    private final String f17;
+    private final long f18;
+    private final java.util.List<String> f19;
+    private final double f20;
+    private final java.util.Map<String, Integer> f21;
+    private final boolean f22;
+    private final java.util.Set<String> f23;
+    private final int f24;
+    private final String f25;
+    private final long f26;
+    private final java.util.List<String> f27;
+    private final double f28;
+    private final java.util.Map<String, Integer> f29;
+    private final boolean f30;
+    private final java.util.Set<String> f31;
+    private final int f32;
+    private final String f33;
+    private final long f34;
+    private final java.util.List<String> f35;
+    private final double f36;
+    private final java.util.Map<String, Integer> f37;
+    private final boolean f38;
+    private final java.util.Set<String> f39;
+    private final int f40;
+    private final String f41;
+    private final long f42;
+    private final java.util.List<String> f43;
+    private final double f44;
+    private final java.util.Map<String, Integer> f45;
+    private final boolean f46;
+    private final java.util.Set<String> f47;
+    private final int f48;
+    private final String f49;
+    private final long f50;
+    private final java.util.List<String> f51;
+    private final double f52;
+    private final java.util.Map<String, Integer> f53;
+    private final boolean f54;
+    private final java.util.Set<String> f55;
+    private final int f56;
+    private final String f57;
+    private final long f58;
+    private final java.util.List<String> f59;
+    private final double f60;
+    private final java.util.Map<String, Integer> f61;
+    private final boolean f62;
+    private final java.util.Set<String> f63;
+    private final int f64;
+    private final String f65;
+    private final long f66;
+    private final java.util.List<String> f67;
+    private final double f68;
+    private final java.util.Map<String, Integer> f69;
+    private final boolean f70;
+    private final java.util.Set<String> f71;
+    private final int f72;
+    private final String f73;
+    private final long f74;
+    private final java.util.List<String> f75;
+    private final double f76;
+    private final java.util.Map<String, Integer> f77;
+    private final boolean f78;
+    private final java.util.Set<String> f79;
+    private final int f80;
+    private final String f81;
+    private final long f82;
+    private final java.util.List<String> f83;
+    private final double f84;
+    private final java.util.Map<String, Integer> f85;
+    private final boolean f86;
+    private final java.util.Set<String> f87;
+    private final int f88;
+    private final String f89;
+    private final long f90;
+    private final java.util.List<String> f91;
+    private final double f92;
+    private final java.util.Map<String, Integer> f93;
+    private final boolean f94;
+    private final java.util.Set<String> f95;
+    private final int f96;
+    private final String f97;
+    private final long f98;
+    private final java.util.List<String> f99;
+    private final double f100;
+    private final java.util.Map<String, Integer> f101;
+    private final boolean f102;
+    private final java.util.Set<String> f103;
+    private final int f104;
+    private final String f105;
+    private final long f106;
+    private final java.util.List<String> f107;
+    private final double f108;
+    private final java.util.Map<String, Integer> f109;
+    private final boolean f110;
+    private final java.util.Set<String> f111;
+    private final int f112;
+    private final String f113;
+    private final long f114;
+    private final java.util.List<String> f115;
+    private final double f116;
+    private final java.util.Map<String, Integer> f117;
+    private final boolean f118;
+    private final java.util.Set<String> f119;
+    private final int f120;
+    private final String f121;
+    private final long f122;
+    private final java.util.List<String> f123;
+    private final double f124;
+    private final java.util.Map<String, Integer> f125;
+    private final boolean f126;
+    private final java.util.Set<String> f127;
+    private final int f128;
+    private final String f129;
+    private final long f130;
+    private final java.util.List<String> f131;
+    private final double f132;
+    private final java.util.Map<String, Integer> f133;
+    private final boolean f134;
+    private final java.util.Set<String> f135;
+    private final int f136;
+    private final String f137;
+    private final long f138;
+    private final java.util.List<String> f139;
+    private final double f140;
+    private final java.util.Map<String, Integer> f141;
+    private final boolean f142;
+    private final java.util.Set<String> f143;
+    private final int f144;
+    private final String f145;
+    private final long f146;
+    private final java.util.List<String> f147;
+    private final double f148;
+    private final java.util.Map<String, Integer> f149;
+    private final boolean f150;
+    private final java.util.Set<String> f151;
+    private final int f152;
+    private final String f153;
+    private final long f154;
+    private final java.util.List<String> f155;
+    private final double f156;
+    private final java.util.Map<String, Integer> f157;
+    private final boolean f158;
+    private final java.util.Set<String> f159;
+    private final int f160;
+    private final String f161;
+    private final long f162;
+    private final java.util.List<String> f163;
+    private final double f164;
+    private final java.util.Map<String, Integer> f165;
+    private final boolean f166;
+    private final java.util.Set<String> f167;
+    private final int f168;
+    private final String f169;
+    private final long f170;
+    private final java.util.List<String> f171;
+    private final double f172;
+    private final java.util.Map<String, Integer> f173;
+    private final boolean f174;
+    private final java.util.Set<String> f175;
+    private final int f176;
+    private final String f177;
+    private final long f178;
+    private final java.util.List<String> f179;
+    private final double f180;
+    private final java.util.Map<String, Integer> f181;
+    private final boolean f182;
+    private final java.util.Set<String> f183;
+    private final int f184;
+    private final String f185;
+    private final long f186;
+    private final java.util.List<String> f187;
+    private final double f188;
+    private final java.util.Map<String, Integer> f189;
+    private final boolean f190;
+    private final java.util.Set<String> f191;
+    private final int f192;
+    private final String f193;
+    private final long f194;
+    private final java.util.List<String> f195;
+    private final double f196;
+    private final java.util.Map<String, Integer> f197;
+    private final boolean f198;
+    private final java.util.Set<String> f199;
+
+    public Fields200Mutable(int f0, String f1, long f2, java.util.List<String> f3, double f4, java.util.Map<String, Integer> f5, boolean f6, java.util.Set<String> f7, int f8, String f9, long f10, java.util.List<String> f11, double f12, java.util.Map<String, Integer> f13, boolean f14, java.util.Set<String> f15, int f16, String f17, long f18, java.util.List<String> f19, double f20, java.util.Map<String, Integer> f21, boolean f22, java.util.Set<String> f23, int f24, String f25, long f26, java.util.List<String> f27, double f28, java.util.Map<String, Integer> f29, boolean f30, java.util.Set<String> f31, int f32, String f33, long f34, java.util.List<String> f35, double f36, java.util.Map<String, Integer> f37, boolean f38, java.util.Set<String> f39, int f40, String f41, long f42, java.util.List<String> f43, double f44, java.util.Map<String, Integer> f45, boolean f46, java.util.Set<String> f47, int f48, String f49, long f50, java.util.List<String> f51, double f52, java.util.Map<String, Integer> f53, boolean f54, java.util.Set<String> f55, int f56, String f57, long f58, java.util.List<String> f59, double f60, java.util.Map<String, Integer> f61, boolean f62, java.util.Set<String> f63, int f64, String f65, long f66, java.util.List<String> f67, double f68, java.util.Map<String, Integer> f69, boolean f70, java.util.Set<String> f71, int f72, String f73, long f74, java.util.List<String> f75, double f76, java.util.Map<String, Integer> f77, boolean f78, java.util.Set<String> f79, int f80, String f81, long f82, java.util.List<String> f83, double f84, java.util.Map<String, Integer> f85, boolean f86, java.util.Set<String> f87, int f88, String f89, long f90, java.util.List<String> f91, double f92, java.util.Map<String, Integer> f93, boolean f94, java.util.Set<String> f95, int f96, String f97, long f98, java.util.List<String> f99, double f100, java.util.Map<String, Integer> f101, boolean f102, java.util.Set<String> f103, int f104, String f105, long f106, java.util.List<String> f107, double f108, java.util.Map<String, Integer> f109, boolean f110, java.util.Set<String> f111, int f112, String f113, long f114, java.util.List<String> f115, double f116, java.util.Map<String, Integer> f117, boolean f118, java.util.Set<String> f119, int f120, String f121, long f122, java.util.List<String> f123, double f124, java.util.Map<String, Integer> f125, boolean f126, java.util.Set<String> f127, int f128, String f129, long f130, java.util.List<String> f131, double f132, java.util.Map<String, Integer> f133, boolean f134, java.util.Set<String> f135, int f136, String f137, long f138, java.util.List<String> f139, double f140, java.util.Map<String, Integer> f141, boolean f142, java.util.Set<String> f143, int f144, String f145, long f146, java.util.List<String> f147, double f148, java.util.Map<String, Integer> f149, boolean f150, java.util.Set<String> f151, int f152, String f153, long f154, java.util.List<String> f155, double f156, java.util.Map<String, Integer> f157, boolean f158, java.util.Set<String> f159, int f160, String f161, long f162, java.util.List<String> f163, double f164, java.util.Map<String, Integer> f165, boolean f166, java.util.Set<String> f167, int f168, String f169, long f170, java.util.List<String> f171, double f172, java.util.Map<String, Integer> f173, boolean f174, java.util.Set<String> f175, int f176, String f177, long f178, java.util.List<String> f179, double f180, java.util.Map<String, Integer> f181, boolean f182, java.util.Set<String> f183, int f184, String f185, long f186, java.util.List<String> f187, double f188, java.util.Map<String, Integer> f189, boolean f190, java.util.Set<String> f191, int f192, String f193, long f194, java.util.List<String> f195, double f196, java.util.Map<String, Integer> f197, boolean f198, java.util.Set<String> f199) {
+        this.f0 = f0;
+        this.f1 = f1;
+        this.f2 = f2;
+        this.f3 = f3;
+        this.f4 = f4;
+        this.f5 = f5;
+        this.f6 = f6;
+        this.f7 = f7;
+        this.f8 = f8;
+        this.f9 = f9;
+        this.f10 = f10;
+        this.f11 = f11;
+        this.f12 = f12;
+        this.f13 = f13;
+        this.f14 = f14;
+        this.f15 = f15;
+        this.f16 = f16;
+        this.f17 = f17;
+        this.f18 = f18;
+        this.f19 = f19;
+        this.f20 = f20;
+        this.f21 = f21;
+        this.f22 = f22;
+        this.f23 = f23;
+        this.f24 = f24;
+        this.f25 = f25;
+        this.f26 = f26;
+        this.f27 = f27;
+        this.f28 = f28;
+        this.f29 = f29;
+        this.f30 = f30;
+        this.f31 = f31;
+        this.f32 = f32;
+        this.f33 = f33;
+        this.f34 = f34;
+        this.f35 = f35;
+        this.f36 = f36;
+        this.f37 = f37;
+        this.f38 = f38;
+        this.f39 = f39;
+        this.f40 = f40;
+        this.f41 = f41;
+        this.f42 = f42;
+        this.f43 = f43;
+        this.f44 = f44;
+        this.f45 = f45;
+        this.f46 = f46;
+        this.f47 = f47;
+        this.f48 = f48;
+        this.f49 = f49;
+        this.f50 = f50;
+        this.f51 = f51;
+        this.f52 = f52;
+        this.f53 = f53;
+        this.f54 = f54;
+        this.f55 = f55;
+        this.f56 = f56;
+        this.f57 = f57;
+        this.f58 = f58;
+        this.f59 = f59;
+        this.f60 = f60;
+        this.f61 = f61;
+        this.f62 = f62;
+        this.f63 = f63;
+        this.f64 = f64;
+        this.f65 = f65;
+        this.f66 = f66;
+        this.f67 = f67;
+        this.f68 = f68;
+        this.f69 = f69;
+        this.f70 = f70;
+        this.f71 = f71;
+        this.f72 = f72;
+        this.f73 = f73;
+        this.f74 = f74;
+        this.f75 = f75;
+        this.f76 = f76;
+        this.f77 = f77;
+        this.f78 = f78;
+        this.f79 = f79;
+        this.f80 = f80;
+        this.f81 = f81;
+        this.f82 = f82;
+        this.f83 = f83;
+        this.f84 = f84;
+        this.f85 = f85;
+        this.f86 = f86;
+        this.f87 = f87;
+        this.f88 = f88;
+        this.f89 = f89;
+        this.f90 = f90;
+        this.f91 = f91;
+        this.f92 = f92;
+        this.f93 = f93;
+        this.f94 = f94;
+        this.f95 = f95;
+        this.f96 = f96;
+        this.f97 = f97;
+        this.f98 = f98;
+        this.f99 = f99;
+        this.f100 = f100;
+        this.f101 = f101;
+        this.f102 = f102;
+        this.f103 = f103;
+        this.f104 = f104;
+        this.f105 = f105;
+        this.f106 = f106;
+        this.f107 = f107;
+        this.f108 = f108;
+        this.f109 = f109;
+        this.f110 = f110;
+        this.f111 = f111;
+        this.f112 = f112;
+        this.f113 = f113;
+        this.f114 = f114;
+        this.f115 = f115;
+        this.f116 = f116;
+        this.f117 = f117;
+        this.f118 = f118;
+        this.f119 = f119;
+        this.f120 = f120;
+        this.f121 = f121;
+        this.f122 = f122;
+        this.f123 = f123;
+        this.f124 = f124;
+        this.f125 = f125;
+        this.f126 = f126;
+        this.f127 = f127;
+        this.f128 = f128;
+        this.f129 = f129;
+        this.f130 = f130;
+        this.f131 = f131;
+        this.f132 = f132;
+        this.f133 = f133;
+        this.f134 = f134;
+        this.f135 = f135;
+        this.f136 = f136;
+        this.f137 = f137;
+        this.f138 = f138;
+        this.f139 = f139;
+        this.f140 = f140;
+        this.f141 = f141;
+        this.f142 = f142;
+        this.f143 = f143;
+        this.f144 = f144;
+        this.f145 = f145;
+        this.f146 = f146;
+        this.f147 = f147;
+        this.f148 = f148;
+        this.f149 = f149;
+        this.f150 = f150;
+        this.f151 = f151;
+        this.f152 = f152;
+        this.f153 = f153;
+        this.f154 = f154;
+        this.f155 = f155;
+        this.f156 = f156;
+        this.f157 = f157;
+        this.f158 = f158;
+        this.f159 = f159;
+        this.f160 = f160;
+        this.f161 = f161;
+        this.f162 = f162;
+        this.f163 = f163;
+        this.f164 = f164;
+        this.f165 = f165;
+        this.f166 = f166;
+        this.f167 = f167;
+        this.f168 = f168;
+        this.f169 = f169;
+        this.f170 = f170;
+        this.f171 = f171;
+        this.f172 = f172;
+        this.f173 = f173;
+        this.f174 = f174;
+        this.f175 = f175;
+        this.f176 = f176;
+        this.f177 = f177;
+        this.f178 = f178;
+        this.f179 = f179;
+        this.f180 = f180;
+        this.f181 = f181;
+        this.f182 = f182;
+        this.f183 = f183;
+        this.f184 = f184;
+        this.f185 = f185;
+        this.f186 = f186;
+        this.f187 = f187;
+        this.f188 = f188;
+        this.f189 = f189;
+        this.f190 = f190;
+        this.f191 = f191;
+        this.f192 = f192;
+        this.f193 = f193;
+        this.f194 = f194;
+        this.f195 = f195;
+        this.f196 = f196;
+        this.f197 = f197;
+        this.f198 = f198;
+        this.f199 = f199;
+    }
+}
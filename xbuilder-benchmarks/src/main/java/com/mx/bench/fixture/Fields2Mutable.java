@@ -0,0 +1,14 @@
+package com.mx.bench.fixture;
+
+import com.mx.ann.Builder;
+
+@Builder(mode = Builder.Mode.MUTABLE, reusable = true)
+public class Fields2Mutable {
+    private final int f0;
+    private final String f1;
+
+    public Fields2Mutable(int f0, String f1) {
+        this.f0 = f0;
+        this.f1 = f1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mx.bench.fixture;
+
+import com.mx.ann.Builder;
+
+@Builder(mode = Builder.Mode.COPY, reusable = true)
+public class Fields50Copy {
+    private final int f0;
+    private final String f1;
+    private final long f2;
+    private final java.util.List<String> f3;
+    private final double f4;
+    private final java.util.Map<String, Integer> f5;
+    private final boolean f6;
+    private final java.util.Set<String> f7;
+    private final int f8;
+    private final String f9;
+    private final long f10;
+    private final java.util.List<String> f11;
+    private final double f12;
+    private final java.util.Map<String, Integer> f13;
+    private final boolean f14;
+    private final java.util.Set<String> f15;
+    private final int f16;
+    private final String f17;
+    private final long f18;
+    private final java.util.List<String> f19;
+    private final double f20;
+    private final java.util.Map<String, Integer> f21;
+    private final boolean f22;
+    private final java.util.Set<String> f23;
+    private final int f24;
+    private final String f25;
+    private final long f26;
+    private final java.util.List<String> f27;
+    private final double f28;
+    private final java.util.Map<String, Integer> f29;
+    private final boolean f30;
+    private final java.util.Set<String> f31;
+    private final int f32;
+    private final String f33;
+    private final long f34;
+    private final java.util.List<String> f35;
+    private final double f36;
+    private final java.util.Map<String, Integer> f37;
+    private final boolean f38;
+    private final java.util.Set<String> f39;
+    private final int f40;
+    private final String f41;
+    private final long f42;
+    private final java.util.List<String> f43;
+    private final double f44;
+    private final java.util.Map<String, Integer> f45;
+    private final boolean f46;
+    private final java.util.Set<String> f47;
+    private final int f48;
+    private final String f49;
+
+    public Fields50Copy(int f0, String f1, long f2, java.util.List<String> f3, double f4, java.util.Map<String, Integer> f5, boolean f6, java.util.Set<String> f7, int f8, String f9, long f10, java.util.List<String> f11, double f12, java.util.Map<String, Integer> f13, boolean f14, java.util.Set<String> f15, int f16, String f17, long f18, java.util.List<String> f19, double f20, java.util.Map<String, Integer> f21, boolean f22, java.util.Set<String> f23, int f24, String f25, long f26, java.util.List<String> f27, double f28, java.util.Map<String, Integer> f29, boolean f30, java.util.Set<String> f31, int f32, String f33, long f34, java.util.List<String> f35, double f36, java.util.Map<String, Integer> f37, boolean f38, java.util.Set<String> f39, int f40, String f41, long f42, java.util.List<String> f43, double f44, java.util.Map<String, Integer> f45, boolean f46, java.util.Set<String> f47, int f48, String f49) {
+        this.f0 = f0;
+        this.f1 = f1;
+        this.f2 = f2;
+        this.f3 = f3;
+        this.f4 = f4;
+        this.f5 = f5;
+        this.f6 = f6;
+        this.f7 = f7;
+        this.f8 = f8;
+        this.f9 = f9;
+        this.f10 = f10;
+        this.f11 = f11;
+        this.f12 = f12;
+        this.f13 = f13;
+        this.f14 = f14;
+        this.f15 = f15;
+        this.f16 = f16;
+        this.f17 = f17;
+        this.f18 = f18;
+        this.f19 = f19;
+        this.f20 = f20;
+        this.f21 = f21;
+        this.f22 = f22;
+        this.f23 = f23;
+        this.f24 = f24;
+        this.f25 = f25;
+        this.f26 = f26;
+        this.f27 = f27;
+        this.f28 = f28;
+        this.f29 = f29;
+        this.f30 = f30;
+        this.f31 = f31;
+        this.f32 = f32;
+        this.f33 = f33;
+        this.f34 = f34;
+        this.f35 = f35;
+        this.f36 = f36;
+        this.f37 = f37;
+        this.f38 = f38;
+        this.f39 = f39;
+        this.f40 = f40;
+        this.f41 = f41;
+        this.f42 = f42;
+        this.f43 = f43;
+        this.f44 = f44;
+        this.f45 = f45;
+        this.f46 = f46;
+        this.f47 = f47;
+        this.f48 = f48;
+        this.f49 = f49;
+    }
+}
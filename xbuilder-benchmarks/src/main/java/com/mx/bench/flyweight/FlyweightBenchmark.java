@@ -0,0 +1,75 @@
+package com.mx.bench.flyweight;
+
+import com.mx.phantom.FALSE;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@link Quote}s into a direct buffer through the flyweight builder, a new one per record or one reused
+ * with {@code at}, against building instances, and reads them back in place:
+ * <pre>
+ * java -jar xbuilder-benchmarks/target/benchmarks.jar FlyweightBenchmark -prof gc
+ * </pre>
+ * {@code gc.alloc.rate.norm} should be 0 for {@code encode}, escape analysis removing the builder, as well as
+ * for {@code encodeReused} and {@code read}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlyweightBenchmark {
+
+    static final int RECORDS = 1024;
+
+    ByteBuffer buffer;
+    Quote.FlyweightBuilder<FALSE, FALSE, FALSE, FALSE> encoder;
+    Quote.Flyweight flyweight;
+    int offset;
+    long id;
+
+    @Setup
+    public void setUp() {
+        buffer = ByteBuffer.allocateDirect(RECORDS * 64);
+        encoder = Quote.encoder(buffer, 0);
+        flyweight = new Quote.Flyweight();
+        for (int i = 0; i < RECORDS; i++) {
+            encodeReused();
+        }
+    }
+
+    @Benchmark
+    public Object build() {
+        return Quote.build(Quote.builder().id(id++).price(101.25).size(300).symbol("EURUSD"));
+    }
+
+    @Benchmark
+    public int encode() {
+        int length = Quote.encode(Quote.encoder(buffer, offset).id(id++).price(101.25).size(300).symbol("EURUSD"));
+        return next(length);
+    }
+
+    @Benchmark
+    public int encodeReused() {
+        int length = Quote.encode(encoder.at(buffer, offset).id(id++).price(101.25).size(300).symbol("EURUSD"));
+        return next(length);
+    }
+
+    @Benchmark
+    public double read() {
+        flyweight.wrap(buffer, offset);
+        next(flyweight.length());
+        return flyweight.getId() + flyweight.getPrice() * flyweight.getSize();
+    }
+
+    private int next(int length) {
+        offset += length;
+        if (offset + length > buffer.capacity()) {
+            offset = 0;
+        }
+        return offset;
+    }
+}
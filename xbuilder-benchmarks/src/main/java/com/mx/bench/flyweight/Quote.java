@@ -0,0 +1,21 @@
+package com.mx.bench.flyweight;
+
+import com.mx.ann.Builder;
+
+/**
+ * A message encoded into and read from a buffer by {@link FlyweightBenchmark}.
+ */
+@Builder(mode = Builder.Mode.MUTABLE, flyweight = true)
+public class Quote {
+    private final long id;
+    private final double price;
+    private final int size;
+    private final String symbol;
+
+    public Quote(long id, double price, int size, String symbol) {
+        this.id = id;
+        this.price = price;
+        this.size = size;
+        this.symbol = symbol;
+    }
+}
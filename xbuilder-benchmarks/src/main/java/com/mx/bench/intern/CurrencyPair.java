@@ -0,0 +1,19 @@
+package com.mx.bench.intern;
+
+import com.mx.ann.Builder;
+
+/**
+ * A repeated value, built as is, the baseline of {@link InternBenchmark}.
+ */
+@Builder(mode = Builder.Mode.MUTABLE)
+public class CurrencyPair {
+    private final String base;
+    private final String quote;
+    private final int scale;
+
+    public CurrencyPair(String base, String quote, int scale) {
+        this.base = base;
+        this.quote = quote;
+        this.scale = scale;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mx.bench.intern;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds currency pairs drawn from {@code distinct} values, as is, interned by the generated {@code build}, and
+ * interned by hand in a {@link ConcurrentHashMap}, which holds its values strongly. Run with many threads to
+ * see the contention on the interning table:
+ * <pre>
+ * java -jar xbuilder-benchmarks/target/benchmarks.jar InternBenchmark -t 64 -prof gc
+ * </pre>
+ * {@link InternFootprint} measures the heap kept by a million of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InternBenchmark {
+
+    @Param({"100", "100000"})
+    public int distinct;
+
+    String[] bases;
+    String[] quotes;
+
+    final ConcurrentHashMap<InternedCurrencyPair, InternedCurrencyPair> map = new ConcurrentHashMap<>();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        bases = new String[distinct];
+        quotes = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            bases[i] = "B" + i;
+            quotes[i] = "Q" + (i * 31 % distinct);
+        }
+    }
+
+    @Benchmark
+    public Object plain(Cursor cursor) {
+        int i = cursor.next++ % distinct;
+        return CurrencyPair.build(CurrencyPair.builder().base(bases[i]).quote(quotes[i]).scale(4));
+    }
+
+    @Benchmark
+    public Object interned(Cursor cursor) {
+        int i = cursor.next++ % distinct;
+        return InternedCurrencyPair.build(
+                InternedCurrencyPair.builder().base(bases[i]).quote(quotes[i]).scale(4));
+    }
+
+    @Benchmark
+    public Object concurrentHashMap(Cursor cursor) {
+        int i = cursor.next++ % distinct;
+        InternedCurrencyPair pair = new InternedCurrencyPair(bases[i], quotes[i], 4);
+        InternedCurrencyPair canonical = map.putIfAbsent(pair, pair);
+        return canonical == null ? pair : canonical;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mx.bench.intern;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Keeps {@code count} currency pairs drawn from {@code distinct} values, as is then interned, and prints the heap
+ * they retain:
+ * <pre>
+ * mvn -Pbench -pl xbuilder-benchmarks exec:exec@intern-footprint -DinternFootprint.args="1000000 1000"
+ * </pre>
+ */
+public final class InternFootprint {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        String[] bases = new String[distinct];
+        String[] quotes = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            bases[i] = "B" + i;
+            quotes[i] = "Q" + i;
+        }
+
+        System.out.println("variant,count,distinct,retainedBytes,bytesPerInstance");
+        long before = usedHeap();
+        Object[] plain = new Object[count];
+        for (int i = 0; i < count; i++) {
+            int v = i % distinct;
+            plain[i] = CurrencyPair.build(CurrencyPair.builder().base(bases[v]).quote(quotes[v]).scale(4));
+        }
+        print("plain", count, distinct, usedHeap() - before);
+        plain = null;
+
+        before = usedHeap();
+        Object[] interned = new Object[count];
+        for (int i = 0; i < count; i++) {
+            int v = i % distinct;
+            interned[i] = InternedCurrencyPair.build(
+                    InternedCurrencyPair.builder().base(bases[v]).quote(quotes[v]).scale(4));
+        }
+        print("interned", count, distinct, usedHeap() - before);
+        if (interned[0] != interned[distinct % count]) {
+            throw new IllegalStateException("not interned");
+        }
+    }
+
+    private static void print(String variant, int count, int distinct, long bytes) {
+        System.out.printf("%s,%d,%d,%d,%.1f%n", variant, count, distinct, bytes, (double) bytes / count);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private InternFootprint() {
+    }
+}
@@ -0,0 +1,19 @@
+package com.mx.bench.intern;
+
+import com.mx.ann.Builder;
+
+/**
+ * {@link CurrencyPair} with interning, one instance per distinct value.
+ */
+@Builder(mode = Builder.Mode.MUTABLE, intern = true)
+public class InternedCurrencyPair {
+    private final String base;
+    private final String quote;
+    private final int scale;
+
+    public InternedCurrencyPair(String base, String quote, int scale) {
+        this.base = base;
+        this.quote = quote;
+        this.scale = scale;
+    }
+}
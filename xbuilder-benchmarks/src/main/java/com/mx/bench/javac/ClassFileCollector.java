@@ -0,0 +1,65 @@
+package com.mx.bench.javac;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps every class file javac writes in memory, counting their bytes and optionally keeping them by class name.
+ *
+ * @author milo
+ */
+final class ClassFileCollector extends ForwardingJavaFileManager<JavaFileManager> {
+
+    private final Map<String, byte[]> classFiles;
+    private long classFileBytes;
+    private int classFileCount;
+
+    ClassFileCollector(JavaFileManager fileManager) {
+        this(fileManager, false);
+    }
+
+    ClassFileCollector(JavaFileManager fileManager, boolean keepClassFiles) {
+        super(fileManager);
+        this.classFiles = keepClassFiles ? new HashMap<>() : null;
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                               FileObject sibling) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+            @Override
+            public OutputStream openOutputStream() {
+                return new ByteArrayOutputStream() {
+                    @Override
+                    public void close() {
+                        classFileBytes += size();
+                        classFileCount++;
+                        if (classFiles != null) {
+                            classFiles.put(className, toByteArray());
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    long getClassFileBytes() {
+        return classFileBytes;
+    }
+
+    int getClassFileCount() {
+        return classFileCount;
+    }
+
+    Map<String, byte[]> getClassFiles() {
+        return classFiles;
+    }
+}
@@ -0,0 +1,251 @@
+package com.mx.bench.javac;
+
+import com.mx.ann.Builder;
+import com.mx.bench.FixtureSources;
+import com.mx.processor.BuilderProcessor;
+import com.sun.source.util.JavacTask;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compile-time cost of {@link BuilderProcessor}: runs javac in-process on generated {@code @Builder} classes
+ * and reports processor time, total javac time, generated class file size and peak heap.
+ * Classes too wide for a JVM constructor (more than 255 parameter slots) are only analyzed, not generated, so
+ * their class file size is reported as -1.
+ * <pre>
+ * mvn -Pbench install
+ * mvn -Pbench -pl xbuilder-benchmarks exec:exec@compile-bench
+ * </pre>
+ * Options:
+ * <ul>
+ *     <li>{@code --classes 1,10,100} {@code --fields 10,50}: run the cross product instead of the default
+ *     scenarios, which scale the class count (1..2000) at 10 fields and the field count (1..500) at 1 class</li>
+ *     <li>{@code --mode MUTABLE}: the {@link Builder.Mode} of the generated classes</li>
+ *     <li>{@code --runs 3}: compilations per scenario, the fastest one is reported</li>
+ *     <li>{@code --out result.csv}: write the results as csv</li>
+ *     <li>{@code --baseline result.csv --tolerance 0.25}: exit with 1 if the processor time or the class file size
+ *     of a scenario exceeds the baseline by more than the tolerance</li>
+ * </ul>
+ *
+ * @author milo
+ */
+public final class CompileBenchmark {
+
+    static final String PACKAGE = "gen";
+    static final String CSV_HEADER = "classes,fields,processorMs,javacMs,classBytes,classFiles,peakHeapMb";
+    // processor times below this are mostly noise
+    static final long MIN_COMPARABLE_MS = 20;
+    static final int MAX_PARAMETER_SLOTS = 255;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        Builder.Mode mode = Builder.Mode.valueOf(options.getOrDefault("mode", Builder.Mode.COPY.name()));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+
+        List<int[]> scenarios = new ArrayList<>();
+        if (options.containsKey("classes") || options.containsKey("fields")) {
+            for (int classNum : parseInts(options.getOrDefault("classes", "1"))) {
+                for (int fieldNum : parseInts(options.getOrDefault("fields", "10"))) {
+                    scenarios.add(new int[]{classNum, fieldNum});
+                }
+            }
+        } else {
+            for (int classNum : new int[]{1, 10, 100, 500, 2000}) {
+                scenarios.add(new int[]{classNum, 10});
+            }
+            for (int fieldNum : new int[]{1, 10, 50, 100, 200, 500}) {
+                scenarios.add(new int[]{1, fieldNum});
+            }
+        }
+
+        // warm up javac itself so the first scenario isn't charged for class loading and JIT
+        compile(10, 10, mode);
+
+        List<Result> results = new ArrayList<>();
+        System.out.println(CSV_HEADER);
+        for (int[] scenario : scenarios) {
+            Result best = null;
+            for (int i = 0; i < runs; i++) {
+                Result result = compile(scenario[0], scenario[1], mode);
+                if (best == null || result.javacMs < best.javacMs) {
+                    best = result;
+                }
+            }
+            results.add(best);
+            System.out.println(best.toCsv());
+        }
+
+        if (options.containsKey("out")) {
+            List<String> lines = new ArrayList<>();
+            lines.add(CSV_HEADER);
+            results.forEach(result -> lines.add(result.toCsv()));
+            Files.write(Paths.get(options.get("out")), lines, StandardCharsets.UTF_8);
+        }
+        if (options.containsKey("baseline")) {
+            double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.25"));
+            if (!compareWithBaseline(results, Paths.get(options.get("baseline")), tolerance)) {
+                System.exit(1);
+            }
+        }
+    }
+
+    static Result compile(int classNum, int fieldNum, Builder.Mode mode) {
+        List<JavaFileObject> sources = new ArrayList<>(classNum);
+        for (int i = 0; i < classNum; i++) {
+            String className = "C" + i;
+            sources.add(new SourceFile(PACKAGE + "." + className,
+                    FixtureSources.fixtureClass(PACKAGE, className, fieldNum, mode)));
+        }
+
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassFileCollector fileManager = new ClassFileCollector(
+                javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8));
+        List<String> javacOptions = Arrays.asList("-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = javac.getTask(null, fileManager, diagnostics, javacOptions, null, sources);
+        TimedProcessor processor = new TimedProcessor(new BuilderProcessor());
+        task.setProcessors(Collections.singletonList(processor));
+
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        boolean generate = FixtureSources.parameterSlots(fieldNum) <= MAX_PARAMETER_SLOTS;
+        long start = System.nanoTime();
+        if (generate) {
+            task.call();
+        } else {
+            analyze((JavacTask) task);
+        }
+        long javacNanos = System.nanoTime() - start;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                throw new IllegalStateException(diagnostic.toString());
+            }
+        }
+
+        Result result = new Result();
+        result.classNum = classNum;
+        result.fieldNum = fieldNum;
+        result.processorMs = processor.getNanos() / 1_000_000;
+        result.javacMs = javacNanos / 1_000_000;
+        result.classBytes = generate ? fileManager.getClassFileBytes() : -1;
+        result.classFiles = generate ? fileManager.getClassFileCount() : -1;
+        result.peakHeapMb = peakHeap / (1024 * 1024);
+        return result;
+    }
+
+    private static void analyze(JavacTask task) {
+        try {
+            task.analyze();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static boolean compareWithBaseline(List<Result> results, Path baselineFile, double tolerance) throws IOException {
+        Map<String, Result> baseline = new HashMap<>();
+        List<String> lines = Files.readAllLines(baselineFile, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            Result result = Result.fromCsv(line);
+            baseline.put(result.key(), result);
+        }
+        boolean ok = true;
+        for (Result result : results) {
+            Result base = baseline.get(result.key());
+            if (base == null) {
+                continue;
+            }
+            if (base.processorMs >= MIN_COMPARABLE_MS && result.processorMs > base.processorMs * (1 + tolerance)) {
+                System.err.printf("REGRESSION %s: processor %d ms, baseline %d ms%n",
+                        result.key(), result.processorMs, base.processorMs);
+                ok = false;
+            }
+            if (result.classBytes > base.classBytes * (1 + tolerance)) {
+                System.err.printf("REGRESSION %s: class files %d bytes, baseline %d bytes%n",
+                        result.key(), result.classBytes, base.classBytes);
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+    }
+
+    static final class Result {
+        int classNum;
+        int fieldNum;
+        long processorMs;
+        long javacMs;
+        long classBytes;
+        int classFiles;
+        long peakHeapMb;
+
+        String key() {
+            return classNum + "x" + fieldNum;
+        }
+
+        String toCsv() {
+            return classNum + "," + fieldNum + "," + processorMs + "," + javacMs + "," + classBytes + ","
+                    + classFiles + "," + peakHeapMb;
+        }
+
+        static Result fromCsv(String line) {
+            String[] cols = line.split(",");
+            Result result = new Result();
+            result.classNum = Integer.parseInt(cols[0]);
+            result.fieldNum = Integer.parseInt(cols[1]);
+            result.processorMs = Long.parseLong(cols[2]);
+            result.javacMs = Long.parseLong(cols[3]);
+            result.classBytes = Long.parseLong(cols[4]);
+            result.classFiles = Integer.parseInt(cols[5]);
+            result.peakHeapMb = Long.parseLong(cols[6]);
+            return result;
+        }
+    }
+
+    private CompileBenchmark() {
+    }
+}
@@ -0,0 +1,127 @@
+package com.mx.bench.javac;
+
+import com.mx.ann.Builder;
+import com.mx.bench.FixtureSources;
+import com.mx.processor.BuilderProcessor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@code @Builder} classes compiled with the shared {@code com.mx.phantom} types of xbuilder-runtime
+ * against classes nesting their own TRUE & FALSE: class file count and size, then the classes defined, the
+ * metaspace used and the time taken to load every class and call its {@code builder()} in a fresh class loader.
+ * <pre>
+ * mvn -Pbench -pl xbuilder-benchmarks exec:exec@phantom-bench -DphantomBench.args="1500 10"
+ * </pre>
+ *
+ * @author milo
+ */
+public final class PhantomTypeBenchmark {
+
+    static final String PACKAGE = "gen";
+    static final String RUNTIME_ARTIFACT = "xbuilder-runtime";
+
+    public static void main(String[] args) throws Exception {
+        int classNum = args.length > 0 ? Integer.parseInt(args[0]) : 1500;
+        int fieldNum = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        String classpath = System.getProperty("java.class.path");
+        String withoutRuntime = Arrays.stream(classpath.split(File.pathSeparator))
+                .filter(entry -> !entry.contains(RUNTIME_ARTIFACT))
+                .collect(Collectors.joining(File.pathSeparator));
+
+        System.out.println("phantomTypes,classes,fields,classFiles,classBytes,loadedClasses,metaspaceKb,loadMs");
+        // run the nested variant first so it isn't helped by a warmer JVM
+        run("nested", classNum, fieldNum, withoutRuntime);
+        run("shared", classNum, fieldNum, classpath);
+    }
+
+    static void run(String label, int classNum, int fieldNum, String classpath) throws Exception {
+        List<JavaFileObject> sources = new ArrayList<>(classNum);
+        for (int i = 0; i < classNum; i++) {
+            String className = "C" + i;
+            sources.add(new SourceFile(PACKAGE + "." + className,
+                    FixtureSources.fixtureClass(PACKAGE, className, fieldNum, Builder.Mode.COPY)));
+        }
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassFileCollector fileManager = new ClassFileCollector(
+                javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8), true);
+        JavaCompiler.CompilationTask task = javac.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", classpath), null, sources);
+        task.setProcessors(Collections.singletonList(new BuilderProcessor()));
+        task.call();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                throw new IllegalStateException(diagnostic.toString());
+            }
+        }
+
+        MemoryPoolMXBean metaspace = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> "Metaspace".equals(pool.getName()))
+                .findFirst()
+                .orElse(null);
+        System.gc();
+        long metaspaceBefore = metaspace == null ? 0 : metaspace.getUsage().getUsed();
+
+        InMemoryClassLoader loader = new InMemoryClassLoader(fileManager.getClassFiles());
+        long start = System.nanoTime();
+        for (int i = 0; i < classNum; i++) {
+            Class<?> type = Class.forName(PACKAGE + ".C" + i, true, loader);
+            Method builder = type.getMethod("builder");
+            if (builder.invoke(null) == null) {
+                throw new IllegalStateException();
+            }
+        }
+        long loadNanos = System.nanoTime() - start;
+        long metaspaceAfter = metaspace == null ? 0 : metaspace.getUsage().getUsed();
+
+        System.out.println(label + "," + classNum + "," + fieldNum + ","
+                + fileManager.getClassFileCount() + "," + fileManager.getClassFileBytes() + ","
+                + loader.getDefinedClasses() + "," + (metaspaceAfter - metaspaceBefore) / 1024 + ","
+                + loadNanos / 1_000_000);
+    }
+
+    static final class InMemoryClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classFiles;
+        private int definedClasses;
+
+        InMemoryClassLoader(Map<String, byte[]> classFiles) {
+            super(PhantomTypeBenchmark.class.getClassLoader());
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile = classFiles.get(name);
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            definedClasses++;
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+
+        int getDefinedClasses() {
+            return definedClasses;
+        }
+    }
+
+    private PhantomTypeBenchmark() {
+    }
+}
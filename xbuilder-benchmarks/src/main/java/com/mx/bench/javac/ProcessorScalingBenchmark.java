@@ -0,0 +1,153 @@
+package com.mx.bench.javac;
+
+import com.mx.ann.Builder;
+import com.mx.bench.FixtureSources;
+import com.mx.processor.BuilderProcessor;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.api.JavacTaskImpl;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Checks that {@link BuilderProcessor} stays linear in what it generates: parses and enters single classes of 125
+ * up to 1000 fields, which runs the processor but not attribution, and reports the processor time per generated
+ * tree node, counted as the nodes of the compilation unit after processing minus those of the source. The
+ * generated code itself grows with fields x required fields, since every setter returns a {@code Builder} with one
+ * type argument per required field, so a processor doing more than constant work per node shows up as a growing
+ * cost per node.
+ * <pre>
+ * mvn -Pbench install
+ * mvn -Pbench -pl xbuilder-benchmarks exec:exec@scaling-bench
+ * </pre>
+ * Exits with 1 if the cost per node of the widest class exceeds that of the narrowest by more than
+ * {@code --tolerance} (default 1.0, i.e. twice the cost); {@code --fields} and {@code --mode} pick the scenarios.
+ *
+ * @author milo
+ */
+public final class ProcessorScalingBenchmark {
+
+    static final String PACKAGE = "gen";
+    static final String CSV_HEADER = "fields,processorMs,generatedNodes,nsPerNode";
+
+    public static void main(String[] args) {
+        int[] fieldNums = {125, 250, 500, 1000};
+        Builder.Mode mode = Builder.Mode.COPY;
+        double tolerance = 1.0;
+        int runs = 3;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--fields":
+                    fieldNums = Arrays.stream(args[i + 1].split(",")).mapToInt(s -> Integer.parseInt(s.trim()))
+                            .toArray();
+                    break;
+                case "--mode":
+                    mode = Builder.Mode.valueOf(args[i + 1]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+        }
+
+        // warm up javac and the processor
+        for (int i = 0; i < 5; i++) {
+            compile(fieldNums[0], mode);
+        }
+
+        System.out.println(CSV_HEADER);
+        double firstNsPerNode = -1;
+        double lastNsPerNode = -1;
+        for (int fieldNum : fieldNums) {
+            Result best = null;
+            for (int i = 0; i < runs; i++) {
+                Result result = compile(fieldNum, mode);
+                if (best == null || result.processorNanos < best.processorNanos) {
+                    best = result;
+                }
+            }
+            double nsPerNode = (double) best.processorNanos / best.generatedNodes;
+            System.out.printf("%d,%d,%d,%.1f%n", fieldNum, best.processorNanos / 1_000_000, best.generatedNodes,
+                    nsPerNode);
+            if (firstNsPerNode < 0) {
+                firstNsPerNode = nsPerNode;
+            }
+            lastNsPerNode = nsPerNode;
+        }
+        if (lastNsPerNode > firstNsPerNode * (1 + tolerance)) {
+            System.err.printf("NON LINEAR: %.1f ns per generated node at %d fields, %.1f at %d fields%n",
+                    lastNsPerNode, fieldNums[fieldNums.length - 1], firstNsPerNode, fieldNums[0]);
+            System.exit(1);
+        }
+    }
+
+    static Result compile(int fieldNum, Builder.Mode mode) {
+        String className = "C" + fieldNum;
+        JavaFileObject source = new SourceFile(PACKAGE + "." + className,
+                FixtureSources.fixtureClass(PACKAGE, className, fieldNum, mode));
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassFileCollector fileManager = new ClassFileCollector(
+                javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8));
+        // JavacTaskImpl, the public JavacTask of java 8 can't stop after entering
+        JavacTaskImpl task = (JavacTaskImpl) javac.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", System.getProperty("java.class.path"), "-Axbuilder.quiet=true"),
+                null, Collections.singletonList(source));
+        TimedProcessor processor = new TimedProcessor(new BuilderProcessor());
+        task.setProcessors(Collections.singletonList(processor));
+        Result result = new Result();
+        try {
+            // the processor changes the parsed trees in place while they are entered
+            CompilationUnitTree unit = task.parse().iterator().next();
+            int sourceNodes = countNodes(unit);
+            task.enter();
+            result.generatedNodes = countNodes(unit) - sourceNodes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                throw new IllegalStateException(diagnostic.toString());
+            }
+        }
+        result.processorNanos = processor.getNanos();
+        return result;
+    }
+
+    static int countNodes(CompilationUnitTree unit) {
+        int[] count = {0};
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void scan(Tree tree, Void unused) {
+                if (tree != null) {
+                    count[0]++;
+                }
+                return super.scan(tree, unused);
+            }
+        }.scan(unit, null);
+        return count[0];
+    }
+
+    static final class Result {
+        long processorNanos;
+        int generatedNodes;
+    }
+
+    private ProcessorScalingBenchmark() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.mx.bench.javac;
+
+import javax.tools.SimpleJavaFileObject;
+import java.net.URI;
+
+/**
+ * A compilation unit held in memory.
+ *
+ * @author milo
+ */
+final class SourceFile extends SimpleJavaFileObject {
+
+    private final String source;
+
+    SourceFile(String className, String source) {
+        super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+        this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+    }
+}
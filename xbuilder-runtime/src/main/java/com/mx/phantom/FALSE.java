@@ -0,0 +1,13 @@
+package com.mx.phantom;
+
+/**
+ * Phantom type of a builder field that has not been set yet.
+ *
+ * @author milo
+ * @see TRUE
+ */
+public abstract class FALSE {
+
+    private FALSE() {
+    }
+}
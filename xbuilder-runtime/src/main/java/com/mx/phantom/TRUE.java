@@ -0,0 +1,13 @@
+package com.mx.phantom;
+
+/**
+ * Phantom type of a builder field that has been set. Shared by every generated Builder when this module is on
+ * the compile classpath, instead of a nested TRUE class per {@code @Builder} class.
+ *
+ * @author milo
+ */
+public abstract class TRUE {
+
+    private TRUE() {
+    }
+}
@@ -0,0 +1,148 @@
+package com.mx.runtime;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The build counters of one {@code @Builder} class, used by its {@code build} when compiled with
+ * {@code -Axbuilder.metrics=true}:
+ * <pre>
+ * long start = Foo.$metrics.begin();
+ * Foo built = new Foo(builder.a, builder.b);
+ * Foo.$metrics.end(start);
+ * return built;
+ * </pre>
+ * {@code begin} counts the build in a {@link LongAdder}, so threads building the same class don't contend, and
+ * with {@code -Axbuilder.metrics.sample=N} times one build in N picked at random.
+ * <p>
+ * Every class registers once, in the map returned by {@link #all()} and as an MXBean, see
+ * {@link BuildMetricsMXBean}.
+ *
+ * @author milo
+ */
+public final class BuildMetrics implements BuildMetricsMXBean {
+
+    static final String OBJECT_NAME_PREFIX = "com.mx.xbuilder:type=BuildMetrics,name=";
+
+    private static final ConcurrentMap<String, BuildMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final int sampleInterval;
+    /**
+     * sampleInterval - 1, a build is timed when the random bits under it are 0, -1 if none is
+     */
+    private final int sampleMask;
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder sampledBuilds = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+
+    private BuildMetrics(String type, int sampleInterval) {
+        this.type = type;
+        this.sampleInterval = sampleInterval <= 0 ? 0
+                : Integer.highestOneBit(Math.min(sampleInterval, 1 << 30) * 2 - 1);
+        this.sampleMask = this.sampleInterval - 1;
+    }
+
+    /**
+     * The metrics of a class, created and registered as an MXBean on the first call for that name
+     *
+     * @param sampleInterval one build in that many is timed, rounded up to a power of two, 0 for none
+     */
+    public static BuildMetrics register(String type, int sampleInterval) {
+        return METRICS.computeIfAbsent(type, key -> {
+            BuildMetrics metrics = new BuildMetrics(key, sampleInterval);
+            registerMXBean(metrics);
+            return metrics;
+        });
+    }
+
+    /**
+     * @return the metrics of every class built so far, by class name
+     */
+    public static Map<String, BuildMetrics> all() {
+        return Collections.unmodifiableMap(new TreeMap<>(METRICS));
+    }
+
+    private static void registerMXBean(BuildMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(metrics.type));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException e) {
+            // the counters still work, only not over JMX, e.g. when another class loader registered the name
+        }
+    }
+
+    /**
+     * Counts a build
+     *
+     * @return the start of a timed build, 0 if not sampled
+     */
+    public long begin() {
+        builds.increment();
+        if (sampleMask < 0 || (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return 0L;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a build begun with {@code start}
+     */
+    public void end(long start) {
+        if (start != 0L) {
+            sampledNanos.add(System.nanoTime() - start);
+            sampledBuilds.increment();
+        }
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public long getBuilds() {
+        return builds.sum();
+    }
+
+    @Override
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    @Override
+    public long getSampledBuilds() {
+        return sampledBuilds.sum();
+    }
+
+    @Override
+    public double getMeanBuildNanos() {
+        long sampled = sampledBuilds.sum();
+        return sampled == 0 ? 0 : (double) sampledNanos.sum() / sampled;
+    }
+
+    @Override
+    public void reset() {
+        builds.reset();
+        sampledBuilds.reset();
+        sampledNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return type + "[builds=" + getBuilds() + ", sampledBuilds=" + getSampledBuilds() + ", meanBuildNanos="
+                + getMeanBuildNanos() + "]";
+    }
+}
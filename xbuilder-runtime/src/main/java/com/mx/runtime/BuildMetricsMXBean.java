@@ -0,0 +1,28 @@
+package com.mx.runtime;
+
+/**
+ * The JMX view of the {@link BuildMetrics} of one {@code @Builder} class, registered as
+ * {@code com.mx.xbuilder:type=BuildMetrics,name=<class name>}.
+ *
+ * @author milo
+ */
+public interface BuildMetricsMXBean {
+
+    String getType();
+
+    long getBuilds();
+
+    /**
+     * One build in that many is timed, 0 if none
+     */
+    int getSampleInterval();
+
+    long getSampledBuilds();
+
+    /**
+     * The mean time of the sampled builds, including a {@code System.nanoTime()} call, 0 if none
+     */
+    double getMeanBuildNanos();
+
+    void reset();
+}
@@ -0,0 +1,121 @@
+package com.mx.runtime;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of canonical values for one {@code @Canonical} field, used by the generated
+ * {@code build} to keep a single copy of each frequent value, a country code or a status string, instead of one
+ * per instance.
+ * <p>
+ * The cache is a direct-mapped table of {@code capacity} slots: a value goes to the slot picked by its hash, and
+ * replaces the value there when they differ. The heap it holds is so bounded, frequent values stay while rare
+ * ones evict each other, and a lookup is an array read and an {@code equals}, with neither lock nor allocation.
+ * Slots are written without synchronization, which is safe as the values are immutable with final fields: a
+ * thread may only miss a value another one just put.
+ * <p>
+ * Every cache is registered by the name of its field, {@link #caches()} exposes their hit and miss counts.
+ *
+ * @author milo
+ */
+public final class CanonicalCache<T> {
+
+    private static final ConcurrentMap<String, CanonicalCache<?>> CACHES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Object[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private CanonicalCache(String name, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.name = name;
+        int size = Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * The cache of a field, created on the first call for that name
+     *
+     * @param name     {@code com.foo.User.country}
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CanonicalCache<T> register(String name, int capacity) {
+        return (CanonicalCache<T>) CACHES.computeIfAbsent(name, key -> new CanonicalCache<>(key, capacity));
+    }
+
+    /**
+     * @return every registered cache by field name, sorted
+     */
+    public static Map<String, CanonicalCache<?>> caches() {
+        return Collections.unmodifiableMap(new TreeMap<>(CACHES));
+    }
+
+    /**
+     * @return the cached value equal to {@code value}, else {@code value} itself, cached in place of the value of
+     * its slot
+     */
+    @SuppressWarnings("unchecked")
+    public T canonicalize(T value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode();
+        int index = (h ^ (h >>> 16)) & mask;
+        Object cached = slots[index];
+        if (cached == value || cached != null && cached.equals(value)) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        slots[index] = value;
+        return value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return hits / lookups, 0 before any lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Zeroes the counters, keeping the cached values
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + "[capacity=" + slots.length + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+}
@@ -0,0 +1,216 @@
+package com.mx.runtime;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent table of canonical instances, used by the {@code build} of {@code @Builder(intern = true)} classes
+ * to share a single instance per distinct value. Instances are weakly referenced, so a value no longer used
+ * anywhere else is collected and its entry dropped.
+ * <p>
+ * The table is split into lock-striped segments picked by hash. Finding an instance already interned takes no
+ * lock, only adding one locks its segment, so threads interning the same hot values don't contend.
+ * <p>
+ * Values must be immutable, with {@code equals} and {@code hashCode} over their state.
+ *
+ * @author milo
+ */
+public final class Interner<T> {
+
+    /**
+     * Segments by default, enough for a few dozen threads adding distinct values at once
+     */
+    public static final int DEFAULT_CONCURRENCY = 64;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment<T>[] segments;
+    private final int segmentShift;
+
+    public Interner() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @param concurrency the number of segments, rounded up to a power of two
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Interner(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        int segmentNum = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        segments = new Segment[segmentNum];
+        for (int i = 0; i < segmentNum; i++) {
+            segments[i] = new Segment<>();
+        }
+        // the top bits pick the segment, the bottom ones the bucket
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentNum);
+    }
+
+    /**
+     * @return the interned instance equal to {@code value}, {@code value} itself if there was none
+     */
+    public T intern(T value) {
+        int hash = spread(value.hashCode());
+        return segments.length == 1 ? segments[0].intern(value, hash)
+                : segments[hash >>> segmentShift].intern(value, hash);
+    }
+
+    /**
+     * @return the number of entries, including those of values collected but not yet dropped
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    /**
+     * Spreads the bits of the hash of a value, whose low bits alone are often alike
+     */
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * An entry of a bucket chain. A published chain never changes, so a lookup without the lock can walk it:
+     * removing or moving an entry copies the ones before it instead.
+     */
+    private static final class Entry<T> extends WeakReference<T> {
+        final int hash;
+        final Entry<T> next;
+
+        Entry(T value, int hash, Entry<T> next, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment<T> extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Written again after each change, so that a lookup reading it sees the entries added before
+         */
+        volatile Entry<T>[] table;
+        /**
+         * Written under the lock, read without it by {@link #size()}
+         */
+        volatile int count;
+        final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Segment() {
+            table = new Entry[INITIAL_SEGMENT_CAPACITY];
+        }
+
+        T intern(T value, int hash) {
+            // lock free, missing an entry being added only means going through the lock
+            T found = find(table, value, hash);
+            if (found != null) {
+                return found;
+            }
+            lock();
+            try {
+                expunge();
+                Entry<T>[] tab = table;
+                found = find(tab, value, hash);
+                if (found != null) {
+                    return found;
+                }
+                if (count + 1 > tab.length - (tab.length >>> 2)) {
+                    tab = resize(tab);
+                }
+                int newCount = count + 1;
+                int index = hash & (tab.length - 1);
+                tab[index] = new Entry<>(value, hash, tab[index], queue);
+                count = newCount;
+                table = tab;
+                return value;
+            } finally {
+                unlock();
+            }
+        }
+
+        private T find(Entry<T>[] tab, T value, int hash) {
+            for (Entry<T> entry = tab[hash & (tab.length - 1)]; entry != null; entry = entry.next) {
+                if (entry.hash == hash) {
+                    T candidate = entry.get();
+                    if (candidate != null && (candidate == value || candidate.equals(value))) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Drops the entries of collected values, under the lock
+         */
+        @SuppressWarnings("unchecked")
+        private void expunge() {
+            Entry<T> cleared = (Entry<T>) queue.poll();
+            if (cleared == null) {
+                return;
+            }
+            Entry<T>[] tab = table;
+            int removed = 0;
+            for (; cleared != null; cleared = (Entry<T>) queue.poll()) {
+                int index = cleared.hash & (tab.length - 1);
+                for (Entry<T> entry = tab[index]; entry != null; entry = entry.next) {
+                    if (entry == cleared) {
+                        // copy the entries before it onto the ones after, leaving the cleared ones out
+                        Entry<T> head = entry.next;
+                        for (Entry<T> before = tab[index]; before != entry; before = before.next) {
+                            T value = before.get();
+                            if (value != null) {
+                                head = new Entry<>(value, before.hash, head, queue);
+                            } else {
+                                // still queued, expunge won't find it
+                                removed++;
+                            }
+                        }
+                        tab[index] = head;
+                        removed++;
+                        break;
+                    }
+                }
+            }
+            count -= removed;
+            table = tab;
+        }
+
+        /**
+         * Doubles the table, copying the live entries, under the lock
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Entry<T>[] resize(Entry<T>[] tab) {
+            Entry<T>[] newTab = new Entry[tab.length << 1];
+            int live = 0;
+            for (Entry<T> entry : tab) {
+                for (; entry != null; entry = entry.next) {
+                    T value = entry.get();
+                    if (value != null) {
+                        int index = entry.hash & (newTab.length - 1);
+                        newTab[index] = new Entry<>(value, entry.hash, newTab[index], queue);
+                        live++;
+                    }
+                    // a cleared entry left out is still queued, expunge won't find it; a copied one is queued
+                    // along with its copy once collected, and expunge drops the copy
+                }
+            }
+            count = live;
+            return newTab;
+        }
+    }
+}
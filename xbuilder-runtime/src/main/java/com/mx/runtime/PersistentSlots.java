@@ -0,0 +1,106 @@
+package com.mx.runtime;
+
+import java.util.Arrays;
+
+/**
+ * The field values of a {@code Mode.PERSISTENT} builder: a fixed number of slots that are never changed in place.
+ * {@link #set} returns new slots sharing all but one path with these, so a builder can be kept as a template in a
+ * static field and branched from any thread.
+ * <p>
+ * The slots are the leaves of a tree of arrays of {@value #WIDTH}: setting one of N slots copies
+ * log<sub>{@value #WIDTH}</sub>(N) arrays of at most {@value #WIDTH} elements, 23 references for 100 slots,
+ * instead of all N fields. Arrays are sized to what they hold, and primitive values are boxed.
+ *
+ * @author milo
+ */
+public final class PersistentSlots {
+
+    static final int SHIFT = 4;
+    static final int WIDTH = 1 << SHIFT;
+    static final int MASK = WIDTH - 1;
+
+    private final Object[] root;
+    /**
+     * The shift of the index bits picking a child of the root, 0 if the root is the leaf
+     */
+    private final int shift;
+    private final int size;
+
+    private PersistentSlots(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Slots holding {@code values}, which are copied
+     */
+    public static PersistentSlots of(Object... values) {
+        int size = values.length;
+        // the leaves, then each level of parents up to a single root
+        Object[] level = new Object[Math.max(1, (size + MASK) >>> SHIFT)];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(values, i << SHIFT, Math.min(size, (i + 1) << SHIFT));
+        }
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] parents = new Object[(level.length + MASK) >>> SHIFT];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = Arrays.copyOfRange(level, i << SHIFT, Math.min(level.length, (i + 1) << SHIFT));
+            }
+            level = parents;
+            shift += SHIFT;
+        }
+        return new PersistentSlots((Object[]) level[0], shift, size);
+    }
+
+    public Object get(int index) {
+        checkIndex(index);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= SHIFT) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node[index & MASK];
+    }
+
+    /**
+     * @return slots holding {@code value} at {@code index}, these ones if they already hold it
+     */
+    public PersistentSlots set(int index, Object value) {
+        checkIndex(index);
+        if (get(index) == value) {
+            return this;
+        }
+        return new PersistentSlots(set(root, shift, index, value), shift, size);
+    }
+
+    private static Object[] set(Object[] node, int level, int index, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = set((Object[]) node[child], level - SHIFT, index, value);
+        }
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + size + " slots");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "" : ", ").append(get(i));
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.mx.runtime;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The String fields of the flyweight records of {@code @Builder(flyweight = true)} classes. A String is stored as
+ * an {@code int} slot pair in the fixed section of a record, its offset from the record start and its length in
+ * bytes, -1 for null, and its UTF-8 bytes in the tail of the record. Reads and writes use absolute indexes, the
+ * position and limit of the buffer are left alone.
+ *
+ * @author milo
+ */
+public final class Utf8 {
+
+    /**
+     * Bytes of the slot pair of a String in the fixed section
+     */
+    public static final int SLOT_SIZE = 8;
+
+    /**
+     * Writes {@code value} at {@code tail} and its slot pair at {@code slot}, without allocating
+     *
+     * @param record the index of the record in the buffer
+     * @param slot   the offset of the slot pair in the record
+     * @param tail   the offset of the free tail in the record
+     * @return the new offset of the free tail
+     */
+    public static int putString(ByteBuffer buffer, int record, int slot, int tail, String value) {
+        if (value == null) {
+            buffer.putInt(record + slot, 0);
+            buffer.putInt(record + slot + 4, -1);
+            return tail;
+        }
+        int length = encode(buffer, record + tail, value);
+        buffer.putInt(record + slot, tail);
+        buffer.putInt(record + slot + 4, length);
+        return tail + length;
+    }
+
+    /**
+     * @return the String of the slot pair at {@code slot}, null if none was written
+     */
+    public static String getString(ByteBuffer buffer, int record, int slot) {
+        int length = buffer.getInt(record + slot + 4);
+        if (length < 0) {
+            return null;
+        }
+        int index = record + buffer.getInt(record + slot);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + index, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(index + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the length in bytes of the String of the slot pair at {@code slot}, -1 for null
+     */
+    public static int getLength(ByteBuffer buffer, int record, int slot) {
+        return buffer.getInt(record + slot + 4);
+    }
+
+    /**
+     * @return the number of UTF-8 bytes of {@code value}
+     */
+    public static int encodedLength(CharSequence value) {
+        int length = 0;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length++;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * UTF-8 encodes {@code value} at {@code index}, an unpaired surrogate as {@code ?} like {@code String.getBytes}
+     *
+     * @return the number of bytes written
+     */
+    public static int encode(ByteBuffer buffer, int index, CharSequence value) {
+        int start = index;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put(index++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(index++, (byte) (0xc0 | c >> 6));
+                buffer.put(index++, (byte) (0x80 | c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put(index++, (byte) (0xf0 | codePoint >> 18));
+                    buffer.put(index++, (byte) (0x80 | codePoint >> 12 & 0x3f));
+                    buffer.put(index++, (byte) (0x80 | codePoint >> 6 & 0x3f));
+                    buffer.put(index++, (byte) (0x80 | codePoint & 0x3f));
+                } else {
+                    buffer.put(index++, (byte) '?');
+                }
+            } else {
+                buffer.put(index++, (byte) (0xe0 | c >> 12));
+                buffer.put(index++, (byte) (0x80 | c >> 6 & 0x3f));
+                buffer.put(index++, (byte) (0x80 | c & 0x3f));
+            }
+        }
+        return index - start;
+    }
+
+    private Utf8() {
+    }
+}
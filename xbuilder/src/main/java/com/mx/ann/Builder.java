@@ -0,0 +1,96 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Builder {
+
+    /**
+     * How the generated setters produce the next builder state.
+     */
+    Mode mode() default Mode.COPY;
+
+    /**
+     * Generates {@code reset()}, which returns the same builder with every field back to its default and typed as
+     * if nothing was set, and a static {@code localBuilder()} handing out a reset per-thread builder. With
+     * {@link Mode#MUTABLE} a loop building with {@code localBuilder()} allocates no builder at all. The builder
+     * of {@code localBuilder()} must not be kept, nor used while building another instance of the same class
+     * on the same thread.
+     */
+    boolean reusable() default false;
+
+    /**
+     * Generates {@code toBuilder()} on the annotated class, a builder with every field set from the instance.
+     */
+    boolean toBuilder() default false;
+
+    /**
+     * Generates a {@code withX(x)} per field on the annotated class, calling the all args constructor directly
+     * with {@code x} and the other fields of the instance.
+     */
+    boolean withers() default false;
+
+    /**
+     * Generates static batch factories taking one array per field, primitive arrays for primitive fields:
+     * {@code buildAll(a, b)} builds {@code new Foo(a[i], b[i])} for every {@code i} in a plain loop,
+     * {@code buildAllParallel(a, b)} splits the same work over the common {@code ForkJoinPool}, and
+     * {@code collector()} collects a stream of complete builders into a list.
+     */
+    boolean batch() default false;
+
+    /**
+     * Generates a reflection free binding for codecs: {@code FIELD_COUNT}, a {@code FIRST_NAME_INDEX} per field,
+     * {@code FIELD_NAMES} and {@code FIELD_TYPES} constants, a static {@code fieldIndex(name)}, and
+     * {@code binding()} returning a {@code Binding} with {@code set(index, value)}, a primitive
+     * {@code setInt(index, value)} and the like, and {@code tryBuild()}, which throws an
+     * {@code IllegalStateException} naming the required fields never set.
+     */
+    boolean binding() default false;
+
+    /**
+     * Generates {@code equals} and {@code hashCode} over all fields, the hash cached after its first computation,
+     * and makes {@code build} return a canonical instance per distinct value, kept in a weakly referenced
+     * {@code com.mx.runtime.Interner}. All fields must be final and xbuilder-runtime on the compile classpath.
+     */
+    boolean intern() default false;
+
+    /**
+     * Generates a binary layout of the fields over a {@code ByteBuffer}: a {@code Flyweight} reading a record in
+     * place, a {@code FlyweightBuilder} from {@code encoder(buffer, offset)} whose setters write straight into the
+     * buffer, and {@code encode(builder)}, which only takes a builder with every field written. Fields must be
+     * primitives or Strings, none optional.
+     */
+    boolean flyweight() default false;
+
+    /**
+     * Generates {@code concurrentBuilder()} returning a {@code ConcurrentBuilder} whose fields may be set by
+     * different threads, each at most once, and whose {@code future()} completes with the built instance as soon
+     * as the last required field is set, or exceptionally on {@code fail(cause)} or a failed validation. Lock
+     * free, it suits fan-out calls completing on pooled or virtual threads. At most 63 fields, one required.
+     */
+    boolean concurrent() default false;
+
+    enum Mode {
+        /**
+         * Every setter returns a new Builder holding a copy of all fields.
+         */
+        COPY,
+        /**
+         * Every setter assigns the field and returns the same Builder re-typed,
+         * so a whole build allocates a single Builder. A builder must not be
+         * reused after one of its setters has been called.
+         */
+        MUTABLE,
+        /**
+         * Setters never change their Builder: each returns a new one sharing the field values with it, kept in
+         * a tree of small arrays, so a setter copies O(log n) references rather than n fields. A partly set
+         * Builder can so be kept in a static field as a template and branched from any thread. Needs
+         * xbuilder-runtime, and supports neither {@code reusable} nor {@code @Singular} fields.
+         */
+        PERSISTENT
+    }
+}
@@ -0,0 +1,21 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The generated {@code build} replaces the value of this field with an equal one kept in a bounded per-field
+ * {@code com.mx.runtime.CanonicalCache}, so that frequent values are held once. For immutable reference types
+ * with value equality, such as String or the boxes, and needs xbuilder-runtime on the compile classpath.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Canonical {
+
+    /**
+     * The number of cached values, rounded up to a power of two. Values whose hashes collide evict each other.
+     */
+    int size() default 1024;
+}
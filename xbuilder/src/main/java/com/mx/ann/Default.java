@@ -0,0 +1,21 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field of a {@link Builder} class as optional: it gets no phantom type parameter, its setter returns the
+ * builder unchanged in type, and {@code build} accepts a builder that never set it.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Default {
+
+    /**
+     * A Java expression giving the value of the field when it is not set, e.g. {@code "8080"} or
+     * {@code "java.util.Collections.emptyList()"}. Empty means the zero value of the field type.
+     */
+    String value() default "";
+}
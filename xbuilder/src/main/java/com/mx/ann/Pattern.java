@@ -0,0 +1,20 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The generated {@code build} rejects a String or CharSequence of this field that doesn't entirely match
+ * {@link #value()}, compiled once into a static {@code java.util.regex.Pattern}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Pattern {
+
+    /**
+     * A {@link java.util.regex.Pattern} regular expression, checked when compiling.
+     */
+    String value();
+}
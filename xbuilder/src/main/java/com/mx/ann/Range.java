@@ -0,0 +1,19 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The generated {@code build} rejects a value of this numeric field, primitive or boxed, outside
+ * {@code [min, max]}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Range {
+
+    long min() default Long.MIN_VALUE;
+
+    long max() default Long.MAX_VALUE;
+}
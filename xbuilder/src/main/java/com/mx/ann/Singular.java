@@ -0,0 +1,28 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code List}, {@code Set} or {@code Map} field of a {@link Builder} class to be accumulated one element
+ * at a time: the builder gets {@code addTag(tag)} (or {@code putAttr(key, value)} for a map), collecting into a
+ * growable array, and {@code build} turns it into an exactly sized unmodifiable collection. The field is optional
+ * and empty unless set.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Singular {
+
+    /**
+     * Name of one element, e.g. {@code "tag"} for {@code tags}. Empty derives it from the field name.
+     */
+    String value() default "";
+
+    /**
+     * Initial capacity of the accumulator, in elements. 0 picks a small default. The builder also gets a
+     * {@code tagsCapacity(n)} to size it per build.
+     */
+    int capacity() default 0;
+}
@@ -0,0 +1,19 @@
+package com.mx.ann;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The generated {@code build} rejects a String, CharSequence, Collection, Map or array of this field whose length
+ * or size is outside {@code [min, max]}.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Size {
+
+    int min() default 0;
+
+    int max() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,167 @@
+package com.mx.processor;
+
+import com.mx.utils.JCTreeUtils;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.tools.javac.code.BoundKind;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+/**
+ * Generates the batch factories of a {@code @Builder(batch = true)} class, one array per field, primitive arrays
+ * for primitive fields, the i-th instance built from the i-th element of each:
+ * <pre>
+ * public static Foo[] buildAll(int[] a, String[] b)          // a sequential loop
+ * public static Foo[] buildAllParallel(int[] a, String[] b)  // split over the common ForkJoinPool
+ * public static Collector&lt;Builder&lt;TRUE, TRUE&gt;, ?, List&lt;Foo&gt;&gt; collector()
+ * </pre>
+ * Both factories create each instance through {@code $create}, which checks its constraints like {@code build}.
+ *
+ * @author milo
+ */
+class BatchSupport {
+
+    static final String BUILD_ALL_METHOD = "buildAll";
+    static final String BUILD_ALL_PARALLEL_METHOD = "buildAllParallel";
+    static final String COLLECTOR_METHOD = "collector";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+
+    BatchSupport(TreeMaker treeMaker, Names names) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+    }
+
+    /**
+     * @param builderType {@code Builder<TRUE, ...>}, what the collector takes
+     */
+    List<JCTree.JCMethodDecl> createMethods(Name className,
+                                            List<JCTree.JCVariableDecl> fields,
+                                            JCTree.JCExpression builderType) {
+        return List.of(
+                createBuildAll(className, fields, false),
+                createBuildAll(className, fields, true),
+                createCollector(className, builderType));
+    }
+
+    /**
+     * <pre>
+     * int $size = a.length;
+     * if (b.length != $size) throw new IllegalArgumentException("b has " + b.length + " values, expected " + $size);
+     * Foo[] $result = new Foo[$size];
+     * for (int $i = 0; $i &lt; $size; $i++) $result[$i] = Foo.$create(a[$i], b[$i]);
+     * return $result;
+     * </pre>
+     * or {@code IntStream.range(0, $size).parallel().forEach($i -> $result[$i] = Foo.$create(a[$i], b[$i]))} in
+     * parallel. The locals are {@code $} prefixed, the parameters being named like the fields.
+     */
+    private JCTree.JCMethodDecl createBuildAll(Name className, List<JCTree.JCVariableDecl> fields, boolean parallel) {
+        Name size = names.fromString("$size");
+        Name result = names.fromString("$result");
+        Name i = names.fromString("$i");
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        statements.append(treeMaker.VarDef(treeMaker.Modifiers(0), size, treeMaker.TypeIdent(TypeTag.INT),
+                length(fields.head.name)));
+        for (JCTree.JCVariableDecl field : fields.tail) {
+            // all columns have the same length
+            statements.append(treeMaker.If(
+                    treeMaker.Binary(JCTree.Tag.NE, length(field.name), treeMaker.Ident(size)),
+                    treeMaker.Throw(treeMaker.NewClass(null, List.nil(),
+                            qualifiedName("java.lang.IllegalArgumentException"),
+                            List.of(concat(
+                                    treeMaker.Literal(field.name.toString() + " has "),
+                                    length(field.name),
+                                    treeMaker.Literal(" values, expected "),
+                                    treeMaker.Ident(size))),
+                            null)),
+                    null));
+        }
+        statements.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.FINAL), result,
+                treeMaker.TypeArray(treeMaker.Ident(className)),
+                treeMaker.NewArray(treeMaker.Ident(className), List.of(treeMaker.Ident(size)), null)));
+        // $result[$i] = Foo.$create(a[$i], b[$i]);
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        fields.forEach(field -> args.append(treeMaker.Indexed(treeMaker.Ident(field.name), treeMaker.Ident(i))));
+        JCTree.JCExpression create = treeMaker.Assign(
+                treeMaker.Indexed(treeMaker.Ident(result), treeMaker.Ident(i)),
+                treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(className),
+                        names.fromString(BuilderProcessor.CREATE_METHOD)), args.toList()));
+        if (parallel) {
+            JCTree.JCExpression range = treeMaker.Apply(List.nil(),
+                    qualifiedName("java.util.stream.IntStream.range"),
+                    List.of(treeMaker.Literal(TypeTag.INT, 0), treeMaker.Ident(size)));
+            JCTree.JCExpression parallelRange = treeMaker.Apply(List.nil(),
+                    treeMaker.Select(range, names.fromString("parallel")), List.nil());
+            statements.append(treeMaker.Exec(treeMaker.Apply(List.nil(),
+                    treeMaker.Select(parallelRange, names.fromString("forEach")),
+                    List.of(treeMaker.Lambda(
+                            List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), i, null, null)),
+                            create)))));
+        } else {
+            statements.append(treeMaker.ForLoop(
+                    List.of(treeMaker.VarDef(treeMaker.Modifiers(0), i, treeMaker.TypeIdent(TypeTag.INT),
+                            treeMaker.Literal(TypeTag.INT, 0))),
+                    treeMaker.Binary(JCTree.Tag.LT, treeMaker.Ident(i), treeMaker.Ident(size)),
+                    List.of(treeMaker.Exec(treeMaker.Unary(JCTree.Tag.POSTINC, treeMaker.Ident(i)))),
+                    treeMaker.Exec(create)));
+        }
+        statements.append(treeMaker.Return(treeMaker.Ident(result)));
+
+        ListBuffer<JCTree.JCVariableDecl> params = new ListBuffer<>();
+        fields.forEach(field -> params.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), field.name,
+                treeMaker.TypeArray(field.vartype), null)));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(parallel ? BUILD_ALL_PARALLEL_METHOD : BUILD_ALL_METHOD),
+                treeMaker.TypeArray(treeMaker.Ident(className)),
+                List.nil(),
+                params.toList(),
+                List.nil(),
+                treeMaker.Block(0, statements.toList()),
+                null);
+    }
+
+    /**
+     * {@code return Collectors.mapping(Foo::build, Collectors.toList());}
+     */
+    private JCTree.JCMethodDecl createCollector(Name className, JCTree.JCExpression builderType) {
+        JCTree.JCExpression returnType = treeMaker.TypeApply(qualifiedName("java.util.stream.Collector"), List.of(
+                builderType,
+                treeMaker.Wildcard(treeMaker.TypeBoundKind(BoundKind.UNBOUND), null),
+                treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(treeMaker.Ident(className)))));
+        JCTree.JCExpression collector = treeMaker.Apply(List.nil(),
+                qualifiedName("java.util.stream.Collectors.mapping"),
+                List.of(treeMaker.Reference(MemberReferenceTree.ReferenceMode.INVOKE,
+                                names.fromString(BuilderProcessor.BUILD_METHOD), treeMaker.Ident(className), null),
+                        treeMaker.Apply(List.nil(), qualifiedName("java.util.stream.Collectors.toList"), List.nil())));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(COLLECTOR_METHOD),
+                returnType,
+                List.nil(),
+                List.nil(),
+                List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(collector))),
+                null);
+    }
+
+    private JCTree.JCExpression length(Name array) {
+        return treeMaker.Select(treeMaker.Ident(array), names.fromString("length"));
+    }
+
+    private JCTree.JCExpression concat(JCTree.JCExpression... parts) {
+        JCTree.JCExpression concat = parts[0];
+        for (int i = 1; i < parts.length; i++) {
+            concat = treeMaker.Binary(JCTree.Tag.PLUS, concat, parts[i]);
+        }
+        return concat;
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
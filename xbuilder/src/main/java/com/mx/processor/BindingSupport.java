@@ -0,0 +1,395 @@
+package com.mx.processor;
+
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.mx.utils.StringUtils;
+import com.sun.tools.javac.code.BoundKind;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.code.Types;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Generates the reflection free binding of a {@code @Builder(binding = true)} class, for codecs filling fields by
+ * index:
+ * <pre>
+ * public static final int FIELD_COUNT = 2;
+ * public static final int FIRST_NAME_INDEX = 0;
+ * public static final List&lt;String&gt; FIELD_NAMES = ...;     // "firstName", "age"
+ * public static final List&lt;Class&lt;?&gt;&gt; FIELD_TYPES = ...; // String.class, int.class
+ * public static int fieldIndex(String name)                 // a string switch, -1 if unknown
+ * public static Binding binding()
+ *
+ * public static final class Binding {
+ *     public Binding set(int index, Object value)          // switch on index, unboxing primitives
+ *     public Binding setInt(int index, int value)          // one per primitive type among the fields
+ *     public Foo tryBuild()                                // IllegalStateException naming the missing fields
+ * }
+ * </pre>
+ * Each set marks the field in a bitmask, {@code tryBuild} compares it with the mask of the required fields.
+ *
+ * @author milo
+ */
+class BindingSupport {
+
+    static final String BINDING_CLASS = "Binding";
+    static final String BINDING_METHOD = "binding";
+    static final String FIELD_COUNT = "FIELD_COUNT";
+    static final String FIELD_NAMES = "FIELD_NAMES";
+    static final String FIELD_TYPES = "FIELD_TYPES";
+    static final String INDEX_SUFFIX = "_INDEX";
+    static final String FIELD_INDEX_METHOD = "fieldIndex";
+    static final String SET_METHOD = "set";
+    static final String TRY_BUILD_METHOD = "tryBuild";
+    static final String MASK_FIELD = "$set";
+    static final String REQUIRED_FIELD = "$required";
+    static final String MISSING_METHOD = "$missing";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Types types;
+
+    BindingSupport(TreeMaker treeMaker, Names names, Types types) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Fails on two fields with the same index constant, as {@code firstName} and {@code first_name}
+     */
+    void checkClass(TypeElement classElement) throws ProcessingException {
+        Map<String, String> constantNames = new HashMap<>();
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            String name = field.getSimpleName().toString();
+            String other = constantNames.putIfAbsent(indexConstantName(name), name);
+            if (other != null) {
+                throw new ProcessingException(field, "Fields %s and %s of %s both map to the binding constant %s",
+                        other, name, classElement.getQualifiedName().toString(), indexConstantName(name));
+            }
+        }
+    }
+
+    /**
+     * {@code firstName} to {@code FIRST_NAME_INDEX}
+     */
+    static String indexConstantName(String fieldName) {
+        return StringUtils.upperSnakeCase(fieldName) + INDEX_SUFFIX;
+    }
+
+    /**
+     * The metadata constants, {@code fieldIndex}, {@code binding()} and the Binding class
+     *
+     * @param initializer the initial value of a field in the Binding, null for the zero value
+     */
+    List<JCTree> createMembers(Name className,
+                               FieldModel model,
+                               Function<JCTree.JCVariableDecl, JCTree.JCExpression> initializer) {
+        List<JCTree.JCVariableDecl> fields = model.fields;
+        ListBuffer<JCTree> members = new ListBuffer<>();
+        members.append(constant(treeMaker.TypeIdent(TypeTag.INT), names.fromString(FIELD_COUNT),
+                intLiteral(fields.size())));
+        int index = 0;
+        for (JCTree.JCVariableDecl field : fields) {
+            members.append(constant(treeMaker.TypeIdent(TypeTag.INT),
+                    names.fromString(indexConstantName(field.name.toString())), intLiteral(index++)));
+        }
+        members.append(createFieldNames(fields));
+        members.append(createFieldTypes(fields));
+        members.append(createFieldIndexMethod(fields));
+        Name bindingClassName = names.fromString(BINDING_CLASS);
+        // public static Binding binding() { return new Binding(); }
+        members.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(BINDING_METHOD), treeMaker.Ident(bindingClassName), List.nil(), List.nil(),
+                List.nil(), treeMaker.Block(0, List.of(treeMaker.Return(
+                        treeMaker.NewClass(null, List.nil(), treeMaker.Ident(bindingClassName), List.nil(), null)))),
+                null));
+        members.append(createBindingClass(className, bindingClassName, model, initializer));
+        return members.toList();
+    }
+
+    private JCTree.JCVariableDecl createFieldNames(List<JCTree.JCVariableDecl> fields) {
+        // Collections.unmodifiableList(Arrays.asList("a", "b"))
+        ListBuffer<JCTree.JCExpression> fieldNames = new ListBuffer<>();
+        fields.forEach(field -> fieldNames.append(treeMaker.Literal(field.name.toString())));
+        JCTree.JCExpression stringType = qualifiedName("java.lang.String");
+        return constant(treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(stringType)),
+                names.fromString(FIELD_NAMES),
+                unmodifiableList(qualifiedName("java.lang.String"), fieldNames.toList()));
+    }
+
+    private JCTree.JCVariableDecl createFieldTypes(List<JCTree.JCVariableDecl> fields) {
+        // Collections.unmodifiableList(Arrays.<Class<?>>asList(int.class, List.class))
+        ListBuffer<JCTree.JCExpression> fieldTypes = new ListBuffer<>();
+        fields.forEach(field -> fieldTypes.append(treeMaker.Select(
+                treeMaker.Type(types.erasure(field.sym.type)), names._class)));
+        return constant(treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(anyClassType())),
+                names.fromString(FIELD_TYPES),
+                unmodifiableList(anyClassType(), fieldTypes.toList()));
+    }
+
+    private JCTree.JCMethodDecl createFieldIndexMethod(List<JCTree.JCVariableDecl> fields) {
+        // switch (name) { case "a": return 0; ... } return -1;
+        Name name = names.fromString("name");
+        ListBuffer<JCTree.JCCase> cases = new ListBuffer<>();
+        int index = 0;
+        for (JCTree.JCVariableDecl field : fields) {
+            cases.append(treeMaker.Case(treeMaker.Literal(field.name.toString()),
+                    List.of(treeMaker.Return(intLiteral(index++)))));
+        }
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(FIELD_INDEX_METHOD), treeMaker.TypeIdent(TypeTag.INT), List.nil(),
+                List.of(param(name, qualifiedName("java.lang.String"))), List.nil(),
+                treeMaker.Block(0, List.of(
+                        treeMaker.Switch(treeMaker.Ident(name), cases.toList()),
+                        treeMaker.Return(intLiteral(-1)))),
+                null);
+    }
+
+    private JCTree.JCClassDecl createBindingClass(Name className,
+                                                  Name bindingClassName,
+                                                  FieldModel model,
+                                                  Function<JCTree.JCVariableDecl, JCTree.JCExpression> initializer) {
+        List<JCTree.JCVariableDecl> fields = model.fields;
+        int words = (fields.size() + 63) >>> 6;
+        long[] required = new long[words];
+        int index = 0;
+        for (JCTree.JCVariableDecl field : fields) {
+            if (model.isRequired(field)) {
+                required[index >>> 6] |= 1L << index;
+            }
+            index++;
+        }
+        ListBuffer<JCTree> body = new ListBuffer<>();
+        // private static final long[] $required = {...};
+        ListBuffer<JCTree.JCExpression> requiredWords = new ListBuffer<>();
+        for (long word : required) {
+            requiredWords.append(treeMaker.Literal(TypeTag.LONG, word));
+        }
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(REQUIRED_FIELD), longArrayType(),
+                treeMaker.NewArray(null, List.nil(), requiredWords.toList())));
+        // private final long[] $set = new long[words];
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.FINAL),
+                names.fromString(MASK_FIELD), longArrayType(),
+                treeMaker.NewArray(treeMaker.TypeIdent(TypeTag.LONG), List.of(intLiteral(words)), null)));
+        for (JCTree.JCVariableDecl field : fields) {
+            body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), field.name, field.vartype,
+                    initializer.apply(field)));
+        }
+        body.append(createSetMethod(bindingClassName, fields, null));
+        Map<TypeTag, String> primitiveSetters = new LinkedHashMap<>();
+        for (JCTree.JCVariableDecl field : fields) {
+            Type type = field.sym.type;
+            if (type.isPrimitive()) {
+                primitiveSetters.putIfAbsent(type.getTag(), type.tsym.name.toString());
+            }
+        }
+        for (String primitive : primitiveSetters.values()) {
+            body.append(createSetMethod(bindingClassName, fields, primitive));
+        }
+        body.append(createTryBuildMethod(className, fields, required));
+        body.append(createMissingMethod());
+        return treeMaker.ClassDef(
+                treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL),
+                bindingClassName,
+                List.nil(),
+                null,
+                List.nil(),
+                body.toList());
+    }
+
+    /**
+     * {@code set(int, Object)} when {@code primitive} is null, else {@code setInt(int, int)} and the like, over the
+     * fields of that type only
+     */
+    private JCTree.JCMethodDecl createSetMethod(Name bindingClassName, List<JCTree.JCVariableDecl> fields,
+                                               String primitive) {
+        Name index = names.fromString("index");
+        Name value = names.fromString("value");
+        ListBuffer<JCTree.JCCase> cases = new ListBuffer<>();
+        int fieldIndex = 0;
+        for (JCTree.JCVariableDecl field : fields) {
+            Type type = field.sym.type;
+            if (primitive == null || (type.isPrimitive() && type.tsym.name.contentEquals(primitive))) {
+                // case 0: this.a = (Integer) value; break;
+                JCTree.JCExpression fieldValue = primitive != null ? treeMaker.Ident(value)
+                        : treeMaker.TypeCast(type.isPrimitive()
+                        ? treeMaker.Type(types.boxedClass(type).type) : field.vartype, treeMaker.Ident(value));
+                cases.append(treeMaker.Case(intLiteral(fieldIndex), List.of(
+                        treeMaker.Exec(treeMaker.Assign(thisField(field.name), fieldValue)),
+                        treeMaker.Break(null))));
+            }
+            fieldIndex++;
+        }
+        String message = primitive == null ? "No field at index " : "No " + primitive + " field at index ";
+        cases.append(treeMaker.Case(null, List.of(treeMaker.Throw(treeMaker.NewClass(null, List.nil(),
+                qualifiedName(primitive == null
+                        ? "java.lang.IndexOutOfBoundsException" : "java.lang.IllegalArgumentException"),
+                List.of(treeMaker.Binary(JCTree.Tag.PLUS, treeMaker.Literal(message), treeMaker.Ident(index))),
+                null)))));
+        // this.$set[index >>> 6] |= 1L << index;
+        JCTree.JCStatement mark = treeMaker.Exec(treeMaker.Assignop(JCTree.Tag.BITOR_ASG,
+                treeMaker.Indexed(thisField(names.fromString(MASK_FIELD)),
+                        treeMaker.Binary(JCTree.Tag.USR, treeMaker.Ident(index), intLiteral(6))),
+                treeMaker.Binary(JCTree.Tag.SL, treeMaker.Literal(TypeTag.LONG, 1L), treeMaker.Ident(index))));
+        JCTree.JCExpression valueType = primitive == null
+                ? qualifiedName("java.lang.Object") : treeMaker.TypeIdent(primitiveTag(primitive));
+        String methodName = primitive == null ? SET_METHOD
+                : SET_METHOD + Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1);
+        JCTree.JCModifiers modifiers = primitive == null
+                ? treeMaker.Modifiers(Flags.PUBLIC, List.of(treeMaker.Annotation(
+                qualifiedName("java.lang.SuppressWarnings"), List.of(treeMaker.Literal("unchecked")))))
+                : treeMaker.Modifiers(Flags.PUBLIC);
+        return treeMaker.MethodDef(modifiers,
+                names.fromString(methodName), treeMaker.Ident(bindingClassName), List.nil(),
+                List.of(param(index, treeMaker.TypeIdent(TypeTag.INT)), param(value, valueType)), List.nil(),
+                treeMaker.Block(0, List.of(
+                        treeMaker.Switch(treeMaker.Ident(index), cases.toList()),
+                        mark,
+                        treeMaker.Return(treeMaker.Ident(names._this)))),
+                null);
+    }
+
+    private JCTree.JCMethodDecl createTryBuildMethod(Name className, List<JCTree.JCVariableDecl> fields,
+                                                     long[] required) {
+        // (this.$set[0] & 5L) != 5L || ...
+        JCTree.JCExpression incomplete = null;
+        for (int word = 0; word < required.length; word++) {
+            if (required[word] == 0) {
+                continue;
+            }
+            JCTree.JCExpression wordIncomplete = treeMaker.Binary(JCTree.Tag.NE,
+                    treeMaker.Parens(treeMaker.Binary(JCTree.Tag.BITAND,
+                            treeMaker.Indexed(thisField(names.fromString(MASK_FIELD)), intLiteral(word)),
+                            treeMaker.Literal(TypeTag.LONG, required[word]))),
+                    treeMaker.Literal(TypeTag.LONG, required[word]));
+            incomplete = incomplete == null ? wordIncomplete
+                    : treeMaker.Binary(JCTree.Tag.OR, incomplete, wordIncomplete);
+        }
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        if (incomplete != null) {
+            // throw new IllegalStateException("Foo misses required fields " + this.$missing());
+            statements.append(treeMaker.If(incomplete,
+                    treeMaker.Throw(treeMaker.NewClass(null, List.nil(),
+                            qualifiedName("java.lang.IllegalStateException"),
+                            List.of(treeMaker.Binary(JCTree.Tag.PLUS,
+                                    treeMaker.Literal(className + " misses required fields "),
+                                    treeMaker.Apply(List.nil(), thisField(names.fromString(MISSING_METHOD)),
+                                            List.nil()))),
+                            null)),
+                    null));
+        }
+        // return Foo.$create(this.a, this.b), checked & interned like build
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        fields.forEach(field -> args.append(thisField(field.name)));
+        statements.append(treeMaker.Return(treeMaker.Apply(List.nil(),
+                treeMaker.Select(treeMaker.Ident(className), names.fromString(BuilderProcessor.CREATE_METHOD)),
+                args.toList())));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                names.fromString(TRY_BUILD_METHOD), treeMaker.Ident(className), List.nil(), List.nil(), List.nil(),
+                treeMaker.Block(0, statements.toList()), null);
+    }
+
+    /**
+     * <pre>
+     * private List&lt;String&gt; $missing() {
+     *     List&lt;String&gt; missing = new ArrayList&lt;String&gt;();
+     *     for (int i = 0; i &lt; FIELD_COUNT; i++)
+     *         if ((($required[i &gt;&gt;&gt; 6] &amp; ~this.$set[i &gt;&gt;&gt; 6]) &amp; 1L &lt;&lt; i) != 0L) missing.add(FIELD_NAMES.get(i));
+     *     return missing;
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createMissingMethod() {
+        Name missing = names.fromString("missing");
+        Name i = names.fromString("i");
+        JCTree.JCExpression word = treeMaker.Binary(JCTree.Tag.USR, treeMaker.Ident(i), intLiteral(6));
+        JCTree.JCExpression sameWord = treeMaker.Binary(JCTree.Tag.USR, treeMaker.Ident(i), intLiteral(6));
+        JCTree.JCExpression unset = treeMaker.Binary(JCTree.Tag.BITAND,
+                treeMaker.Indexed(treeMaker.Ident(names.fromString(REQUIRED_FIELD)), word),
+                treeMaker.Unary(JCTree.Tag.COMPL,
+                        treeMaker.Indexed(thisField(names.fromString(MASK_FIELD)), sameWord)));
+        JCTree.JCExpression isMissing = treeMaker.Binary(JCTree.Tag.NE,
+                treeMaker.Parens(treeMaker.Binary(JCTree.Tag.BITAND, treeMaker.Parens(unset),
+                        treeMaker.Binary(JCTree.Tag.SL, treeMaker.Literal(TypeTag.LONG, 1L), treeMaker.Ident(i)))),
+                treeMaker.Literal(TypeTag.LONG, 0L));
+        JCTree.JCStatement add = treeMaker.Exec(treeMaker.Apply(List.nil(),
+                treeMaker.Select(treeMaker.Ident(missing), names.fromString("add")),
+                List.of(treeMaker.Apply(List.nil(),
+                        treeMaker.Select(treeMaker.Ident(names.fromString(FIELD_NAMES)), names.fromString("get")),
+                        List.of(treeMaker.Ident(i))))));
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(0), missing,
+                        treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(qualifiedName("java.lang.String"))),
+                        treeMaker.NewClass(null, List.nil(), treeMaker.TypeApply(qualifiedName("java.util.ArrayList"),
+                                List.of(qualifiedName("java.lang.String"))), List.nil(), null)),
+                treeMaker.ForLoop(
+                        List.of(treeMaker.VarDef(treeMaker.Modifiers(0), i, treeMaker.TypeIdent(TypeTag.INT),
+                                intLiteral(0))),
+                        treeMaker.Binary(JCTree.Tag.LT, treeMaker.Ident(i),
+                                treeMaker.Ident(names.fromString(FIELD_COUNT))),
+                        List.of(treeMaker.Exec(treeMaker.Unary(JCTree.Tag.POSTINC, treeMaker.Ident(i)))),
+                        treeMaker.If(isMissing, add, null)),
+                treeMaker.Return(treeMaker.Ident(missing)));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE),
+                names.fromString(MISSING_METHOD),
+                treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(qualifiedName("java.lang.String"))),
+                List.nil(), List.nil(), List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    private JCTree.JCExpression unmodifiableList(JCTree.JCExpression elementType, List<JCTree.JCExpression> elements) {
+        return treeMaker.Apply(List.nil(), qualifiedName("java.util.Collections.unmodifiableList"), List.of(
+                treeMaker.Apply(List.of(elementType), qualifiedName("java.util.Arrays.asList"), elements)));
+    }
+
+    private JCTree.JCVariableDecl constant(JCTree.JCExpression type, Name name, JCTree.JCExpression value) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL), name, type, value);
+    }
+
+    /**
+     * {@code Class<?>}
+     */
+    private JCTree.JCExpression anyClassType() {
+        return treeMaker.TypeApply(qualifiedName("java.lang.Class"),
+                List.of(treeMaker.Wildcard(treeMaker.TypeBoundKind(BoundKind.UNBOUND), null)));
+    }
+
+    private JCTree.JCExpression longArrayType() {
+        return treeMaker.TypeArray(treeMaker.TypeIdent(TypeTag.LONG));
+    }
+
+    private TypeTag primitiveTag(String primitive) {
+        return TypeTag.valueOf(primitive.toUpperCase());
+    }
+
+    private JCTree.JCExpression thisField(Name name) {
+        return treeMaker.Select(treeMaker.Ident(names._this), name);
+    }
+
+    private JCTree.JCVariableDecl param(Name name, JCTree.JCExpression type) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), name, type, null);
+    }
+
+    private JCTree.JCExpression intLiteral(int value) {
+        return treeMaker.Literal(TypeTag.INT, value);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mx.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What the processor did to each {@code @Builder} class of a compilation, rendered as json by {@link #toJson()}.
+ * Classes are listed slowest first.
+ *
+ * @author milo
+ */
+class BuildReport {
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    Entry add(String className) {
+        Entry entry = new Entry(className);
+        entries.add(entry);
+        return entry;
+    }
+
+    String toJson() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.nanos).reversed());
+        long totalNanos = 0;
+        for (Entry entry : sorted) {
+            totalNanos += entry.nanos;
+        }
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"classCount\": ").append(sorted.size()).append(",\n");
+        json.append("  \"totalProcessingMillis\": ").append(millis(totalNanos)).append(",\n");
+        json.append("  \"classes\": [");
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    {\"class\": \"").append(escape(entry.className)).append('"')
+                    .append(", \"processingMillis\": ").append(millis(entry.nanos))
+                    .append(", \"fields\": ").append(entry.fields)
+                    .append(", \"requiredFields\": ").append(entry.requiredFields)
+                    .append(", \"treeNodes\": ").append(entry.treeNodes)
+                    .append(", \"estimatedBytecodeBytes\": ").append(entry.estimatedBytecodeBytes)
+                    .append(", \"rewrittenSites\": ").append(entry.rewrittenSites)
+                    .append('}');
+        }
+        json.append(sorted.isEmpty() ? "]\n" : "\n  ]\n");
+        return json.append("}\n").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000D);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    static class Entry {
+        final String className;
+        long nanos;
+        int fields;
+        int requiredFields;
+        int treeNodes;
+        int estimatedBytecodeBytes;
+        /**
+         * Call sites rewritten into constructor calls under -Axbuilder.rewrite
+         */
+        int rewrittenSites;
+
+        Entry(String className) {
+            this.className = className;
+        }
+    }
+}
@@ -0,0 +1,1109 @@
+package com.mx.processor;
+
+import com.mx.ann.Builder;
+import com.mx.ann.Default;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.mx.utils.StringUtils;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.api.JavacTrees;
+import com.sun.tools.javac.code.BoundKind;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.code.Types;
+import com.sun.tools.javac.parser.ParserFactory;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * @author milo
+ */
+
+@SupportedAnnotationTypes({"com.mx.ann.Builder", "com.mx.ann.Default", "com.mx.ann.Singular", "com.mx.ann.NotNull",
+        "com.mx.ann.Pattern", "com.mx.ann.Size", "com.mx.ann.Range", "com.mx.ann.Canonical"})
+@SupportedOptions({BuilderProcessor.REPORT_OPTION, BuilderProcessor.QUIET_OPTION, BuilderProcessor.GENERATE_OPTION,
+        BuilderProcessor.METRICS_OPTION, BuilderProcessor.METRICS_SAMPLE_OPTION, BuilderProcessor.REWRITE_OPTION})
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public class BuilderProcessor extends AbstractProcessor {
+
+    static final String THIS = "this";
+    static final String TYPE_PREFIX = "H";
+    static final String BUILDER_METHOD = "builder";
+    static final String BUILD_METHOD = "build";
+    static final String TRUE = "TRUE";
+    static final String FALSE = "FALSE";
+    static final String PHANTOM_PACKAGE = "com.mx.phantom";
+    static final String RESET_METHOD = "reset";
+    static final String LOCAL_BUILDER_METHOD = "localBuilder";
+    static final String LOCAL_BUILDER_FIELD = "LOCAL_BUILDER";
+    static final String TO_BUILDER_METHOD = "toBuilder";
+    static final String WITHER_PREFIX = "with";
+    static final String CREATE_METHOD = "$create";
+    /**
+     * -Axbuilder.report=META-INF/xbuilder-report.json writes a json report of the processed classes to the class output
+     */
+    static final String REPORT_OPTION = "xbuilder.report";
+    /**
+     * -Axbuilder.quiet=true suppresses the per class notes
+     */
+    static final String QUIET_OPTION = "xbuilder.quiet";
+    /**
+     * -Axbuilder.generate=source writes a companion FooBuilder source file instead of changing the annotated class,
+     * see {@link SourceBuilderGenerator}
+     */
+    static final String GENERATE_OPTION = "xbuilder.generate";
+    static final String GENERATE_SOURCE = "source";
+    /**
+     * -Axbuilder.metrics=true counts the builds of every class, see {@link MetricsSupport}
+     */
+    static final String METRICS_OPTION = "xbuilder.metrics";
+    /**
+     * -Axbuilder.metrics.sample=1024 also times one build in 1024
+     */
+    static final String METRICS_SAMPLE_OPTION = "xbuilder.metrics.sample";
+    /**
+     * Rewrites the complete builder chains of the compiled sources into constructor calls
+     */
+    static final String REWRITE_OPTION = "xbuilder.rewrite";
+    /**
+     * Tells gradle this processor is isolating, see META-INF/gradle/incremental.annotation.processors
+     */
+    static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+
+    private Messager messager;
+
+    JavacTrees trees;
+
+    TreeMaker treeMaker;
+
+    Names names;
+
+    ParserFactory parserFactory;
+
+    /**
+     * xbuilder-runtime is on the classpath, use its TRUE & FALSE instead of nesting them in every class
+     */
+    boolean sharedPhantomTypes;
+
+    boolean quiet;
+
+    String reportPath;
+
+    BuildReport report;
+
+    /**
+     * null unless -Axbuilder.generate=source
+     */
+    SourceBuilderGenerator sourceGenerator;
+
+    /**
+     * Names looked up for every type arg, interned once
+     */
+    Name trueName;
+
+    Name falseName;
+
+    Name[] phantomPackageNames;
+
+    SingularSupport singular;
+
+    BatchSupport batch;
+
+    BindingSupport binding;
+
+    ValidationSupport validation;
+
+    InternSupport intern;
+
+    CanonicalSupport canonical;
+
+    FlyweightSupport flyweight;
+
+    ConcurrentSupport concurrent;
+
+    PersistentSupport persistent;
+
+    /**
+     * null unless -Axbuilder.metrics=true
+     */
+    MetricsSupport metrics;
+
+    int metricsSample;
+
+    /**
+     * null unless -Axbuilder.rewrite=true
+     */
+    RewriteSupport rewrite;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        messager = processingEnv.getMessager();
+        trees = JavacTrees.instance(processingEnv);
+        Context context = ((JavacProcessingEnvironment) processingEnv).getContext();
+        treeMaker = TreeMaker.instance(context);
+        names = Names.instance(context);
+        parserFactory = ParserFactory.instance(context);
+        trueName = names.fromString(TRUE);
+        falseName = names.fromString(FALSE);
+        phantomPackageNames = JCTreeUtils.names(names, PHANTOM_PACKAGE);
+        singular = new SingularSupport(treeMaker, names, processingEnv.getTypeUtils());
+        batch = new BatchSupport(treeMaker, names);
+        binding = new BindingSupport(treeMaker, names, Types.instance(context));
+        validation = new ValidationSupport(treeMaker, names, processingEnv.getTypeUtils(),
+                processingEnv.getElementUtils());
+        intern = new InternSupport(treeMaker, names, processingEnv.getElementUtils());
+        canonical = new CanonicalSupport(treeMaker, names, processingEnv.getElementUtils());
+        flyweight = new FlyweightSupport(treeMaker, names, processingEnv.getElementUtils());
+        concurrent = new ConcurrentSupport(treeMaker, names);
+        persistent = new PersistentSupport(treeMaker, names, processingEnv.getElementUtils());
+        sharedPhantomTypes = processingEnv.getElementUtils().getTypeElement(PHANTOM_PACKAGE + "." + TRUE) != null;
+        Map<String, String> options = processingEnv.getOptions();
+        quiet = Boolean.parseBoolean(options.get(QUIET_OPTION));
+        reportPath = options.get(REPORT_OPTION);
+        if (reportPath != null && !reportPath.isEmpty()) {
+            report = new BuildReport();
+        }
+        if (Boolean.parseBoolean(options.get(METRICS_OPTION))) {
+            metrics = new MetricsSupport(treeMaker, names);
+            metricsSample = parseMetricsSample(options.get(METRICS_SAMPLE_OPTION));
+        }
+        if (GENERATE_SOURCE.equals(options.get(GENERATE_OPTION))) {
+            sourceGenerator = new SourceBuilderGenerator(processingEnv.getFiler(), processingEnv.getElementUtils(),
+                    sharedPhantomTypes, metrics != null, metricsSample);
+        }
+        if (Boolean.parseBoolean(options.get(REWRITE_OPTION))) {
+            if (sourceGenerator == null) {
+                rewrite = new RewriteSupport(treeMaker, processingEnv.getElementUtils(), parserFactory);
+            } else {
+                // call sites of a generated FooBuilder are left to javac
+                messager.printMessage(Diagnostic.Kind.WARNING, "-A" + REWRITE_OPTION + " is ignored with -A"
+                        + GENERATE_OPTION + "=" + GENERATE_SOURCE);
+            }
+        }
+    }
+
+    /**
+     * @return the sample interval, 0 if not given, or after reporting an error for a value that isn't a count
+     */
+    private int parseMetricsSample(String sample) {
+        if (sample == null || sample.isEmpty()) {
+            return 0;
+        }
+        try {
+            int interval = Integer.parseInt(sample.trim());
+            if (interval >= 0) {
+                return interval;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        messager.printMessage(Diagnostic.Kind.ERROR, "-A" + METRICS_SAMPLE_OPTION
+                + " must be a non negative int, not " + sample);
+        return 0;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> options = super.getSupportedOptions();
+        if (sourceGenerator == null) {
+            // changing the annotated classes in place can't be incremental
+            return options;
+        }
+        Set<String> isolatingOptions = new HashSet<>(options);
+        isolatingOptions.add(GRADLE_ISOLATING);
+        return isolatingOptions;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        try {
+            Set<? extends Element> elementsAnnotatedWith = roundEnv.getElementsAnnotatedWith(Builder.class);
+            for (Element element : elementsAnnotatedWith) {
+                if (!ElementUtils.isClass(element)) {
+                    throw new ProcessingException(element, "Only classes can be annotated with @%s",
+                            Builder.class.getSimpleName());
+                }
+
+                //1. is public class
+                //3. class have an all args constructor
+                long start = System.nanoTime();
+                checkValidClass((TypeElement) element);
+                singular.checkFields((TypeElement) element);
+                canonical.checkFields((TypeElement) element);
+                java.util.List<ValidationSupport.FieldConstraints> constraints =
+                        validation.getConstraints((TypeElement) element);
+
+                Builder builderAnnotation = element.getAnnotation(Builder.class);
+                if (builderAnnotation.batch() && ElementUtils.getInstanceFields(element).isEmpty()) {
+                    throw new ProcessingException(element, "batch of %s needs at least one field",
+                            ((TypeElement) element).getQualifiedName().toString());
+                }
+                if (builderAnnotation.intern() && sourceGenerator == null) {
+                    intern.checkClass((TypeElement) element);
+                }
+                if (builderAnnotation.binding() && sourceGenerator == null) {
+                    binding.checkClass((TypeElement) element);
+                }
+                if (builderAnnotation.flyweight() && sourceGenerator == null) {
+                    flyweight.checkClass((TypeElement) element);
+                }
+                if (builderAnnotation.concurrent() && sourceGenerator == null) {
+                    concurrent.checkClass((TypeElement) element);
+                }
+                if (builderAnnotation.mode() == Builder.Mode.PERSISTENT && sourceGenerator == null) {
+                    persistent.checkClass((TypeElement) element, builderAnnotation);
+                }
+                if (metrics != null
+                        && processingEnv.getElementUtils().getTypeElement(MetricsSupport.METRICS_CLASS) == null) {
+                    throw new ProcessingException(element, "-A%s needs xbuilder-runtime on the compile classpath",
+                            METRICS_OPTION);
+                }
+                BuildReport.Entry reportEntry = report == null ? null
+                        : report.add(((TypeElement) element).getQualifiedName().toString());
+
+                Builder.Mode mode = builderAnnotation.mode();
+                if (sourceGenerator != null) {
+                    int fieldNum = sourceGenerator.generate((TypeElement) element, builderAnnotation,
+                            constraints);
+                    if (reportEntry != null) {
+                        reportEntry.fields = fieldNum;
+                        reportEntry.nanos = System.nanoTime() - start;
+                    }
+                    continue;
+                }
+                JCTree jcTree = trees.getTree(element);
+                //mk builder
+                jcTree.accept(new TreeTranslator() {
+                    @Override
+                    public void visitClassDef(JCTree.JCClassDecl jcClass) {
+                        info("@Builder process [" + jcClass.name.toString() + "] begin");
+                        // generated trees must not sit before the class, or Flow won't track their variables
+                        treeMaker.at(jcClass.pos);
+                        int originalDefCount = jcClass.defs.size();
+                        Name className = jcClass.name;
+                        List<JCTree.JCVariableDecl> classFields = getAllFields(jcClass);
+                        // field annotations, required fields & their type param names, all read once
+                        FieldModel model = new FieldModel(classFields, names, singular);
+                        // only required fields get a phantom type param
+                        List<JCTree.JCVariableDecl> requiredFields = model.requiredFields;
+                        // --- create Builder class ---
+                        Name builderClassName = names.fromString("Builder");
+                        List<JCTree.JCTypeParameter> builderClassTypeParams = createBuilderClassTypeParams(model);
+                        boolean persistentSlots = mode == Builder.Mode.PERSISTENT;
+                        JCTree.JCClassDecl builderClass;
+                        if (persistentSlots) {
+                            // the fields in PersistentSlots, each setter returning a new Builder
+                            builderClass = persistent.createBuilderClass(builderClassName, builderClassTypeParams,
+                                    model, field -> createBuilderType(builderClassName,
+                                            createTypeArgs(model.requiredIndexOf(field), model)));
+                        } else {
+                            // copy all fields
+                            List<JCTree.JCVariableDecl> builderClassFieldDefs = copyAllFields(model);
+                            // create empty constructor
+                            JCTree.JCMethodDecl builderClassEmptyConstructor = createEmptyConstructor();
+                            // create all args constructor
+                            JCTree.JCMethodDecl builderClassAllArgsConstructor =
+                                    createAllArgsConstructor(model.builderFields);
+                            // create all setter methods
+                            List<JCTree.JCMethodDecl> setters = createAllSetter(builderClassName, model, mode);
+                            if (builderAnnotation.reusable()) {
+                                // create reset method
+                                setters = setters.append(createResetMethod(builderClassName, model,
+                                        defaultTypeArgs(requiredFields, FALSE)));
+                            }
+                            // add the static $list, $set & $map of singular fields
+                            setters = setters.appendList(singular.createHelpers(model.singularFields));
+                            // create Builder class
+                            builderClass = createBuilderClass(
+                                    builderClassName,
+                                    builderClassTypeParams,
+                                    builderClassFieldDefs,
+                                    builderClassEmptyConstructor,
+                                    builderClassAllArgsConstructor,
+                                    setters);
+                        }
+                        // --- end Builder class ---
+                        // create static build method
+                        JCTree.JCMethodDecl staticBuildMethod = createStaticBuildMethod(className,
+                                builderClassName,
+                                defaultTypeArgs(requiredFields, TRUE),
+                                model,
+                                constraints,
+                                builderAnnotation.intern(),
+                                persistentSlots);
+                        // create static builder method
+                        JCTree.JCMethodDecl staticBuilderMethod = createStaticBuilderMethod(builderClassName,
+                                defaultTypeArgs(requiredFields, FALSE), persistentSlots ? model : null);
+                        // add phantom type
+                        if (!sharedPhantomTypes) {
+                            jcClass.defs = jcClass.defs.append(createPhantomType(TRUE));
+                            jcClass.defs = jcClass.defs.append(createPhantomType(FALSE));
+                        }
+                        // add builder class
+                        jcClass.defs = jcClass.defs.append(builderClass);
+                        // add static build method
+                        jcClass.defs = jcClass.defs.append(staticBuildMethod);
+                        // add static builder method
+                        jcClass.defs = jcClass.defs.append(staticBuilderMethod);
+                        if (!constraints.isEmpty()) {
+                            // add the patterns & $violation used by the checks of build
+                            jcClass.defs = jcClass.defs.appendList(validation.createMembers(constraints));
+                        }
+                        if (metrics != null) {
+                            // add the $metrics counting the builds
+                            jcClass.defs = jcClass.defs.append(metrics.createField(
+                                    jcClass.sym.getQualifiedName().toString(), metricsSample));
+                        }
+                        if (!model.canonicalFields.isEmpty()) {
+                            // add the caches of the canonical fields
+                            jcClass.defs = jcClass.defs.appendList(canonical.createCaches(
+                                    jcClass.sym.getQualifiedName().toString(), model));
+                        }
+                        if (builderAnnotation.intern()) {
+                            // add $hash, $interner, equals & hashCode
+                            jcClass.defs = jcClass.defs.appendList(intern.createMembers(className, classFields));
+                        }
+                        if (builderAnnotation.reusable()) {
+                            // add per-thread builder
+                            jcClass.defs = jcClass.defs.append(createLocalBuilderField(builderClassName, requiredFields));
+                            jcClass.defs = jcClass.defs.append(createLocalBuilderMethod(builderClassName, requiredFields));
+                        }
+                        if (builderAnnotation.toBuilder()) {
+                            // add toBuilder method
+                            jcClass.defs = jcClass.defs.append(createToBuilderMethod(builderClassName, model,
+                                    defaultTypeArgs(requiredFields, TRUE), persistentSlots));
+                        }
+                        if (builderAnnotation.withers() || builderAnnotation.batch() || builderAnnotation.binding()) {
+                            // add $create, checking & interning the instances not built from a Builder
+                            jcClass.defs = jcClass.defs.append(createCreateMethod(className, model,
+                                    constraints, builderAnnotation.intern()));
+                        }
+                        if (builderAnnotation.withers()) {
+                            // add withX methods
+                            jcClass.defs = jcClass.defs.appendList(
+                                    List.convert(JCTree.class, createWithers(className, classFields)));
+                        }
+                        if (builderAnnotation.batch()) {
+                            // add buildAll, buildAllParallel & collector
+                            jcClass.defs = jcClass.defs.appendList(List.convert(JCTree.class, batch.createMethods(
+                                    className, classFields,
+                                    createBuilderType(builderClassName, defaultTypeArgs(requiredFields, TRUE)))));
+                        }
+                        if (builderAnnotation.binding()) {
+                            // add the field metadata, binding() & the Binding class
+                            jcClass.defs = jcClass.defs.appendList(binding.createMembers(className, model,
+                                    field -> model.isSingular(field)
+                                            ? singular.createEmptyValue(field)
+                                            : createDefaultValue(model.getDefault(field))));
+                        }
+                        if (builderAnnotation.flyweight()) {
+                            // add Flyweight, FlyweightBuilder, flyweight, encoder & encode, every field required
+                            jcClass.defs = jcClass.defs.appendList(flyweight.createMembers(className, classFields,
+                                    createBuilderClassTypeParams(model),
+                                    index -> createTypeArgs(index, model),
+                                    phantomType -> defaultTypeArgs(requiredFields, phantomType)));
+                        }
+                        if (builderAnnotation.concurrent()) {
+                            // add concurrentBuilder & the ConcurrentBuilder class, completing through build
+                            jcClass.defs = jcClass.defs.appendList(concurrent.createMembers(className, model,
+                                    field -> model.isSingular(field)
+                                            ? singular.createEmptyValue(field)
+                                            : createDefaultValue(model.getDefault(field))));
+                        }
+//                        jcClass.defs = jcClass.defs.append(testMethod());
+                        if (reportEntry != null) {
+                            List<JCTree> generated = jcClass.defs;
+                            for (int i = 0; i < originalDefCount; i++) {
+                                generated = generated.tail;
+                            }
+                            GeneratedCodeStats stats = GeneratedCodeStats.of(generated);
+                            reportEntry.fields = classFields.size();
+                            reportEntry.requiredFields = requiredFields.size();
+                            reportEntry.treeNodes = stats.getNodes();
+                            reportEntry.estimatedBytecodeBytes = stats.getBytecodeBytes();
+                        }
+                        info("@Builder process [" + jcClass.name.toString() + "] end");
+                        //super.visitClassDef(jcClass);
+                    }
+                });
+                //System.out.println(jcTree);
+                if (rewrite != null) {
+                    rewrite.register((TypeElement) element,
+                            constraints.isEmpty() && !builderAnnotation.intern() && metrics == null, reportEntry);
+                }
+                if (reportEntry != null) {
+                    reportEntry.nanos = System.nanoTime() - start;
+                }
+            }
+            if (rewrite != null && rewrite.hasTargets()) {
+                rewriteChains(roundEnv);
+            }
+            if (roundEnv.processingOver() && report != null) {
+                writeReport();
+            }
+        } catch (ProcessingException e) {
+            error(e.getElement(), e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            error(null, e.getMessage());
+        }
+
+        return true;
+    }
+
+    private void error(Element e, String msg) {
+        messager.printMessage(Diagnostic.Kind.ERROR, msg, e);
+    }
+
+    private void info(String msg) {
+        if (!quiet) {
+            messager.printMessage(Diagnostic.Kind.NOTE, msg);
+        }
+    }
+
+    /**
+     * Rewrites the complete builder chains of every compilation unit of the round, their classes processed or not
+     */
+    private void rewriteChains(RoundEnvironment roundEnv) {
+        int sites = 0;
+        int kept = rewrite.keptSites;
+        for (Element element : roundEnv.getRootElements()) {
+            TreePath path = trees.getPath(element);
+            if (path != null) {
+                sites += rewrite.rewrite((JCTree.JCCompilationUnit) path.getCompilationUnit());
+            }
+        }
+        if (sites == 0 && rewrite.keptSites == kept) {
+            return;
+        }
+        for (RewriteSupport.Target target : rewrite.targets()) {
+            if (target.reportEntry != null) {
+                target.reportEntry.rewrittenSites = target.sites;
+            }
+        }
+        info("@Builder rewrote " + sites + " builder chains into constructor calls"
+                + (rewrite.keptSites == kept ? "" : ", kept " + (rewrite.keptSites - kept)
+                + " for their evaluation order"));
+    }
+
+    private void writeReport() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", reportPath);
+            try (Writer writer = file.openWriter()) {
+                writer.write(report.toJson());
+            }
+        } catch (IOException e) {
+            error(null, "Failed to write the @Builder report " + reportPath + ": " + e.getMessage());
+        }
+    }
+
+    private void checkValidClass(TypeElement classElement) throws ProcessingException {
+        // Check if it's an public class
+        if (!ElementUtils.isPublicClass(classElement)) {
+            throw new ProcessingException(classElement, "The target %s is not public class.",
+                    classElement.getQualifiedName().toString());
+        }
+
+        // Check if all args public constructor is given
+        if (!ElementUtils.hasAllArgsConstructor(classElement, Collections.emptySet())) {
+            throw new ProcessingException(classElement,
+                    "The class %s must provide an all args constructor",
+                    classElement.getQualifiedName().toString());
+        }
+    }
+
+    private JCTree.JCClassDecl createPhantomType(String name) {
+        return treeMaker.ClassDef(
+                treeMaker.Modifiers(Flags.STATIC + Flags.ABSTRACT),
+                names.fromString(name),
+                List.nil(),
+                null,
+                List.nil(),
+                List.nil());
+    }
+
+    private JCTree.JCExpression createPhantomTypeRef(String name) {
+        Name typeName = TRUE.equals(name) ? trueName : falseName;
+        if (sharedPhantomTypes) {
+            return treeMaker.Select(JCTreeUtils.qualifiedName(treeMaker, phantomPackageNames), typeName);
+        }
+        return treeMaker.Ident(typeName);
+    }
+
+    // TODO mv to utils
+    private List<JCTree.JCVariableDecl> getAllFields(JCTree.JCClassDecl jcClass) {
+        ListBuffer<JCTree.JCVariableDecl> jcVariables = new ListBuffer<>();
+        jcClass.defs.forEach(jcTree -> {
+            if (isValidField(jcTree)) {
+                jcVariables.append((JCTree.JCVariableDecl) jcTree);
+            }
+        });
+        return jcVariables.toList();
+    }
+
+    // TODO mv to utils
+    private boolean isValidField(JCTree jcTree) {
+        if (jcTree.getKind().equals(JCTree.Kind.VARIABLE)) {
+            JCTree.JCVariableDecl jcVariable = (JCTree.JCVariableDecl) jcTree;
+
+            Set<Modifier> flagSets = jcVariable.mods.getFlags();
+            return (!flagSets.contains(Modifier.STATIC));
+        }
+        return false;
+    }
+
+    private List<JCTree.JCVariableDecl> copyAllFields(FieldModel model) {
+        ListBuffer<JCTree.JCVariableDecl> jcVariables = new ListBuffer<>();
+        model.builderFields.stream()
+                .map(field -> treeMaker.VarDef(
+                        treeMaker.Modifiers(Flags.PRIVATE), field.name, field.vartype,
+                        createDefaultValue(model.getDefault(field))))
+                .forEach(jcVariables::append);
+        return jcVariables.toList();
+    }
+
+    private JCTree.JCExpression createDefaultValue(Default defaultValue) {
+        if (defaultValue == null || defaultValue.value().trim().isEmpty()) {
+            // a required field, or the zero value
+            return null;
+        }
+        // the parser shares our TreeMaker, and positions its trees inside the annotation value
+        int pos = treeMaker.pos;
+        JCTree.JCExpression expression =
+                parserFactory.newParser(defaultValue.value(), false, false, false).parseExpression();
+        new TreeScanner() {
+            @Override
+            public void scan(JCTree tree) {
+                if (tree != null) {
+                    tree.pos = pos;
+                }
+                super.scan(tree);
+            }
+        }.scan(expression);
+        treeMaker.at(pos);
+        return expression;
+    }
+
+    private JCTree.JCMethodDecl createEmptyConstructor() {
+        JCTree.JCBlock emptyBlock = treeMaker.Block(0, List.nil());
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PRIVATE),
+                names.fromString("<init>"),
+                treeMaker.TypeIdent(TypeTag.VOID),
+                List.nil(),
+                List.nil(),
+                List.nil(),
+                emptyBlock,
+                null);
+    }
+
+    private JCTree.JCMethodDecl createAllArgsConstructor(List<JCTree.JCVariableDecl> fields) {
+        ListBuffer<JCTree.JCStatement> assigns = new ListBuffer<>();
+        fields.stream().map(field ->
+            treeMaker.Exec(
+                    treeMaker.Assign(
+                            treeMaker.Select(
+                                    treeMaker.Ident(names._this),
+                                    field.name
+                            ),
+                            treeMaker.Ident(field.name)
+                    )
+            )
+        ).forEach(assigns::append);
+        JCTree.JCBlock block = treeMaker.Block(0, assigns.toList());
+        List<JCTree.JCVariableDecl> params = createArgs(fields);
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PRIVATE),
+                names.fromString("<init>"),
+                treeMaker.TypeIdent(TypeTag.VOID),
+                List.nil(),
+                params,
+                List.nil(),
+                block,
+                null);
+    }
+
+    private List<JCTree.JCMethodDecl> createAllSetter(Name className, FieldModel model, Builder.Mode mode) {
+        ListBuffer<JCTree.JCMethodDecl> setters = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.fields) {
+            if (model.isSingular(field)) {
+                // tags(...), addTag(...) & tagsCapacity(...), all returning this
+                setters.appendList(singular.createMethods(field,
+                        () -> createBuilderType(className, createTypeArgs(-1, model))));
+                continue;
+            }
+            int requiredIndex = model.requiredIndexOf(field);
+            boolean required = requiredIndex >= 0;
+            // Builder<..., TRUE, ...>, or the unchanged Builder<...> for an optional field
+            List<JCTree.JCExpression> typeArgs = createTypeArgs(requiredIndex, model); // Builder type args
+            JCTree.JCExpression returnType = createBuilderType(className, typeArgs);
+
+            // 方法体
+            ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+            // this.field1 = arg1
+            statements.append(treeMaker.Exec(
+                    treeMaker.Assign(
+                            treeMaker.Select(
+                                    treeMaker.Ident(names._this),
+                                    field.name
+                            ),
+                            treeMaker.Ident(field.name)
+                    )
+            ));
+            JCTree.JCModifiers modifiers = treeMaker.Modifiers(Flags.PUBLIC);
+            if (!required) {
+                // return this;
+                statements.append(treeMaker.Return(treeMaker.Ident(names._this)));
+            } else if (mode == Builder.Mode.MUTABLE) {
+                // return (Builder<..., TRUE, ...>) this;
+                statements.append(treeMaker.Return(
+                        treeMaker.TypeCast(
+                                createBuilderType(className, typeArgs),
+                                treeMaker.Ident(names._this)
+                        )
+                ));
+                modifiers = treeMaker.Modifiers(Flags.PUBLIC, List.of(createSuppressWarnings("unchecked")));
+            } else {
+                // return new Builder<..., TRUE, ...>(arg1, ...);
+                statements.append(treeMaker.Return(
+                        treeMaker.NewClass(
+                                null,
+                                List.nil(),
+                                createBuilderType(className, typeArgs),
+                                createCopyArgs(field, model.builderFields),
+                                null
+                        )
+                ));
+            }
+            JCTree.JCBlock block = treeMaker.Block(0, statements.toList()); // method body
+
+            setters.append(treeMaker.MethodDef(modifiers,
+                    field.name, returnType, List.nil(), createArgs(List.of(field)), List.nil(), block, null));
+        }
+        return setters.toList();
+    }
+
+    private List<JCTree.JCExpression> createCopyArgs(JCTree.JCVariableDecl currField,
+                                                     List<JCTree.JCVariableDecl> fields) {
+        ListBuffer<JCTree.JCExpression> constructorArgs = new ListBuffer<>();
+        fields.forEach(arg -> {
+            if (arg == currField) {
+                // use arg
+                constructorArgs.append(treeMaker.Ident(arg.name));
+            } else {
+                // use this.field as arg
+                constructorArgs.append(treeMaker.Select(
+                        treeMaker.Ident(names._this),
+                        arg.name
+                ));
+            }
+        });
+        return constructorArgs.toList();
+    }
+
+    private JCTree.JCAnnotation createSuppressWarnings(String warning) {
+        return treeMaker.Annotation(
+                treeMaker.Ident(names.fromString("SuppressWarnings")),
+                List.of(treeMaker.Literal(warning)));
+    }
+
+    /**
+     * The type params of the Builder, TRUE at {@code setIndex}
+     */
+    private List<JCTree.JCExpression> createTypeArgs(int setIndex, FieldModel model) {
+        ListBuffer<JCTree.JCExpression> typeArgs = new ListBuffer<>();
+        Name[] typeParamNames = model.typeParamNames;
+        for (int i = 0; i < typeParamNames.length; i++) {
+            typeArgs.append(i == setIndex ? createPhantomTypeRef(TRUE) : treeMaker.Ident(typeParamNames[i]));
+        }
+        return typeArgs.toList();
+    }
+
+    private JCTree.JCExpression createBuilderType(Name builderClassName, List<JCTree.JCExpression> typeArgs) {
+        if (typeArgs.isEmpty()) {
+            // no required field, Builder<> would be a diamond
+            return treeMaker.Ident(builderClassName);
+        }
+        return treeMaker.TypeApply(treeMaker.Ident(builderClassName), typeArgs);
+    }
+
+    private List<JCTree.JCVariableDecl> createArgs(List<JCTree.JCVariableDecl> fields) {
+        ListBuffer<JCTree.JCVariableDecl> typeArgs = new ListBuffer<>();
+        fields.stream().map(field -> treeMaker.VarDef(
+                treeMaker.Modifiers(Flags.PARAMETER), field.name, field.vartype, null))
+                .forEach(typeArgs::append);
+        return typeArgs.toList();
+    }
+
+    private List<JCTree.JCExpression> defaultTypeArgs(List<JCTree.JCVariableDecl> fields, String typeName) {
+        ListBuffer<JCTree.JCExpression> typeArgs = new ListBuffer<>();
+        fields.stream().map(__ -> createPhantomTypeRef(typeName)).forEach(typeArgs::append);
+        return typeArgs.toList();
+    }
+
+    private List<JCTree.JCTypeParameter> createBuilderClassTypeParams(FieldModel model) {
+        ListBuffer<JCTree.JCTypeParameter> typeParams = new ListBuffer<>();
+        for (Name typeParamName : model.typeParamNames) {
+            typeParams.append(treeMaker.TypeParameter(typeParamName, List.nil()));
+        }
+        return typeParams.toList();
+    }
+
+    private JCTree.JCClassDecl createBuilderClass(Name className,
+                                                  List<JCTree.JCTypeParameter> builderClassTypeParams,
+                                                  List<JCTree.JCVariableDecl> builderClassFieldDefs,
+                                                  JCTree.JCMethodDecl builderClassEmptyConstructor,
+                                                  JCTree.JCMethodDecl builderClassAllArgsConstructor,
+                                                  List<JCTree.JCMethodDecl> setters) {
+        ListBuffer<JCTree> builderClassBody = new ListBuffer<>();
+        builderClassBody.appendList(List.convert(JCTree.class, builderClassFieldDefs))
+                .append(builderClassEmptyConstructor)
+                .append(builderClassAllArgsConstructor)
+                .appendList(List.convert(JCTree.class, setters));
+
+        return treeMaker.ClassDef(
+                treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                className,
+                builderClassTypeParams,
+                null,
+                List.nil(),
+                builderClassBody.toList());
+    }
+
+    private JCTree.JCMethodDecl createResetMethod(Name builderClassName,
+                                                  FieldModel model,
+                                                  List<JCTree.JCExpression> typeArgs) {
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        // this.field = default
+        for (JCTree.JCVariableDecl field : model.builderFields) {
+            JCTree.JCExpression value = createDefaultValue(model.getDefault(field));
+            statements.append(treeMaker.Exec(
+                    treeMaker.Assign(
+                            treeMaker.Select(treeMaker.Ident(names._this), field.name),
+                            value != null ? value : createZeroValue(field)
+                    )
+            ));
+        }
+        // return (Builder<FALSE, ...>) this;
+        statements.append(treeMaker.Return(
+                treeMaker.TypeCast(createBuilderType(builderClassName, typeArgs), treeMaker.Ident(names._this))
+        ));
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PUBLIC, List.of(createSuppressWarnings("unchecked"))),
+                names.fromString(RESET_METHOD),
+                createBuilderType(builderClassName, typeArgs),
+                List.nil(),
+                List.nil(),
+                List.nil(),
+                treeMaker.Block(0, statements.toList()),
+                null);
+    }
+
+    private JCTree.JCExpression createZeroValue(JCTree.JCVariableDecl field) {
+        if (!(field.vartype instanceof JCTree.JCPrimitiveTypeTree)) {
+            return treeMaker.Literal(TypeTag.BOT, null);
+        }
+        switch (((JCTree.JCPrimitiveTypeTree) field.vartype).getPrimitiveTypeKind()) {
+            case BOOLEAN:
+                return treeMaker.Literal(TypeTag.BOOLEAN, 0);
+            case LONG:
+                return treeMaker.Literal(TypeTag.LONG, 0L);
+            case FLOAT:
+                return treeMaker.Literal(TypeTag.FLOAT, 0F);
+            case DOUBLE:
+                return treeMaker.Literal(TypeTag.DOUBLE, 0D);
+            default:
+                // byte, short & char take an int constant
+                return treeMaker.Literal(TypeTag.INT, 0);
+        }
+    }
+
+    private JCTree.JCVariableDecl createLocalBuilderField(Name builderClassName, List<JCTree.JCVariableDecl> requiredFields) {
+        // private static final ThreadLocal<Builder<?, ...>> LOCAL_BUILDER = new ThreadLocal<Builder<?, ...>>();
+        JCTree.JCExpression threadLocalType = treeMaker.TypeApply(
+                JCTreeUtils.qualifiedName(treeMaker, names, "java.lang.ThreadLocal"),
+                List.of(createWildcardBuilderType(builderClassName, requiredFields)));
+        return treeMaker.VarDef(
+                treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(LOCAL_BUILDER_FIELD),
+                threadLocalType,
+                treeMaker.NewClass(
+                        null,
+                        List.nil(),
+                        treeMaker.TypeApply(
+                                JCTreeUtils.qualifiedName(treeMaker, names, "java.lang.ThreadLocal"),
+                                List.of(createWildcardBuilderType(builderClassName, requiredFields))),
+                        List.nil(),
+                        null));
+    }
+
+    private JCTree.JCExpression createWildcardBuilderType(Name builderClassName, List<JCTree.JCVariableDecl> requiredFields) {
+        ListBuffer<JCTree.JCExpression> typeArgs = new ListBuffer<>();
+        requiredFields.forEach(__ ->
+                typeArgs.append(treeMaker.Wildcard(treeMaker.TypeBoundKind(BoundKind.UNBOUND), null)));
+        return createBuilderType(builderClassName, typeArgs.toList());
+    }
+
+    private JCTree.JCMethodDecl createLocalBuilderMethod(Name builderClassName, List<JCTree.JCVariableDecl> requiredFields) {
+        List<JCTree.JCExpression> typeArgs = defaultTypeArgs(requiredFields, FALSE);
+        Name local = names.fromString(BUILDER_METHOD);
+        Name localBuilderField = names.fromString(LOCAL_BUILDER_FIELD);
+        // Builder<?, ...> builder = LOCAL_BUILDER.get();
+        // if (builder == null) {
+        //     builder = new Builder<FALSE, ...>();
+        //     LOCAL_BUILDER.set(builder);
+        // }
+        // return builder.reset();
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(
+                        treeMaker.Modifiers(0),
+                        local,
+                        createWildcardBuilderType(builderClassName, requiredFields),
+                        treeMaker.Apply(List.nil(),
+                                treeMaker.Select(treeMaker.Ident(localBuilderField), names.fromString("get")),
+                                List.nil())),
+                treeMaker.If(
+                        treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(local), treeMaker.Literal(TypeTag.BOT, null)),
+                        treeMaker.Block(0, List.of(
+                                treeMaker.Exec(treeMaker.Assign(
+                                        treeMaker.Ident(local),
+                                        treeMaker.NewClass(null, List.nil(),
+                                                createBuilderType(builderClassName, typeArgs), List.nil(), null))),
+                                treeMaker.Exec(treeMaker.Apply(List.nil(),
+                                        treeMaker.Select(treeMaker.Ident(localBuilderField), names.fromString("set")),
+                                        List.of(treeMaker.Ident(local)))))),
+                        null),
+                treeMaker.Return(treeMaker.Apply(List.nil(),
+                        treeMaker.Select(treeMaker.Ident(local), names.fromString(RESET_METHOD)),
+                        List.nil())));
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(LOCAL_BUILDER_METHOD),
+                createBuilderType(builderClassName, typeArgs),
+                List.nil(),
+                List.nil(),
+                List.nil(),
+                treeMaker.Block(0, statements),
+                null);
+    }
+
+    private JCTree.JCMethodDecl createToBuilderMethod(Name builderClassName,
+                                                      FieldModel model,
+                                                      List<JCTree.JCExpression> typeArgs,
+                                                      boolean persistentSlots) {
+        if (persistentSlots) {
+            // return new Builder<TRUE, ...>(PersistentSlots.of(this.a, this.b));
+            return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                    names.fromString(TO_BUILDER_METHOD),
+                    createBuilderType(builderClassName, typeArgs),
+                    List.nil(), List.nil(), List.nil(),
+                    treeMaker.Block(0, List.of(treeMaker.Return(persistent.createBuilder(
+                            createBuilderType(builderClassName, typeArgs), model,
+                            field -> treeMaker.Select(treeMaker.Ident(names._this), field.name), false)))),
+                    null);
+        }
+        // new Builder<TRUE, ...>(this.a, this.b, null, 0)
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.fields) {
+            if (model.isSingular(field)) {
+                args.append(treeMaker.Literal(TypeTag.BOT, null)).append(treeMaker.Literal(TypeTag.INT, 0));
+            } else {
+                args.append(treeMaker.Select(treeMaker.Ident(names._this), field.name));
+            }
+        }
+        JCTree.JCExpression builder = treeMaker.NewClass(
+                null,
+                List.nil(),
+                createBuilderType(builderClassName, typeArgs),
+                args.toList(),
+                null
+        );
+        // .tags(this.tags), copying the elements of a singular field
+        for (JCTree.JCVariableDecl field : model.singularFields) {
+            builder = treeMaker.Apply(List.nil(), treeMaker.Select(builder, field.name),
+                    List.of(treeMaker.Select(treeMaker.Ident(names._this), field.name)));
+        }
+        // return new Builder<TRUE, ...>(this.a, this.b, null, 0).tags(this.tags);
+        List<JCTree.JCStatement> statements = List.of(treeMaker.Return(builder));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                names.fromString(TO_BUILDER_METHOD),
+                createBuilderType(builderClassName, typeArgs),
+                List.nil(), List.nil(), List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    private List<JCTree.JCMethodDecl> createWithers(Name className, List<JCTree.JCVariableDecl> fields) {
+        ListBuffer<JCTree.JCMethodDecl> withers = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : fields) {
+            // return Foo.$create(this.a, b, this.c);
+            List<JCTree.JCStatement> statements = List.of(
+                    treeMaker.Return(
+                            treeMaker.Apply(
+                                    List.nil(),
+                                    treeMaker.Select(treeMaker.Ident(className), names.fromString(CREATE_METHOD)),
+                                    createCopyArgs(field, fields)
+                            )
+                    ));
+            Name methodName = names.fromString(WITHER_PREFIX + StringUtils.upperFirstChar(field.name.toString()));
+            withers.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                    methodName, treeMaker.Ident(className), List.nil(), createArgs(List.of(field)), List.nil(),
+                    treeMaker.Block(0, statements), null));
+        }
+        return withers.toList();
+    }
+
+    /**
+     * The factory of the withers, the batch factories and {@code tryBuild}, checking the same constraints as
+     * {@code build} and interning the same way:
+     * <pre>
+     * private static Foo $create(int a, List&lt;String&gt; tags, String country) {
+     *     tags = tags == null || tags.isEmpty() ? Collections.emptyList()
+     *             : Collections.unmodifiableList(new ArrayList&lt;&gt;(tags));
+     *     // the checks of a, tags & country
+     *     return Foo.$interner.intern(new Foo(a, tags, Foo.country$cache.canonicalize(country)));
+     * }
+     * </pre>
+     * A singular collection is copied into the unmodifiable collection {@code build} would give its elements, and a
+     * canonical value canonicalized like in {@code build}.
+     */
+    private JCTree.JCMethodDecl createCreateMethod(Name className,
+                                                   FieldModel model,
+                                                   java.util.List<ValidationSupport.FieldConstraints> constraints,
+                                                   boolean interned) {
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.singularFields) {
+            statements.append(treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(field.name),
+                    singular.createCopyValue(field))));
+        }
+        if (!constraints.isEmpty()) {
+            statements.appendList(validation.createChecks(className, constraints, treeMaker::Ident, false));
+        }
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        model.fields.forEach(field -> args.append(model.getCanonical(field) != null
+                ? canonical.canonicalize(className, field, treeMaker.Ident(field.name))
+                : treeMaker.Ident(field.name)));
+        JCTree.JCExpression instance = treeMaker.NewClass(null, List.nil(), treeMaker.Ident(className),
+                args.toList(), null);
+        statements.append(treeMaker.Return(interned ? intern.intern(className, instance) : instance));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC),
+                names.fromString(CREATE_METHOD), treeMaker.Ident(className), List.nil(), createArgs(model.fields),
+                List.nil(), treeMaker.Block(0, statements.toList()), null);
+    }
+
+    /**
+     * @param persistentModel the fields of a Mode.PERSISTENT builder, null for the other modes
+     */
+    private JCTree.JCMethodDecl createStaticBuilderMethod(Name builderClassName,
+                                                          List<JCTree.JCExpression> typeArgs,
+                                                          FieldModel persistentModel) {
+
+        JCTree.JCExpression returnType = createBuilderType(builderClassName, typeArgs);
+        Name methodName = names.fromString(BUILDER_METHOD);
+        // return new Builder<..., TRUE, ...>(arg1, ...);
+        // or return new Builder<FALSE, ...>(PersistentSlots.of(null, (int) 0, "default"));
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.Return(persistentModel != null
+                        ? persistent.createBuilder(createBuilderType(builderClassName, typeArgs), persistentModel,
+                                field -> {
+                                    JCTree.JCExpression value = createDefaultValue(persistentModel.getDefault(field));
+                                    return value != null ? value : createZeroValue(field);
+                                }, true)
+                        : treeMaker.NewClass(
+                            null,
+                            List.nil(),
+                            createBuilderType(builderClassName, typeArgs),
+                            List.nil(),
+                            null
+                    )
+                ));
+        JCTree.JCBlock block = treeMaker.Block(0, statements);
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                methodName, returnType, List.nil(), List.nil(), List.nil(), block, null);
+    }
+
+    private JCTree.JCMethodDecl createStaticBuildMethod(Name className,
+                                                        Name builderClassName,
+                                                        List<JCTree.JCExpression> typeArgs,
+                                                        FieldModel model,
+                                                        java.util.List<ValidationSupport.FieldConstraints> constraints,
+                                                        boolean interned,
+                                                        boolean persistentSlots) {
+        JCTree.JCExpression returnType = treeMaker.Ident(className);
+        JCTree.JCExpression argType = createBuilderType(builderClassName, typeArgs);
+        Name builder = names.fromString(BUILDER_METHOD);
+        List<JCTree.JCVariableDecl> params = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), builder, argType, null)
+        );
+        // builder.a, or (String) builder.$slots.get(0) with Mode.PERSISTENT
+        Function<Name, JCTree.JCExpression> read = persistentSlots
+                ? name -> persistent.read(builder, model, name)
+                : name -> treeMaker.Select(treeMaker.Ident(builder), name);
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.fields) {
+            if (model.isSingular(field)) {
+                args.append(singular.createBuildValue(field, builderClassName, builder));
+            } else if (model.getCanonical(field) != null) {
+                // Foo.country$cache.canonicalize(builder.country)
+                args.append(canonical.canonicalize(className, field, read.apply(field.name)));
+            } else {
+                args.append(read.apply(field.name));
+            }
+        }
+        Name methodName = names.fromString(BUILD_METHOD);
+        // check the constraints, then return new Foo(builder.a, builder.b);
+        List<JCTree.JCStatement> statements = constraints.isEmpty() ? List.nil()
+                : validation.createChecks(className, constraints, read, true);
+        JCTree.JCExpression instance = treeMaker.NewClass(
+                null,
+                List.nil(),
+                treeMaker.Ident(className),
+                args.toList(),
+                null
+        );
+        // or return Foo.$interner.intern(new Foo(builder.a, builder.b));
+        JCTree.JCExpression built = interned ? intern.intern(className, instance) : instance;
+        statements = metrics != null ? metrics.instrument(className, statements, built)
+                : statements.append(treeMaker.Return(built));
+        JCTree.JCBlock block = treeMaker.Block(0, statements);
+        // the slots of generic fields are read with unchecked casts
+        JCTree.JCModifiers modifiers = persistentSlots
+                ? treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC, List.of(createSuppressWarnings("unchecked")))
+                : treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC);
+        return treeMaker.MethodDef(modifiers, methodName, returnType, List.nil(), params, List.nil(), block, null);
+    }
+
+    private JCTree.JCMethodDecl testMethod() {
+        JCTree.JCBlock block = treeMaker.Block(0, List.nil());
+        List<JCTree.JCVariableDecl> params = List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), names.fromString("x"), treeMaker.TypeIdent(TypeTag.INT), null));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                names.fromString("test"),
+                treeMaker.TypeIdent(TypeTag.VOID),
+                List.nil(),
+                params,
+                List.nil(),
+                block,
+                null);
+    }
+
+}
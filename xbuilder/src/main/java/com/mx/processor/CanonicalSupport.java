@@ -0,0 +1,147 @@
+package com.mx.processor;
+
+import com.mx.ann.Canonical;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Generates the canonicalization of {@link Canonical} fields: a cache per field,
+ * <pre>
+ * private static final com.mx.runtime.CanonicalCache&lt;String&gt; country$cache =
+ *         com.mx.runtime.CanonicalCache.register("com.foo.User.country", 1024);
+ * </pre>
+ * and {@code build} passing {@code Foo.country$cache.canonicalize(builder.country)} to the constructor, as does
+ * {@code $create} for the withers, batch factories and binding. The caches are registered by field name, for their
+ * hit and miss counts. A canonical value is shared by every instance holding an equal one, so only immutable
+ * types with value equality are accepted: String, the boxed primitives and enums.
+ *
+ * @author milo
+ */
+class CanonicalSupport {
+
+    static final String CACHE_CLASS = "com.mx.runtime.CanonicalCache";
+    static final String CACHE_SUFFIX = "$cache";
+    static final Set<String> VALUE_TYPES = new HashSet<>(Arrays.asList("java.lang.String", "java.lang.Boolean",
+            "java.lang.Byte", "java.lang.Short", "java.lang.Character", "java.lang.Integer", "java.lang.Long",
+            "java.lang.Float", "java.lang.Double"));
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Elements elements;
+
+    CanonicalSupport(TreeMaker treeMaker, Names names, Elements elements) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.elements = elements;
+    }
+
+    void checkFields(TypeElement classElement) throws ProcessingException {
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            Canonical canonical = field.getAnnotation(Canonical.class);
+            if (canonical == null) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            if (!isValueType(field.asType())) {
+                throw new ProcessingException(field,
+                        "@Canonical field %s must be a String, a boxed primitive or an enum, not %s",
+                        name, field.asType().toString());
+            }
+            if (field.getAnnotation(Singular.class) != null) {
+                throw new ProcessingException(field, "@Singular field %s can't be @Canonical", name);
+            }
+            if (canonical.size() <= 0) {
+                throw new ProcessingException(field, "@Canonical size of %s must be positive", name);
+            }
+            if (elements.getTypeElement(CACHE_CLASS) == null) {
+                throw new ProcessingException(field,
+                        "@Canonical field %s needs xbuilder-runtime on the compile classpath", name);
+            }
+        }
+    }
+
+    private static boolean isValueType(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        return typeElement.getKind() == ElementKind.ENUM
+                || VALUE_TYPES.contains(typeElement.getQualifiedName().toString());
+    }
+
+    /**
+     * The static caches of the canonical fields
+     *
+     * @param qualifiedClassName the prefix of the cache names
+     */
+    List<JCTree> createCaches(String qualifiedClassName, FieldModel model) {
+        ListBuffer<JCTree> caches = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.canonicalFields) {
+            JCTree.JCExpression cacheType = treeMaker.TypeApply(qualifiedName(CACHE_CLASS),
+                    List.of(field.vartype));
+            caches.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                    cacheName(field.name), cacheType,
+                    treeMaker.Apply(List.nil(), qualifiedName(CACHE_CLASS + ".register"),
+                            List.of(treeMaker.Literal(qualifiedClassName + "." + field.name),
+                                    treeMaker.Literal(TypeTag.INT, model.getCanonical(field).size())))));
+        }
+        return caches.toList();
+    }
+
+    /**
+     * {@code Foo.country$cache.canonicalize(value)}
+     */
+    JCTree.JCExpression canonicalize(Name className, JCTree.JCVariableDecl field, JCTree.JCExpression value) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(
+                treeMaker.Select(treeMaker.Ident(className), cacheName(field.name)),
+                names.fromString("canonicalize")), List.of(value));
+    }
+
+    private Name cacheName(Name field) {
+        return names.fromString(field + CACHE_SUFFIX);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+
+    // --- source ---
+
+    /**
+     * The cache of a field as source, {@code type} its boxed or reference type
+     */
+    static String writeCache(String qualifiedClassName, VariableElement field, String type) {
+        String name = field.getSimpleName().toString();
+        return "\n    private static final " + CACHE_CLASS + "<" + type + "> " + name + CACHE_SUFFIX + " = "
+                + CACHE_CLASS + ".register(\"" + qualifiedClassName + "." + name + "\", "
+                + field.getAnnotation(Canonical.class).size() + ");\n";
+    }
+
+    /**
+     * {@code country$cache.canonicalize(value)} as source
+     */
+    static String writeCanonicalize(VariableElement field, String value) {
+        return field.getSimpleName() + CACHE_SUFFIX + ".canonicalize(" + value + ")";
+    }
+}
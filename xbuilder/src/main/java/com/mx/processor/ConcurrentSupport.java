@@ -0,0 +1,375 @@
+package com.mx.processor;
+
+import com.mx.ann.Default;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.util.function.Function;
+
+/**
+ * Generates the concurrent builder of a {@code @Builder(concurrent = true)} class, whose fields may be set by
+ * different threads, and which completes a future with the instance once the last required field is set:
+ * <pre>
+ * public static ConcurrentBuilder concurrentBuilder()
+ *
+ * public static final class ConcurrentBuilder {
+ *     public ConcurrentBuilder name(String name)    // claim the field, write it, then mark it written
+ *     public CompletableFuture&lt;Foo&gt; future()
+ *     public boolean fail(Throwable cause)          // completes the future exceptionally instead
+ * }
+ * </pre>
+ * Fields are tracked in two bitmasks updated by compare and set through {@code AtomicLongFieldUpdater}s:
+ * {@code $claimed}, the fields being or been set, plus a DONE bit, and {@code $written}, the fields set. Once
+ * every required field is written, the thread that turns {@code $claimed} from exactly {@code $written} to
+ * DONE builds the instance with {@code Foo.build(Foo.builder().a(this.a)...)}, so nothing set meanwhile is
+ * lost, and a later set throws an {@code IllegalStateException}. Writing a field happens before marking it
+ * written, which happens before the build, so the fields need not be volatile. With the DONE bit, a class
+ * can have at most 63 fields.
+ *
+ * @author milo
+ */
+class ConcurrentSupport {
+
+    static final String CONCURRENT_CLASS = "ConcurrentBuilder";
+    static final String CONCURRENT_METHOD = "concurrentBuilder";
+    static final int MAX_FIELDS = 63;
+
+    private static final String UPDATER_CLASS = "java.util.concurrent.atomic.AtomicLongFieldUpdater";
+    private static final String FUTURE_CLASS = "java.util.concurrent.CompletableFuture";
+    private static final String CLAIMED_FIELD = "$claimed";
+    private static final String WRITTEN_FIELD = "$written";
+    private static final String FUTURE_FIELD = "$future";
+    private static final String CLAIMED_UPDATER = "CLAIMED";
+    private static final String WRITTEN_UPDATER = "WRITTEN";
+    private static final String REQUIRED_CONSTANT = "REQUIRED";
+    private static final String DONE_CONSTANT = "DONE";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+
+    ConcurrentSupport(TreeMaker treeMaker, Names names) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+    }
+
+    void checkClass(TypeElement classElement) throws ProcessingException {
+        java.util.List<VariableElement> fields = ElementUtils.getInstanceFields(classElement);
+        if (fields.size() > MAX_FIELDS) {
+            throw new ProcessingException(classElement, "concurrent %s has %d fields, at most %d are supported",
+                    classElement.getQualifiedName().toString(), fields.size(), MAX_FIELDS);
+        }
+        for (VariableElement field : fields) {
+            if (field.getAnnotation(Default.class) == null && field.getAnnotation(Singular.class) == null) {
+                return;
+            }
+        }
+        throw new ProcessingException(classElement, "concurrent %s needs a required field to complete on",
+                classElement.getQualifiedName().toString());
+    }
+
+    /**
+     * {@code concurrentBuilder()} and the ConcurrentBuilder class
+     *
+     * @param initializer the initial value of a field, null for the zero value
+     */
+    List<JCTree> createMembers(Name className,
+                               FieldModel model,
+                               Function<JCTree.JCVariableDecl, JCTree.JCExpression> initializer) {
+        Name concurrentClass = names.fromString(CONCURRENT_CLASS);
+        // public static ConcurrentBuilder concurrentBuilder() { return new ConcurrentBuilder(); }
+        JCTree.JCMethodDecl factory = treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(CONCURRENT_METHOD), treeMaker.Ident(concurrentClass), List.nil(), List.nil(),
+                List.nil(), treeMaker.Block(0, List.of(treeMaker.Return(
+                        treeMaker.NewClass(null, List.nil(), treeMaker.Ident(concurrentClass), List.nil(), null)))),
+                null);
+        return List.of(factory, createConcurrentClass(className, concurrentClass, model, initializer));
+    }
+
+    private JCTree.JCClassDecl createConcurrentClass(Name className,
+                                                     Name concurrentClass,
+                                                     FieldModel model,
+                                                     Function<JCTree.JCVariableDecl, JCTree.JCExpression> initializer) {
+        long required = 0;
+        int index = 0;
+        for (JCTree.JCVariableDecl field : model.fields) {
+            if (model.isRequired(field)) {
+                required |= 1L << index;
+            }
+            index++;
+        }
+        Name claimed = names.fromString(CLAIMED_FIELD);
+        Name written = names.fromString(WRITTEN_FIELD);
+        Name future = names.fromString(FUTURE_FIELD);
+        ListBuffer<JCTree> body = new ListBuffer<>();
+        body.append(createUpdater(concurrentClass, CLAIMED_UPDATER, CLAIMED_FIELD));
+        body.append(createUpdater(concurrentClass, WRITTEN_UPDATER, WRITTEN_FIELD));
+        body.append(longConstant(REQUIRED_CONSTANT, required));
+        body.append(longConstant(DONE_CONSTANT, Long.MIN_VALUE));
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.VOLATILE), claimed,
+                treeMaker.TypeIdent(TypeTag.LONG), null));
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.VOLATILE), written,
+                treeMaker.TypeIdent(TypeTag.LONG), null));
+        // private final CompletableFuture<Foo> $future = new CompletableFuture<Foo>();
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.FINAL), future, futureType(className),
+                treeMaker.NewClass(null, List.nil(), futureType(className), List.nil(), null)));
+        for (JCTree.JCVariableDecl field : model.fields) {
+            body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), field.name, field.vartype,
+                    initializer.apply(field)));
+        }
+        index = 0;
+        for (JCTree.JCVariableDecl field : model.fields) {
+            body.append(createSetter(concurrentClass, field, 1L << index++));
+        }
+        // public CompletableFuture<Foo> future() { return this.$future; }
+        body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), names.fromString("future"),
+                futureType(className), List.nil(), List.nil(), List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(thisField(future)))), null));
+        body.append(createFail());
+        body.append(createClaim(className));
+        body.append(createWritten(className, model));
+        return treeMaker.ClassDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL), concurrentClass,
+                List.nil(), null, List.nil(), body.toList());
+    }
+
+    /**
+     * <pre>
+     * public ConcurrentBuilder name(String name) {
+     *     this.claim(2L, "name");
+     *     this.name = name;
+     *     this.written(2L);
+     *     return this;
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createSetter(Name concurrentClass, JCTree.JCVariableDecl field, long bit) {
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), field.name, treeMaker.Ident(concurrentClass),
+                List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), field.name, field.vartype, null)),
+                List.nil(),
+                treeMaker.Block(0, List.of(
+                        treeMaker.Exec(treeMaker.Apply(List.nil(), thisField(names.fromString("claim")),
+                                List.of(longLiteral(bit), treeMaker.Literal(field.name.toString())))),
+                        treeMaker.Exec(treeMaker.Assign(thisField(field.name), treeMaker.Ident(field.name))),
+                        treeMaker.Exec(treeMaker.Apply(List.nil(), thisField(names.fromString("written")),
+                                List.of(longLiteral(bit)))),
+                        treeMaker.Return(treeMaker.Ident(names._this)))),
+                null);
+    }
+
+    /**
+     * <pre>
+     * public boolean fail(Throwable cause) {
+     *     long claimed;
+     *     do {
+     *         claimed = this.$claimed;
+     *         if ((claimed &amp; DONE) != 0L) return false;
+     *     } while (!CLAIMED.compareAndSet(this, claimed, claimed | DONE));
+     *     return this.$future.completeExceptionally(cause);
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createFail() {
+        Name claimed = names.fromString("claimed");
+        Name cause = names.fromString("cause");
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(0), claimed, treeMaker.TypeIdent(TypeTag.LONG), null),
+                treeMaker.DoLoop(
+                        treeMaker.Block(0, List.of(
+                                treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(claimed),
+                                        thisField(names.fromString(CLAIMED_FIELD)))),
+                                treeMaker.If(hasBits(treeMaker.Ident(claimed), DONE_CONSTANT),
+                                        treeMaker.Return(treeMaker.Literal(false)), null))),
+                        treeMaker.Unary(JCTree.Tag.NOT, compareAndSet(CLAIMED_UPDATER, treeMaker.Ident(claimed),
+                                treeMaker.Binary(JCTree.Tag.BITOR, treeMaker.Ident(claimed),
+                                        treeMaker.Ident(names.fromString(DONE_CONSTANT)))))),
+                treeMaker.Return(treeMaker.Apply(List.nil(), treeMaker.Select(
+                        thisField(names.fromString(FUTURE_FIELD)), names.fromString("completeExceptionally")),
+                        List.of(treeMaker.Ident(cause)))));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), names.fromString("fail"),
+                treeMaker.TypeIdent(TypeTag.BOOLEAN), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), cause,
+                        qualifiedName("java.lang.Throwable"), null)),
+                List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    /**
+     * <pre>
+     * private void claim(long bit, String field) {
+     *     long claimed;
+     *     do {
+     *         claimed = this.$claimed;
+     *         if ((claimed &amp; DONE) != 0L) throw new IllegalStateException("Foo is already built, can't set " + field);
+     *         if ((claimed &amp; bit) != 0L) throw new IllegalStateException(field + " of Foo is already set");
+     *     } while (!CLAIMED.compareAndSet(this, claimed, claimed | bit));
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createClaim(Name className) {
+        Name claimed = names.fromString("claimed");
+        Name bit = names.fromString("bit");
+        Name field = names.fromString("field");
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(0), claimed, treeMaker.TypeIdent(TypeTag.LONG), null),
+                treeMaker.DoLoop(
+                        treeMaker.Block(0, List.of(
+                                treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(claimed),
+                                        thisField(names.fromString(CLAIMED_FIELD)))),
+                                treeMaker.If(hasBits(treeMaker.Ident(claimed), DONE_CONSTANT),
+                                        illegalState(treeMaker.Binary(JCTree.Tag.PLUS,
+                                                treeMaker.Literal(className + " is already built, can't set "),
+                                                treeMaker.Ident(field))), null),
+                                treeMaker.If(treeMaker.Binary(JCTree.Tag.NE, treeMaker.Parens(
+                                        treeMaker.Binary(JCTree.Tag.BITAND, treeMaker.Ident(claimed),
+                                                treeMaker.Ident(bit))), longLiteral(0)),
+                                        illegalState(treeMaker.Binary(JCTree.Tag.PLUS, treeMaker.Ident(field),
+                                                treeMaker.Literal(" of " + className + " is already set"))),
+                                        null))),
+                        treeMaker.Unary(JCTree.Tag.NOT, compareAndSet(CLAIMED_UPDATER, treeMaker.Ident(claimed),
+                                treeMaker.Binary(JCTree.Tag.BITOR, treeMaker.Ident(claimed),
+                                        treeMaker.Ident(bit))))));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE), names.fromString("claim"),
+                treeMaker.TypeIdent(TypeTag.VOID), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), bit,
+                                treeMaker.TypeIdent(TypeTag.LONG), null),
+                        treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), field,
+                                qualifiedName("java.lang.String"), null)),
+                List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    /**
+     * <pre>
+     * private void written(long bit) {
+     *     long written;
+     *     do {
+     *         written = this.$written;
+     *     } while (!WRITTEN.compareAndSet(this, written, written | bit));
+     *     written |= bit;
+     *     // complete unless a field is still being set, or another thread completed
+     *     if ((written &amp; REQUIRED) == REQUIRED &amp;&amp; CLAIMED.compareAndSet(this, written, written | DONE)) {
+     *         try {
+     *             this.$future.complete(Foo.build(Foo.builder().a(this.a).b(this.b)));
+     *         } catch (RuntimeException e) {
+     *             this.$future.completeExceptionally(e);
+     *         }
+     *     }
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createWritten(Name className, FieldModel model) {
+        Name written = names.fromString("written");
+        Name bit = names.fromString("bit");
+        Name e = names.fromString("e");
+        Name future = names.fromString(FUTURE_FIELD);
+        // Foo.build(Foo.builder().a(this.a).b(this.b)), through the plural setter of a singular field
+        JCTree.JCExpression chain = treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(className),
+                names.fromString(BuilderProcessor.BUILDER_METHOD)), List.nil());
+        for (JCTree.JCVariableDecl field : model.fields) {
+            chain = treeMaker.Apply(List.nil(), treeMaker.Select(chain, field.name),
+                    List.of(thisField(field.name)));
+        }
+        JCTree.JCExpression built = treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(className),
+                names.fromString(BuilderProcessor.BUILD_METHOD)), List.of(chain));
+        JCTree.JCStatement complete = treeMaker.Try(
+                treeMaker.Block(0, List.of(treeMaker.Exec(treeMaker.Apply(List.nil(),
+                        treeMaker.Select(thisField(future), names.fromString("complete")), List.of(built))))),
+                List.of(treeMaker.Catch(
+                        treeMaker.VarDef(treeMaker.Modifiers(0), e, qualifiedName("java.lang.RuntimeException"),
+                                null),
+                        treeMaker.Block(0, List.of(treeMaker.Exec(treeMaker.Apply(List.nil(),
+                                treeMaker.Select(thisField(future), names.fromString("completeExceptionally")),
+                                List.of(treeMaker.Ident(e)))))))),
+                null);
+        JCTree.JCExpression requiredWritten = treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Parens(
+                treeMaker.Binary(JCTree.Tag.BITAND, treeMaker.Ident(written),
+                        treeMaker.Ident(names.fromString(REQUIRED_CONSTANT)))),
+                treeMaker.Ident(names.fromString(REQUIRED_CONSTANT)));
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(0), written, treeMaker.TypeIdent(TypeTag.LONG), null),
+                treeMaker.DoLoop(
+                        treeMaker.Block(0, List.of(treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(written),
+                                thisField(names.fromString(WRITTEN_FIELD)))))),
+                        treeMaker.Unary(JCTree.Tag.NOT, compareAndSet(WRITTEN_UPDATER, treeMaker.Ident(written),
+                                treeMaker.Binary(JCTree.Tag.BITOR, treeMaker.Ident(written),
+                                        treeMaker.Ident(bit))))),
+                treeMaker.Exec(treeMaker.Assignop(JCTree.Tag.BITOR_ASG, treeMaker.Ident(written),
+                        treeMaker.Ident(bit))),
+                treeMaker.If(treeMaker.Binary(JCTree.Tag.AND, requiredWritten,
+                        compareAndSet(CLAIMED_UPDATER, treeMaker.Ident(written),
+                                treeMaker.Binary(JCTree.Tag.BITOR, treeMaker.Ident(written),
+                                        treeMaker.Ident(names.fromString(DONE_CONSTANT))))),
+                        treeMaker.Block(0, List.of(complete)), null));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE), names.fromString("written"),
+                treeMaker.TypeIdent(TypeTag.VOID), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), bit,
+                        treeMaker.TypeIdent(TypeTag.LONG), null)),
+                List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    /**
+     * {@code private static final AtomicLongFieldUpdater<ConcurrentBuilder> CLAIMED =
+     * AtomicLongFieldUpdater.newUpdater(ConcurrentBuilder.class, "$claimed");}
+     */
+    private JCTree.JCVariableDecl createUpdater(Name concurrentClass, String name, String field) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(name),
+                treeMaker.TypeApply(qualifiedName(UPDATER_CLASS), List.of(treeMaker.Ident(concurrentClass))),
+                treeMaker.Apply(List.nil(), qualifiedName(UPDATER_CLASS + ".newUpdater"),
+                        List.of(treeMaker.Select(treeMaker.Ident(concurrentClass), names._class),
+                                treeMaker.Literal(field))));
+    }
+
+    /**
+     * {@code UPDATER.compareAndSet(this, expect, update)}
+     */
+    private JCTree.JCExpression compareAndSet(String updater, JCTree.JCExpression expect,
+                                              JCTree.JCExpression update) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(names.fromString(updater)),
+                names.fromString("compareAndSet")), List.of(treeMaker.Ident(names._this), expect, update));
+    }
+
+    /**
+     * {@code (value & CONSTANT) != 0L}
+     */
+    private JCTree.JCExpression hasBits(JCTree.JCExpression value, String constant) {
+        return treeMaker.Binary(JCTree.Tag.NE, treeMaker.Parens(treeMaker.Binary(JCTree.Tag.BITAND, value,
+                treeMaker.Ident(names.fromString(constant)))), longLiteral(0));
+    }
+
+    private JCTree.JCStatement illegalState(JCTree.JCExpression message) {
+        return treeMaker.Throw(treeMaker.NewClass(null, List.nil(), qualifiedName("java.lang.IllegalStateException"),
+                List.of(message), null));
+    }
+
+    private JCTree.JCExpression futureType(Name className) {
+        return treeMaker.TypeApply(qualifiedName(FUTURE_CLASS), List.of(treeMaker.Ident(className)));
+    }
+
+    private JCTree.JCVariableDecl longConstant(String name, long value) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(name), treeMaker.TypeIdent(TypeTag.LONG), longLiteral(value));
+    }
+
+    private JCTree.JCExpression thisField(Name name) {
+        return treeMaker.Select(treeMaker.Ident(names._this), name);
+    }
+
+    private JCTree.JCExpression longLiteral(long value) {
+        return treeMaker.Literal(TypeTag.LONG, value);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mx.processor;
+
+import com.mx.ann.Canonical;
+import com.mx.ann.Default;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the generation of one class needs to know about its fields, computed once so that generating is linear
+ * in its output: the annotations of every field are read a single time, the phantom type param names are
+ * interned once, and whether a field is required, and at which type param, is a map lookup instead of a scan, as
+ * is the index of a field by name.
+ *
+ * @author milo
+ */
+final class FieldModel {
+
+    final List<JCTree.JCVariableDecl> fields;
+    /**
+     * The fields that get a phantom type param: neither {@link Default} nor singular.
+     */
+    final List<JCTree.JCVariableDecl> requiredFields;
+    /**
+     * What the builder stores, a singular field takes an array and a size.
+     */
+    final List<JCTree.JCVariableDecl> builderFields;
+    final List<JCTree.JCVariableDecl> singularFields;
+    final List<JCTree.JCVariableDecl> canonicalFields;
+    /**
+     * {@code HA, HB, ...}, by required field index
+     */
+    final Name[] typeParamNames;
+
+    /**
+     * The index of each field in {@link #fields} by name, names being interned
+     */
+    private final Map<Name, Integer> fieldIndex = new IdentityHashMap<>();
+    private final JCTree.JCVariableDecl[] fieldArray;
+    private final Map<JCTree.JCVariableDecl, Integer> requiredIndex = new IdentityHashMap<>();
+    private final Map<JCTree.JCVariableDecl, Default> defaults = new IdentityHashMap<>();
+    private final Map<JCTree.JCVariableDecl, Canonical> canonical = new IdentityHashMap<>();
+    private final Set<JCTree.JCVariableDecl> singular = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    FieldModel(List<JCTree.JCVariableDecl> fields, Names names, SingularSupport singularSupport) {
+        this.fields = fields;
+        this.fieldArray = fields.toArray(new JCTree.JCVariableDecl[0]);
+        for (int i = 0; i < fieldArray.length; i++) {
+            fieldIndex.put(fieldArray[i].name, i);
+        }
+        ListBuffer<JCTree.JCVariableDecl> required = new ListBuffer<>();
+        ListBuffer<JCTree.JCVariableDecl> singularBuffer = new ListBuffer<>();
+        ListBuffer<JCTree.JCVariableDecl> storage = new ListBuffer<>();
+        ListBuffer<JCTree.JCVariableDecl> canonicalBuffer = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : fields) {
+            Default defaultValue = field.sym.getAnnotation(Default.class);
+            if (defaultValue != null) {
+                defaults.put(field, defaultValue);
+            }
+            Canonical canonicalValue = field.sym.getAnnotation(Canonical.class);
+            if (canonicalValue != null) {
+                canonical.put(field, canonicalValue);
+                canonicalBuffer.append(field);
+            }
+            if (singularSupport.isSingular(field)) {
+                singular.add(field);
+                singularBuffer.append(field);
+                storage.appendList(singularSupport.storageFields(field));
+                continue;
+            }
+            storage.append(field);
+            if (defaultValue == null) {
+                requiredIndex.put(field, required.size());
+                required.append(field);
+            }
+        }
+        this.requiredFields = required.toList();
+        this.singularFields = singularBuffer.toList();
+        this.canonicalFields = canonicalBuffer.toList();
+        this.builderFields = storage.toList();
+        this.typeParamNames = new Name[requiredFields.size()];
+        int index = 0;
+        for (JCTree.JCVariableDecl field : requiredFields) {
+            typeParamNames[index++] = names.fromString(
+                    BuilderProcessor.TYPE_PREFIX + field.name.toString().toUpperCase());
+        }
+    }
+
+    /**
+     * @return the index of the field named {@code fieldName} in {@link #fields}, -1 if there is none
+     */
+    int indexOf(Name fieldName) {
+        Integer index = fieldIndex.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    JCTree.JCVariableDecl fieldAt(int index) {
+        return fieldArray[index];
+    }
+
+    boolean isRequired(JCTree.JCVariableDecl field) {
+        return requiredIndex.containsKey(field);
+    }
+
+    /**
+     * @return the index of the phantom type param of {@code field}, -1 if it has none
+     */
+    int requiredIndexOf(JCTree.JCVariableDecl field) {
+        Integer index = field == null ? null : requiredIndex.get(field);
+        return index == null ? -1 : index;
+    }
+
+    boolean isSingular(JCTree.JCVariableDecl field) {
+        return singular.contains(field);
+    }
+
+    /**
+     * @return the {@link Default} of a field, null for a required field or the storage of a singular one
+     */
+    Default getDefault(JCTree.JCVariableDecl field) {
+        return defaults.get(field);
+    }
+
+    /**
+     * @return the {@link Canonical} of a field, null if its values aren't canonicalized
+     */
+    Canonical getCanonical(JCTree.JCVariableDecl field) {
+        return canonical.get(field);
+    }
+}
@@ -0,0 +1,454 @@
+package com.mx.processor;
+
+import com.mx.ann.Default;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.mx.utils.StringUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Generates the flyweight of a {@code @Builder(flyweight = true)} class, a fixed binary layout of its fields in a
+ * {@code ByteBuffer}: primitives at constant offsets, widest first so that they are aligned when a record starts
+ * at a multiple of 8, the record length as an {@code int}, and per String an offset and length pair pointing to
+ * its UTF-8 bytes in the tail of the record, see {@code com.mx.runtime.Utf8}.
+ * <pre>
+ * public static final class Flyweight {                     // zero copy reader
+ *     public static final int ID_OFFSET = 0, LENGTH_OFFSET = 8, NAME_OFFSET = 12, FIXED_SIZE = 20;
+ *     public Flyweight wrap(ByteBuffer buffer, int offset)
+ *     public int length()
+ *     public long getId()
+ *     public String getName()
+ *     public Foo toInstance()
+ * }
+ * public static final class FlyweightBuilder&lt;HID, HNAME&gt; {  // setters writing into the buffer
+ *     public FlyweightBuilder&lt;TRUE, HNAME&gt; id(long id)
+ *     public FlyweightBuilder&lt;HID, TRUE&gt; name(String name)
+ *     public FlyweightBuilder&lt;FALSE, FALSE&gt; at(ByteBuffer buffer, int offset)
+ * }
+ * public static Flyweight flyweight(ByteBuffer buffer, int offset)
+ * public static FlyweightBuilder&lt;FALSE, FALSE&gt; encoder(ByteBuffer buffer, int offset)
+ * public static int encode(FlyweightBuilder&lt;TRUE, TRUE&gt; builder)  // writes the length, returns it
+ * </pre>
+ * The phantom types ensure every field is written before {@code encode}. A record is padded to a multiple of 8
+ * bytes, so records can follow each other in one buffer. Values are in the byte order of the buffer.
+ *
+ * @author milo
+ */
+class FlyweightSupport {
+
+    static final String FLYWEIGHT_CLASS = "Flyweight";
+    static final String BUILDER_CLASS = "FlyweightBuilder";
+    static final String FLYWEIGHT_METHOD = "flyweight";
+    static final String ENCODER_METHOD = "encoder";
+    static final String ENCODE_METHOD = "encode";
+    static final String LENGTH_OFFSET = "LENGTH_OFFSET";
+    static final String FIXED_SIZE = "FIXED_SIZE";
+    static final String OFFSET_SUFFIX = "_OFFSET";
+    static final String BYTE_BUFFER_CLASS = "java.nio.ByteBuffer";
+    static final String UTF8_CLASS = "com.mx.runtime.Utf8";
+    static final int ALIGNMENT = 8;
+    /**
+     * The offset and length of a String, as {@code Utf8.SLOT_SIZE}
+     */
+    static final int STRING_SLOT_SIZE = 8;
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Elements elements;
+
+    FlyweightSupport(TreeMaker treeMaker, Names names, Elements elements) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.elements = elements;
+    }
+
+    /**
+     * Every field must be a primitive or a String, and written: neither optional nor a collection. Its offset
+     * constant must be its own, not {@code LENGTH_OFFSET} nor the one of another field.
+     */
+    void checkClass(TypeElement classElement) throws ProcessingException {
+        Map<String, String> offsetNames = new HashMap<>();
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            String name = field.getSimpleName().toString();
+            String offsetName = offsetName(name);
+            if (offsetName.equals(LENGTH_OFFSET)) {
+                throw new ProcessingException(field,
+                        "Field %s of flyweight %s can't be named like the record length, %s",
+                        name, classElement.getQualifiedName().toString(), LENGTH_OFFSET);
+            }
+            String other = offsetNames.putIfAbsent(offsetName, name);
+            if (other != null) {
+                throw new ProcessingException(field, "Fields %s and %s of flyweight %s both map to %s",
+                        other, name, classElement.getQualifiedName().toString(), offsetName);
+            }
+            boolean string = field.asType().toString().equals("java.lang.String");
+            if (!field.asType().getKind().isPrimitive() && !string) {
+                throw new ProcessingException(field, "Field %s of flyweight %s must be a primitive or a String",
+                        name, classElement.getQualifiedName().toString());
+            }
+            if (field.getAnnotation(Default.class) != null || field.getAnnotation(Singular.class) != null) {
+                throw new ProcessingException(field, "Field %s of flyweight %s can't be optional",
+                        name, classElement.getQualifiedName().toString());
+            }
+            if (string && elements.getTypeElement(UTF8_CLASS) == null) {
+                throw new ProcessingException(field,
+                        "String field %s of flyweight %s needs xbuilder-runtime on the compile classpath",
+                        name, classElement.getQualifiedName().toString());
+            }
+        }
+    }
+
+    /**
+     * The offsets of the fields in a record
+     */
+    static final class Layout {
+        final Map<JCTree.JCVariableDecl, Integer> offsets = new IdentityHashMap<>();
+        int lengthOffset;
+        int fixedSize;
+    }
+
+    Layout layout(List<JCTree.JCVariableDecl> fields) {
+        Layout layout = new Layout();
+        int offset = 0;
+        // 8 byte primitives, the length, 4 byte primitives & String slots, then 2 and 1 byte primitives
+        for (int width : new int[]{8, 4, 2, 1}) {
+            if (width == 4) {
+                layout.lengthOffset = offset;
+                offset += 4;
+            }
+            for (JCTree.JCVariableDecl field : fields) {
+                if (width(field) == width) {
+                    layout.offsets.put(field, offset);
+                    offset += isString(field) ? STRING_SLOT_SIZE : width;
+                }
+            }
+        }
+        layout.fixedSize = offset;
+        return layout;
+    }
+
+    private int width(JCTree.JCVariableDecl field) {
+        switch (field.sym.type.getTag()) {
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case SHORT:
+            case CHAR:
+                return 2;
+            case BYTE:
+            case BOOLEAN:
+                return 1;
+            default:
+                // int, float & the String slot pair of 2 ints
+                return 4;
+        }
+    }
+
+    private boolean isString(JCTree.JCVariableDecl field) {
+        return !field.sym.type.isPrimitive();
+    }
+
+    /**
+     * @param typeParams  the phantom type params of the FlyweightBuilder, one per field
+     * @param typeArgs    the type args with the one of the i-th field TRUE
+     * @param allTypeArgs all type args TRUE or FALSE
+     */
+    List<JCTree> createMembers(Name className,
+                               List<JCTree.JCVariableDecl> fields,
+                               List<JCTree.JCTypeParameter> typeParams,
+                               IntFunction<List<JCTree.JCExpression>> typeArgs,
+                               Function<String, List<JCTree.JCExpression>> allTypeArgs) {
+        Layout layout = layout(fields);
+        Name flyweightClass = names.fromString(FLYWEIGHT_CLASS);
+        Name builderClass = names.fromString(BUILDER_CLASS);
+        Name buffer = names.fromString("buffer");
+        Name offset = names.fromString("offset");
+        Name builder = names.fromString("builder");
+        ListBuffer<JCTree> members = new ListBuffer<>();
+        members.append(createFlyweightClass(className, flyweightClass, fields, layout));
+        members.append(createBuilderClass(flyweightClass, builderClass, fields, typeParams, typeArgs, allTypeArgs));
+        // public static Flyweight flyweight(ByteBuffer buffer, int offset) { return new Flyweight().wrap(buffer, offset); }
+        members.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(FLYWEIGHT_METHOD), treeMaker.Ident(flyweightClass), List.nil(),
+                bufferParams(buffer, offset), List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(treeMaker.Apply(List.nil(), treeMaker.Select(
+                        treeMaker.NewClass(null, List.nil(), treeMaker.Ident(flyweightClass), List.nil(), null),
+                        names.fromString("wrap")), List.of(treeMaker.Ident(buffer), treeMaker.Ident(offset)))))),
+                null));
+        // public static FlyweightBuilder<FALSE, ...> encoder(ByteBuffer buffer, int offset) {
+        //     return new FlyweightBuilder<FALSE, ...>(buffer, offset);
+        // }
+        members.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(ENCODER_METHOD), builderType(builderClass, allTypeArgs.apply(BuilderProcessor.FALSE)),
+                List.nil(), bufferParams(buffer, offset), List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(treeMaker.NewClass(null, List.nil(),
+                        builderType(builderClass, allTypeArgs.apply(BuilderProcessor.FALSE)),
+                        List.of(treeMaker.Ident(buffer), treeMaker.Ident(offset)), null)))),
+                null));
+        // public static int encode(FlyweightBuilder<TRUE, ...> builder) { return builder.finish(); }
+        members.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC),
+                names.fromString(ENCODE_METHOD), treeMaker.TypeIdent(TypeTag.INT), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), builder,
+                        builderType(builderClass, allTypeArgs.apply(BuilderProcessor.TRUE)), null)),
+                List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(treeMaker.Apply(List.nil(),
+                        treeMaker.Select(treeMaker.Ident(builder), names.fromString("finish")), List.nil())))),
+                null));
+        return members.toList();
+    }
+
+    private JCTree.JCClassDecl createFlyweightClass(Name className, Name flyweightClass,
+                                                    List<JCTree.JCVariableDecl> fields, Layout layout) {
+        Name buffer = names.fromString("buffer");
+        Name offset = names.fromString("offset");
+        ListBuffer<JCTree> body = new ListBuffer<>();
+        // public static final int X_OFFSET = ...;
+        for (JCTree.JCVariableDecl field : fields) {
+            body.append(intConstant(offsetName(field), layout.offsets.get(field)));
+        }
+        body.append(intConstant(names.fromString(LENGTH_OFFSET), layout.lengthOffset));
+        body.append(intConstant(names.fromString(FIXED_SIZE), layout.fixedSize));
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), buffer, qualifiedName(BYTE_BUFFER_CLASS),
+                null));
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), offset, treeMaker.TypeIdent(TypeTag.INT),
+                null));
+        // public Flyweight wrap(ByteBuffer buffer, int offset) { this.buffer = buffer; this.offset = offset; return this; }
+        body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), names.fromString("wrap"),
+                treeMaker.Ident(flyweightClass), List.nil(), bufferParams(buffer, offset), List.nil(),
+                treeMaker.Block(0, List.of(
+                        assign(thisField(buffer), treeMaker.Ident(buffer)),
+                        assign(thisField(offset), treeMaker.Ident(offset)),
+                        treeMaker.Return(treeMaker.Ident(names._this)))),
+                null));
+        // public int length() { return this.buffer.getInt(this.offset + LENGTH_OFFSET); }
+        body.append(getter(names.fromString("length"), treeMaker.TypeIdent(TypeTag.INT),
+                get("getInt", names.fromString(LENGTH_OFFSET))));
+        ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : fields) {
+            Name getterName = names.fromString("get" + StringUtils.upperFirstChar(field.name.toString()));
+            body.append(getter(getterName, field.vartype, read(field)));
+            args.append(treeMaker.Apply(List.nil(), treeMaker.Ident(getterName), List.nil()));
+        }
+        // public Foo toInstance() { return new Foo(getA(), getB()); }
+        body.append(getter(names.fromString("toInstance"), treeMaker.Ident(className),
+                treeMaker.NewClass(null, List.nil(), treeMaker.Ident(className), args.toList(), null)));
+        return treeMaker.ClassDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL), flyweightClass,
+                List.nil(), null, List.nil(), body.toList());
+    }
+
+    private JCTree.JCClassDecl createBuilderClass(Name flyweightClass,
+                                                  Name builderClass,
+                                                  List<JCTree.JCVariableDecl> fields,
+                                                  List<JCTree.JCTypeParameter> typeParams,
+                                                  IntFunction<List<JCTree.JCExpression>> typeArgs,
+                                                  Function<String, List<JCTree.JCExpression>> allTypeArgs) {
+        Name buffer = names.fromString("buffer");
+        Name offset = names.fromString("offset");
+        Name tail = names.fromString("tail");
+        Name length = names.fromString("length");
+        ListBuffer<JCTree> body = new ListBuffer<>();
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), buffer, qualifiedName(BYTE_BUFFER_CLASS),
+                null));
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), offset, treeMaker.TypeIdent(TypeTag.INT),
+                null));
+        // the offset of the free tail in the record
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), tail, treeMaker.TypeIdent(TypeTag.INT),
+                null));
+        Supplier<List<JCTree.JCStatement>> wrap = () -> List.of(
+                assign(thisField(buffer), treeMaker.Ident(buffer)),
+                assign(thisField(offset), treeMaker.Ident(offset)),
+                assign(thisField(tail), treeMaker.Select(treeMaker.Ident(flyweightClass),
+                        names.fromString(FIXED_SIZE))));
+        // private FlyweightBuilder(ByteBuffer buffer, int offset) { ... }
+        body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE), names.init,
+                treeMaker.TypeIdent(TypeTag.VOID), List.nil(), bufferParams(buffer, offset), List.nil(),
+                treeMaker.Block(0, wrap.get()), null));
+        // public FlyweightBuilder<FALSE, ...> at(ByteBuffer buffer, int offset), to reuse the builder
+        body.append(treeMaker.MethodDef(unchecked(), names.fromString("at"),
+                builderType(builderClass, allTypeArgs.apply(BuilderProcessor.FALSE)), List.nil(),
+                bufferParams(buffer, offset), List.nil(),
+                treeMaker.Block(0, wrap.get().append(treeMaker.Return(treeMaker.TypeCast(
+                        builderType(builderClass, allTypeArgs.apply(BuilderProcessor.FALSE)),
+                        treeMaker.Ident(names._this))))),
+                null));
+        int index = 0;
+        for (JCTree.JCVariableDecl field : fields) {
+            List<JCTree.JCExpression> setTypeArgs = typeArgs.apply(index++);
+            JCTree.JCExpression position = treeMaker.Select(treeMaker.Ident(flyweightClass), offsetName(field));
+            // buffer.putLong(offset + Flyweight.ID_OFFSET, id);
+            // or this.tail = Utf8.putString(buffer, offset, Flyweight.NAME_OFFSET, tail, name);
+            JCTree.JCStatement write = isString(field)
+                    ? assign(thisField(tail), treeMaker.Apply(List.nil(), qualifiedName(UTF8_CLASS + ".putString"),
+                    List.of(thisField(buffer), thisField(offset), position, thisField(tail),
+                            treeMaker.Ident(field.name))))
+                    : treeMaker.Exec(treeMaker.Apply(List.nil(),
+                    treeMaker.Select(thisField(buffer), names.fromString(putMethod(field))),
+                    List.of(treeMaker.Binary(JCTree.Tag.PLUS, thisField(offset), position), writeValue(field))));
+            body.append(treeMaker.MethodDef(unchecked(), field.name, builderType(builderClass, setTypeArgs),
+                    List.nil(),
+                    List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), field.name, field.vartype, null)),
+                    List.nil(),
+                    treeMaker.Block(0, List.of(write, treeMaker.Return(treeMaker.TypeCast(
+                            builderType(builderClass, setTypeArgs), treeMaker.Ident(names._this))))),
+                    null));
+        }
+        // private int finish() { int length = this.tail + 7 & -8; buffer.putInt(offset + LENGTH_OFFSET, length); return length; }
+        body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE), names.fromString("finish"),
+                treeMaker.TypeIdent(TypeTag.INT), List.nil(), List.nil(), List.nil(),
+                treeMaker.Block(0, List.of(
+                        treeMaker.VarDef(treeMaker.Modifiers(0), length, treeMaker.TypeIdent(TypeTag.INT),
+                                treeMaker.Binary(JCTree.Tag.BITAND,
+                                        treeMaker.Binary(JCTree.Tag.PLUS, thisField(tail), intLiteral(ALIGNMENT - 1)),
+                                        intLiteral(-ALIGNMENT))),
+                        treeMaker.Exec(treeMaker.Apply(List.nil(),
+                                treeMaker.Select(thisField(buffer), names.fromString("putInt")),
+                                List.of(treeMaker.Binary(JCTree.Tag.PLUS, thisField(offset),
+                                        treeMaker.Select(treeMaker.Ident(flyweightClass),
+                                                names.fromString(LENGTH_OFFSET))),
+                                        treeMaker.Ident(length)))),
+                        treeMaker.Return(treeMaker.Ident(length)))),
+                null));
+        return treeMaker.ClassDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL), builderClass,
+                typeParams, null, List.nil(), body.toList());
+    }
+
+    /**
+     * {@code this.buffer.getLong(this.offset + ID_OFFSET)}, {@code != 0} for a boolean, {@code Utf8.getString}
+     * for a String
+     */
+    private JCTree.JCExpression read(JCTree.JCVariableDecl field) {
+        Name position = offsetName(field);
+        switch (field.sym.type.getTag()) {
+            case BOOLEAN:
+                return treeMaker.Binary(JCTree.Tag.NE, get("get", position), intLiteral(0));
+            case BYTE:
+                return get("get", position);
+            case SHORT:
+                return get("getShort", position);
+            case CHAR:
+                return get("getChar", position);
+            case INT:
+                return get("getInt", position);
+            case LONG:
+                return get("getLong", position);
+            case FLOAT:
+                return get("getFloat", position);
+            case DOUBLE:
+                return get("getDouble", position);
+            default:
+                return treeMaker.Apply(List.nil(), qualifiedName(UTF8_CLASS + ".getString"),
+                        List.of(thisField(names.fromString("buffer")), thisField(names.fromString("offset")),
+                                treeMaker.Ident(position)));
+        }
+    }
+
+    private String putMethod(JCTree.JCVariableDecl field) {
+        switch (field.sym.type.getTag()) {
+            case BOOLEAN:
+            case BYTE:
+                return "put";
+            case SHORT:
+                return "putShort";
+            case CHAR:
+                return "putChar";
+            case INT:
+                return "putInt";
+            case LONG:
+                return "putLong";
+            case FLOAT:
+                return "putFloat";
+            default:
+                return "putDouble";
+        }
+    }
+
+    /**
+     * The setter param, {@code (byte) (x ? 1 : 0)} for a boolean
+     */
+    private JCTree.JCExpression writeValue(JCTree.JCVariableDecl field) {
+        if (field.sym.type.getTag() == TypeTag.BOOLEAN) {
+            return treeMaker.TypeCast(treeMaker.TypeIdent(TypeTag.BYTE), treeMaker.Parens(treeMaker.Conditional(
+                    treeMaker.Ident(field.name), intLiteral(1), intLiteral(0))));
+        }
+        return treeMaker.Ident(field.name);
+    }
+
+    private JCTree.JCExpression get(String method, Name position) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(thisField(names.fromString("buffer")),
+                names.fromString(method)),
+                List.of(treeMaker.Binary(JCTree.Tag.PLUS, thisField(names.fromString("offset")),
+                        treeMaker.Ident(position))));
+    }
+
+    private JCTree.JCMethodDecl getter(Name name, JCTree.JCExpression type, JCTree.JCExpression value) {
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), name, type, List.nil(), List.nil(),
+                List.nil(), treeMaker.Block(0, List.of(treeMaker.Return(value))), null);
+    }
+
+    private List<JCTree.JCVariableDecl> bufferParams(Name buffer, Name offset) {
+        return List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), buffer, qualifiedName(BYTE_BUFFER_CLASS), null),
+                treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), offset, treeMaker.TypeIdent(TypeTag.INT), null));
+    }
+
+    private JCTree.JCExpression builderType(Name builderClass, List<JCTree.JCExpression> typeArgs) {
+        return typeArgs.isEmpty() ? treeMaker.Ident(builderClass)
+                : treeMaker.TypeApply(treeMaker.Ident(builderClass), typeArgs);
+    }
+
+    private JCTree.JCModifiers unchecked() {
+        return treeMaker.Modifiers(Flags.PUBLIC, List.of(treeMaker.Annotation(
+                qualifiedName("java.lang.SuppressWarnings"), List.of(treeMaker.Literal("unchecked")))));
+    }
+
+    private JCTree.JCVariableDecl intConstant(Name name, int value) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL), name,
+                treeMaker.TypeIdent(TypeTag.INT), intLiteral(value));
+    }
+
+    private Name offsetName(JCTree.JCVariableDecl field) {
+        return names.fromString(offsetName(field.name.toString()));
+    }
+
+    /**
+     * {@code firstName} to {@code FIRST_NAME_OFFSET}
+     */
+    private static String offsetName(String fieldName) {
+        return StringUtils.upperSnakeCase(fieldName) + OFFSET_SUFFIX;
+    }
+
+    private JCTree.JCStatement assign(JCTree.JCExpression target, JCTree.JCExpression value) {
+        return treeMaker.Exec(treeMaker.Assign(target, value));
+    }
+
+    private JCTree.JCExpression thisField(Name name) {
+        return treeMaker.Select(treeMaker.Ident(names._this), name);
+    }
+
+    private JCTree.JCExpression intLiteral(int value) {
+        return treeMaker.Literal(TypeTag.INT, value);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mx.processor;
+
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeScanner;
+
+/**
+ * Counts the nodes of generated trees and estimates the bytecode their method bodies compile to.
+ * The estimate charges each expression the typical size of its instructions (e.g. {@code aload_0; getfield}
+ * for {@code this.x}) and ignores constant pool, signatures and other class file attributes.
+ *
+ * @author milo
+ */
+class GeneratedCodeStats extends TreeScanner {
+
+    private int nodes;
+    private int bytecodeBytes;
+    private int methodDepth;
+
+    static GeneratedCodeStats of(Iterable<? extends JCTree> trees) {
+        GeneratedCodeStats stats = new GeneratedCodeStats();
+        for (JCTree tree : trees) {
+            stats.scan(tree);
+        }
+        return stats;
+    }
+
+    @Override
+    public void scan(JCTree tree) {
+        if (tree != null) {
+            nodes++;
+        }
+        super.scan(tree);
+    }
+
+    @Override
+    public void visitMethodDef(JCTree.JCMethodDecl tree) {
+        scan(tree.mods);
+        scanType(tree.restype);
+        scan(tree.typarams);
+        scan(tree.params);
+        scan(tree.thrown);
+        methodDepth++;
+        scan(tree.body);
+        methodDepth--;
+    }
+
+    @Override
+    public void visitVarDef(JCTree.JCVariableDecl tree) {
+        scan(tree.mods);
+        scanType(tree.vartype);
+        scan(tree.init);
+    }
+
+    @Override
+    public void visitIdent(JCTree.JCIdent tree) {
+        // aload / iload
+        code(1);
+        super.visitIdent(tree);
+    }
+
+    @Override
+    public void visitSelect(JCTree.JCFieldAccess tree) {
+        // getfield / getstatic
+        code(3);
+        super.visitSelect(tree);
+    }
+
+    @Override
+    public void visitLiteral(JCTree.JCLiteral tree) {
+        // iconst / ldc
+        code(2);
+        super.visitLiteral(tree);
+    }
+
+    @Override
+    public void visitAssign(JCTree.JCAssign tree) {
+        // putfield / store
+        code(3);
+        super.visitAssign(tree);
+    }
+
+    @Override
+    public void visitApply(JCTree.JCMethodInvocation tree) {
+        // invokevirtual / invokestatic
+        code(3);
+        super.visitApply(tree);
+    }
+
+    @Override
+    public void visitNewClass(JCTree.JCNewClass tree) {
+        // new, dup, invokespecial
+        code(7);
+        scanType(tree.clazz);
+        scan(tree.args);
+    }
+
+    @Override
+    public void visitTypeCast(JCTree.JCTypeCast tree) {
+        // checkcast, unless erased away
+        code(3);
+        scanType(tree.clazz);
+        scan(tree.expr);
+    }
+
+    @Override
+    public void visitReturn(JCTree.JCReturn tree) {
+        code(1);
+        super.visitReturn(tree);
+    }
+
+    private void scanType(JCTree tree) {
+        // types are counted as nodes but compile to no code
+        int depth = methodDepth;
+        methodDepth = 0;
+        scan(tree);
+        methodDepth = depth;
+    }
+
+    private void code(int bytes) {
+        if (methodDepth > 0) {
+            bytecodeBytes += bytes;
+        }
+    }
+
+    int getNodes() {
+        return nodes;
+    }
+
+    int getBytecodeBytes() {
+        return bytecodeBytes;
+    }
+}
@@ -0,0 +1,260 @@
+package com.mx.processor;
+
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Generates the members of a {@code @Builder(intern = true)} class, whose {@code build} returns a canonical
+ * instance per distinct value:
+ * <pre>
+ * private transient int $hash;
+ * private static final com.mx.runtime.Interner&lt;Foo&gt; $interner = new com.mx.runtime.Interner&lt;Foo&gt;();
+ * public boolean equals(Object o)    // same class, same hashCode, then field by field
+ * public int hashCode()              // computed once over the fields, then cached in $hash
+ * </pre>
+ * and {@code build} and {@code $create}, behind the withers, batch factories and binding, return
+ * {@code Foo.$interner.intern(new Foo(...))}.
+ *
+ * @author milo
+ */
+class InternSupport {
+
+    static final String INTERNER_CLASS = "com.mx.runtime.Interner";
+    static final String INTERNER_FIELD = "$interner";
+    static final String HASH_FIELD = "$hash";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Elements elements;
+
+    InternSupport(TreeMaker treeMaker, Names names, Elements elements) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.elements = elements;
+    }
+
+    /**
+     * Interned instances are shared, so they must be immutable and compared by their fields only
+     */
+    void checkClass(TypeElement classElement) throws ProcessingException {
+        String className = classElement.getQualifiedName().toString();
+        if (elements.getTypeElement(INTERNER_CLASS) == null) {
+            throw new ProcessingException(classElement,
+                    "intern of %s needs xbuilder-runtime on the compile classpath", className);
+        }
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            if (!field.getModifiers().contains(Modifier.FINAL)) {
+                throw new ProcessingException(field, "Field %s of interned %s must be final",
+                        field.getSimpleName().toString(), className);
+            }
+        }
+        for (Element enclosed : classElement.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) enclosed;
+            String name = method.getSimpleName().toString();
+            if (name.equals("hashCode") && method.getParameters().isEmpty()
+                    || name.equals("equals") && method.getParameters().size() == 1) {
+                throw new ProcessingException(method, "Interned %s can't declare %s, it is generated",
+                        className, name);
+            }
+        }
+    }
+
+    List<JCTree> createMembers(Name className, List<JCTree.JCVariableDecl> fields) {
+        // private static final Interner<Foo> $interner = new Interner<Foo>();
+        JCTree.JCExpression internerType = treeMaker.TypeApply(qualifiedName(INTERNER_CLASS),
+                List.of(treeMaker.Ident(className)));
+        JCTree.JCVariableDecl interner = treeMaker.VarDef(
+                treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(INTERNER_FIELD), internerType,
+                treeMaker.NewClass(null, List.nil(), treeMaker.TypeApply(qualifiedName(INTERNER_CLASS),
+                        List.of(treeMaker.Ident(className))), List.nil(), null));
+        // private transient int $hash;
+        JCTree.JCVariableDecl hash = treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.TRANSIENT),
+                names.fromString(HASH_FIELD), treeMaker.TypeIdent(TypeTag.INT), null);
+        return List.of(hash, interner, createEquals(className, fields), createHashCode(fields));
+    }
+
+    /**
+     * {@code Foo.$interner.intern(instance)}
+     */
+    JCTree.JCExpression intern(Name className, JCTree.JCExpression instance) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(
+                treeMaker.Select(treeMaker.Ident(className), names.fromString(INTERNER_FIELD)),
+                names.fromString("intern")), List.of(instance));
+    }
+
+    /**
+     * <pre>
+     * if (this == o) return true;
+     * if (o == null || o.getClass() != this.getClass()) return false;
+     * Foo other = (Foo) o;
+     * return this.hashCode() == other.hashCode() &amp;&amp; this.a == other.a &amp;&amp; Objects.equals(this.b, other.b);
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createEquals(Name className, List<JCTree.JCVariableDecl> fields) {
+        Name o = names.fromString("o");
+        Name other = names.fromString("other");
+        Name getClass = names.fromString("getClass");
+        Name hashCode = names.fromString("hashCode");
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        statements.append(treeMaker.If(treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(names._this),
+                treeMaker.Ident(o)), treeMaker.Return(treeMaker.Literal(true)), null));
+        statements.append(treeMaker.If(treeMaker.Binary(JCTree.Tag.OR,
+                treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(o), treeMaker.Literal(TypeTag.BOT, null)),
+                treeMaker.Binary(JCTree.Tag.NE,
+                        treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(o), getClass), List.nil()),
+                        treeMaker.Apply(List.nil(), thisField(getClass), List.nil()))),
+                treeMaker.Return(treeMaker.Literal(false)), null));
+        statements.append(treeMaker.VarDef(treeMaker.Modifiers(0), other, treeMaker.Ident(className),
+                treeMaker.TypeCast(treeMaker.Ident(className), treeMaker.Ident(o))));
+        // the cached hashes tell most unequal instances apart
+        JCTree.JCExpression equal = treeMaker.Binary(JCTree.Tag.EQ,
+                treeMaker.Apply(List.nil(), thisField(hashCode), List.nil()),
+                treeMaker.Apply(List.nil(), treeMaker.Select(treeMaker.Ident(other), hashCode), List.nil()));
+        for (JCTree.JCVariableDecl field : fields) {
+            equal = treeMaker.Binary(JCTree.Tag.AND, equal,
+                    fieldEquals(field, thisField(field.name), treeMaker.Select(treeMaker.Ident(other), field.name)));
+        }
+        statements.append(treeMaker.Return(equal));
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PUBLIC, List.of(override())),
+                names.fromString("equals"), treeMaker.TypeIdent(TypeTag.BOOLEAN), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), o,
+                        qualifiedName("java.lang.Object"), null)),
+                List.nil(), treeMaker.Block(0, statements.toList()), null);
+    }
+
+    /**
+     * <pre>
+     * int h = this.$hash;
+     * if (h == 0) {
+     *     h = 1;
+     *     h = 31 * h + Integer.hashCode(this.a);
+     *     h = 31 * h + Objects.hashCode(this.b);
+     *     this.$hash = h;
+     * }
+     * return h;
+     * </pre>
+     * A racy cache as {@code String.hashCode}: every thread computes the same value from final fields.
+     */
+    private JCTree.JCMethodDecl createHashCode(List<JCTree.JCVariableDecl> fields) {
+        Name h = names.fromString("h");
+        Name hash = names.fromString(HASH_FIELD);
+        ListBuffer<JCTree.JCStatement> compute = new ListBuffer<>();
+        compute.append(treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(h), intLiteral(1))));
+        for (JCTree.JCVariableDecl field : fields) {
+            compute.append(treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(h), treeMaker.Binary(JCTree.Tag.PLUS,
+                    treeMaker.Binary(JCTree.Tag.MUL, intLiteral(31), treeMaker.Ident(h)),
+                    fieldHashCode(field, thisField(field.name))))));
+        }
+        compute.append(treeMaker.Exec(treeMaker.Assign(thisField(hash), treeMaker.Ident(h))));
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(0), h, treeMaker.TypeIdent(TypeTag.INT), thisField(hash)),
+                treeMaker.If(treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(h), intLiteral(0)),
+                        treeMaker.Block(0, compute.toList()), null),
+                treeMaker.Return(treeMaker.Ident(h)));
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PUBLIC, List.of(override())),
+                names.fromString("hashCode"), treeMaker.TypeIdent(TypeTag.INT), List.nil(), List.nil(),
+                List.nil(), treeMaker.Block(0, statements), null);
+    }
+
+    /**
+     * {@code ==} for primitives, on the bits for floats and doubles as their boxes do, {@code Arrays.equals} for
+     * arrays and {@code Objects.equals} otherwise
+     */
+    private JCTree.JCExpression fieldEquals(JCTree.JCVariableDecl field, JCTree.JCExpression a,
+                                            JCTree.JCExpression b) {
+        Type type = field.sym.type;
+        switch (type.getTag()) {
+            case FLOAT:
+                return treeMaker.Binary(JCTree.Tag.EQ, call("java.lang.Float.floatToIntBits", a),
+                        call("java.lang.Float.floatToIntBits", b));
+            case DOUBLE:
+                return treeMaker.Binary(JCTree.Tag.EQ, call("java.lang.Double.doubleToLongBits", a),
+                        call("java.lang.Double.doubleToLongBits", b));
+            case ARRAY:
+                return call("java.util.Arrays.equals", a, b);
+            default:
+                return type.isPrimitive() ? treeMaker.Binary(JCTree.Tag.EQ, a, b)
+                        : call("java.util.Objects.equals", a, b);
+        }
+    }
+
+    /**
+     * {@code Integer.hashCode(a)} and the like for primitives, {@code Arrays.hashCode} for arrays and
+     * {@code Objects.hashCode} otherwise
+     */
+    private JCTree.JCExpression fieldHashCode(JCTree.JCVariableDecl field, JCTree.JCExpression value) {
+        Type type = field.sym.type;
+        if (type.getTag() == TypeTag.ARRAY) {
+            return call("java.util.Arrays.hashCode", value);
+        }
+        if (type.isPrimitive()) {
+            return call("java.lang." + boxName(type.getTag()) + ".hashCode", value);
+        }
+        return call("java.util.Objects.hashCode", value);
+    }
+
+    private static String boxName(TypeTag tag) {
+        switch (tag) {
+            case BOOLEAN:
+                return "Boolean";
+            case BYTE:
+                return "Byte";
+            case SHORT:
+                return "Short";
+            case CHAR:
+                return "Character";
+            case INT:
+                return "Integer";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            default:
+                return "Double";
+        }
+    }
+
+    private JCTree.JCExpression call(String method, JCTree.JCExpression... args) {
+        return treeMaker.Apply(List.nil(), qualifiedName(method), List.from(args));
+    }
+
+    private JCTree.JCAnnotation override() {
+        return treeMaker.Annotation(qualifiedName("java.lang.Override"), List.nil());
+    }
+
+    private JCTree.JCExpression thisField(Name name) {
+        return treeMaker.Select(treeMaker.Ident(names._this), name);
+    }
+
+    private JCTree.JCExpression intLiteral(int value) {
+        return treeMaker.Literal(TypeTag.INT, value);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
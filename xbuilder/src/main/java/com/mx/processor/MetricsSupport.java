@@ -0,0 +1,100 @@
+package com.mx.processor;
+
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+/**
+ * Instruments {@code build} with the {@code com.mx.runtime.BuildMetrics} of its class when compiling with
+ * {@code -Axbuilder.metrics=true}:
+ * <pre>
+ * private static final com.mx.runtime.BuildMetrics $metrics =
+ *         com.mx.runtime.BuildMetrics.register("com.foo.Foo", 0);
+ *
+ * public static Foo build(Builder&lt;TRUE, TRUE&gt; builder) {
+ *     long $start = Foo.$metrics.begin();
+ *     ...
+ *     Foo $built = new Foo(builder.a, builder.b);
+ *     Foo.$metrics.end($start);
+ *     return $built;
+ * }
+ * </pre>
+ * Without the option nothing is generated.
+ *
+ * @author milo
+ */
+class MetricsSupport {
+
+    static final String METRICS_CLASS = "com.mx.runtime.BuildMetrics";
+    static final String METRICS_FIELD = "$metrics";
+    static final String START_VAR = "$start";
+    static final String BUILT_VAR = "$built";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+
+    MetricsSupport(TreeMaker treeMaker, Names names) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+    }
+
+    JCTree.JCVariableDecl createField(String qualifiedClassName, int sampleInterval) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                names.fromString(METRICS_FIELD), qualifiedName(METRICS_CLASS),
+                treeMaker.Apply(List.nil(), qualifiedName(METRICS_CLASS + ".register"),
+                        List.of(treeMaker.Literal(qualifiedClassName), treeMaker.Literal(TypeTag.INT, sampleInterval))));
+    }
+
+    /**
+     * The body of {@code build}, from its constraint checks and the built instance
+     */
+    List<JCTree.JCStatement> instrument(Name className, List<JCTree.JCStatement> checks,
+                                        JCTree.JCExpression built) {
+        Name start = names.fromString(START_VAR);
+        Name result = names.fromString(BUILT_VAR);
+        return checks
+                .prepend(treeMaker.VarDef(treeMaker.Modifiers(0), start, treeMaker.TypeIdent(TypeTag.LONG),
+                        call(className, "begin", List.nil())))
+                .append(treeMaker.VarDef(treeMaker.Modifiers(0), result, treeMaker.Ident(className), built))
+                .append(treeMaker.Exec(call(className, "end", List.of(treeMaker.Ident(start)))))
+                .append(treeMaker.Return(treeMaker.Ident(result)));
+    }
+
+    /**
+     * {@code Foo.$metrics.method(args)}
+     */
+    private JCTree.JCExpression call(Name className, String method, List<JCTree.JCExpression> args) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(
+                treeMaker.Select(treeMaker.Ident(className), names.fromString(METRICS_FIELD)),
+                names.fromString(method)), args);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+
+    // --- source ---
+
+    static String writeField(String qualifiedClassName, int sampleInterval) {
+        return "\n    private static final " + METRICS_CLASS + " " + METRICS_FIELD + " = " + METRICS_CLASS
+                + ".register(\"" + qualifiedClassName + "\", " + sampleInterval + ");\n";
+    }
+
+    static String writeBegin(String indent) {
+        return indent + "long " + START_VAR + " = " + METRICS_FIELD + ".begin();\n";
+    }
+
+    /**
+     * The end of {@code build}, from the expression of the built instance
+     */
+    static String writeEnd(String className, String built, String indent) {
+        return indent + className + " " + BUILT_VAR + " = " + built + ";\n"
+                + indent + METRICS_FIELD + ".end(" + START_VAR + ");\n"
+                + indent + "return " + BUILT_VAR + ";\n";
+    }
+}
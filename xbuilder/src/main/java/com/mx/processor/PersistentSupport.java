@@ -0,0 +1,162 @@
+package com.mx.processor;
+
+import com.mx.ann.Builder;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.util.function.Function;
+
+/**
+ * Generates the Builder of a {@link Builder.Mode#PERSISTENT} class, whose fields live in a
+ * {@code com.mx.runtime.PersistentSlots} instead of one builder field each:
+ * <pre>
+ * public static final class Builder&lt;HNAME, HAGE&gt; {
+ *     private final com.mx.runtime.PersistentSlots $slots;
+ *     private Builder(com.mx.runtime.PersistentSlots $slots)
+ *     public Builder&lt;TRUE, HAGE&gt; name(String name) {
+ *         return new Builder&lt;TRUE, HAGE&gt;(this.$slots.set(0, name));
+ *     }
+ * }
+ * </pre>
+ * A setter never changes its builder and copies a single path of the slots, so a partly set builder is a
+ * template that threads can branch from. {@code build} reads the slots back, {@code (String) builder.$slots.get(0)},
+ * and {@code builder()} and {@code toBuilder()} fill new slots. Primitive values are boxed in the slots, with
+ * the type of their field.
+ *
+ * @author milo
+ */
+class PersistentSupport {
+
+    static final String SLOTS_CLASS = "com.mx.runtime.PersistentSlots";
+    static final String SLOTS_FIELD = "$slots";
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Elements elements;
+
+    PersistentSupport(TreeMaker treeMaker, Names names, Elements elements) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.elements = elements;
+    }
+
+    void checkClass(TypeElement classElement, Builder annotation) throws ProcessingException {
+        String className = classElement.getQualifiedName().toString();
+        if (annotation.reusable()) {
+            throw new ProcessingException(classElement,
+                    "reusable of %s is not supported with Mode.PERSISTENT, whose builders never change", className);
+        }
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            if (field.getAnnotation(Singular.class) != null) {
+                throw new ProcessingException(field, "@Singular field %s of %s is not supported with Mode.PERSISTENT",
+                        field.getSimpleName().toString(), className);
+            }
+        }
+        if (elements.getTypeElement(SLOTS_CLASS) == null) {
+            throw new ProcessingException(classElement,
+                    "Mode.PERSISTENT of %s needs xbuilder-runtime on the compile classpath", className);
+        }
+    }
+
+    /**
+     * The Builder class
+     *
+     * @param setterType the Builder type a setter returns
+     */
+    JCTree.JCClassDecl createBuilderClass(Name builderClassName,
+                                          List<JCTree.JCTypeParameter> typeParams,
+                                          FieldModel model,
+                                          Function<JCTree.JCVariableDecl, JCTree.JCExpression> setterType) {
+        Name slots = names.fromString(SLOTS_FIELD);
+        ListBuffer<JCTree> body = new ListBuffer<>();
+        body.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.FINAL), slots,
+                qualifiedName(SLOTS_CLASS), null));
+        // private Builder(PersistentSlots $slots) { this.$slots = $slots; }
+        body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE), names.init,
+                treeMaker.TypeIdent(TypeTag.VOID), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), slots, qualifiedName(SLOTS_CLASS),
+                        null)),
+                List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Exec(treeMaker.Assign(
+                        treeMaker.Select(treeMaker.Ident(names._this), slots), treeMaker.Ident(slots))))),
+                null));
+        int index = 0;
+        for (JCTree.JCVariableDecl field : model.fields) {
+            // return new Builder<..., TRUE, ...>(this.$slots.set(index, name));
+            JCTree.JCExpression set = treeMaker.Apply(List.nil(), treeMaker.Select(
+                    treeMaker.Select(treeMaker.Ident(names._this), slots), names.fromString("set")),
+                    List.of(treeMaker.Literal(TypeTag.INT, index++), treeMaker.Ident(field.name)));
+            body.append(treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), field.name, setterType.apply(field),
+                    List.nil(),
+                    List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), field.name, field.vartype, null)),
+                    List.nil(),
+                    treeMaker.Block(0, List.of(treeMaker.Return(treeMaker.NewClass(null, List.nil(),
+                            setterType.apply(field), List.of(set), null)))),
+                    null));
+        }
+        return treeMaker.ClassDef(treeMaker.Modifiers(Flags.PUBLIC + Flags.STATIC + Flags.FINAL),
+                builderClassName, typeParams, null, List.nil(), body.toList());
+    }
+
+    /**
+     * {@code new Builder<...>(PersistentSlots.of(value0, (long) value1, ...))}
+     *
+     * @param value      the value of a field
+     * @param castValues whether a value of a primitive field, a default or zero value, must be cast to the type of
+     *                   its field to be boxed as such
+     */
+    JCTree.JCExpression createBuilder(JCTree.JCExpression builderType,
+                                      FieldModel model,
+                                      Function<JCTree.JCVariableDecl, JCTree.JCExpression> value,
+                                      boolean castValues) {
+        ListBuffer<JCTree.JCExpression> values = new ListBuffer<>();
+        for (JCTree.JCVariableDecl field : model.fields) {
+            JCTree.JCExpression fieldValue = value.apply(field);
+            values.append(castValues && needsCast(field, fieldValue)
+                    ? treeMaker.TypeCast(field.vartype, fieldValue) : fieldValue);
+        }
+        return treeMaker.NewClass(null, List.nil(), builderType,
+                List.of(treeMaker.Apply(List.nil(), qualifiedName(SLOTS_CLASS + ".of"), values.toList())), null);
+    }
+
+    /**
+     * Whether {@code value} of a primitive field may not be of its type, as the {@code 0} of a long
+     */
+    private static boolean needsCast(JCTree.JCVariableDecl field, JCTree.JCExpression value) {
+        if (!(field.vartype instanceof JCTree.JCPrimitiveTypeTree)) {
+            return false;
+        }
+        return !(value instanceof JCTree.JCLiteral)
+                || ((JCTree.JCLiteral) value).typetag != ((JCTree.JCPrimitiveTypeTree) field.vartype).typetag;
+    }
+
+    /**
+     * {@code (String) builder.$slots.get(0)}
+     */
+    JCTree.JCExpression read(Name builder, FieldModel model, Name fieldName) {
+        int index = model.indexOf(fieldName);
+        if (index < 0) {
+            throw new IllegalArgumentException("No field " + fieldName);
+        }
+        return treeMaker.TypeCast(model.fieldAt(index).vartype, treeMaker.Apply(List.nil(), treeMaker.Select(
+                treeMaker.Select(treeMaker.Ident(builder), names.fromString(SLOTS_FIELD)),
+                names.fromString("get")), List.of(treeMaker.Literal(TypeTag.INT, index))));
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
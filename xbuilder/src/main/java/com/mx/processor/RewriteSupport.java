@@ -0,0 +1,358 @@
+package com.mx.processor;
+
+import com.mx.ann.Canonical;
+import com.mx.ann.Default;
+import com.mx.ann.Singular;
+import com.mx.utils.ElementUtils;
+import com.sun.tools.javac.parser.ParserFactory;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites the complete builder chains of the compiled sources into constructor calls, under
+ * {@code -Axbuilder.rewrite=true}:
+ * <pre>
+ * User.build(User.builder().name(a).password(b))   becomes   new User(a, b)
+ * </pre>
+ * A chain is complete when it starts at {@code builder()} and sets every field once, {@code @Default} ones
+ * included. Its args keep their evaluation order: out of declaration order, a chain is only rewritten when every
+ * arg is a plain read, a literal or a lambda. Chains held in variables, or missing a field, are left alone.
+ * <p>
+ * Only classes whose {@code build} just calls the constructor are registered: no constraints, {@code intern},
+ * metrics, {@code @Singular} or {@code @Canonical} field, no type params, a {@code @Default} with a plain value,
+ * and a single constructor of that arity, called from outside the package only when public. A class name is
+ * resolved from the imports, and a compilation unit declaring a variable of that name is skipped.
+ *
+ * @author milo
+ */
+class RewriteSupport {
+
+    /**
+     * A class whose chains can be rewritten
+     */
+    static final class Target {
+        final String qualifiedName;
+        final String packageName;
+        final java.util.List<String> fields;
+        final boolean publicConstructor;
+        BuildReport.Entry reportEntry;
+        int sites;
+
+        Target(String qualifiedName, String packageName, java.util.List<String> fields, boolean publicConstructor) {
+            this.qualifiedName = qualifiedName;
+            this.packageName = packageName;
+            this.fields = fields;
+            this.publicConstructor = publicConstructor;
+        }
+    }
+
+    private final TreeMaker treeMaker;
+    private final Elements elements;
+    private final ParserFactory parserFactory;
+    private final Map<String, Target> targets = new HashMap<>();
+    private final Set<JCTree.JCCompilationUnit> rewritten = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Complete chains left alone as their args would be evaluated out of order
+     */
+    int keptSites;
+
+    RewriteSupport(TreeMaker treeMaker, Elements elements, ParserFactory parserFactory) {
+        this.treeMaker = treeMaker;
+        this.elements = elements;
+        this.parserFactory = parserFactory;
+    }
+
+    /**
+     * Registers a class unless its {@code build} does more than call the constructor
+     *
+     * @param plainBuild neither constraints, intern nor metrics
+     * @return whether it was registered
+     */
+    boolean register(TypeElement classElement, boolean plainBuild, BuildReport.Entry reportEntry) {
+        if (!plainBuild || !classElement.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        java.util.List<VariableElement> fields = ElementUtils.getInstanceFields(classElement);
+        java.util.List<String> fieldNames = new ArrayList<>(fields.size());
+        for (VariableElement field : fields) {
+            if (field.getAnnotation(Singular.class) != null || field.getAnnotation(Canonical.class) != null) {
+                return false;
+            }
+            Default defaultValue = field.getAnnotation(Default.class);
+            // builder() evaluates the default, which the constructor call would not
+            if (defaultValue != null && !defaultValue.value().trim().isEmpty() && !isPlain(
+                    parserFactory.newParser(defaultValue.value(), false, false, false).parseExpression())) {
+                return false;
+            }
+            fieldNames.add(field.getSimpleName().toString());
+        }
+        ExecutableElement constructor = null;
+        for (ExecutableElement candidate : ElementFilter.constructorsIn(classElement.getEnclosedElements())) {
+            if (candidate.getParameters().size() == fields.size()) {
+                if (constructor != null) {
+                    // overload resolution at the call site could pick the other one
+                    return false;
+                }
+                constructor = candidate;
+            }
+        }
+        if (constructor == null || constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        String qualifiedName = classElement.getQualifiedName().toString();
+        Target target = new Target(qualifiedName, elements.getPackageOf(classElement).getQualifiedName().toString(),
+                fieldNames, constructor.getModifiers().contains(Modifier.PUBLIC));
+        target.reportEntry = reportEntry;
+        targets.put(qualifiedName, target);
+        return true;
+    }
+
+    boolean hasTargets() {
+        return !targets.isEmpty();
+    }
+
+    Iterable<Target> targets() {
+        return targets.values();
+    }
+
+    /**
+     * Rewrites the complete chains of {@code unit}, once per compilation unit
+     *
+     * @return the number of rewritten call sites
+     */
+    int rewrite(JCTree.JCCompilationUnit unit) {
+        if (!rewritten.add(unit)) {
+            return 0;
+        }
+        UnitScope scope = new UnitScope(unit);
+        int[] sites = {0};
+        unit.accept(new TreeTranslator() {
+            @Override
+            public void visitApply(JCTree.JCMethodInvocation tree) {
+                super.visitApply(tree);
+                JCTree.JCNewClass instance = rewriteChain(scope, tree);
+                if (instance != null) {
+                    sites[0]++;
+                    result = instance;
+                }
+            }
+        });
+        return sites[0];
+    }
+
+    /**
+     * @return {@code new Foo(a, b)} for a complete {@code Foo.build(Foo.builder().a(a).b(b))}, else null
+     */
+    private JCTree.JCNewClass rewriteChain(UnitScope scope, JCTree.JCMethodInvocation build) {
+        JCTree.JCFieldAccess buildMethod = staticCall(build, BuilderProcessor.BUILD_METHOD, 1);
+        if (buildMethod == null) {
+            return null;
+        }
+        // the setters, from the last one back to builder()
+        ListBuffer<Name> setters = new ListBuffer<>();
+        ListBuffer<JCTree.JCExpression> values = new ListBuffer<>();
+        JCTree.JCExpression receiver = build.args.head;
+        while (true) {
+            if (!(receiver instanceof JCTree.JCMethodInvocation)) {
+                return null;
+            }
+            JCTree.JCMethodInvocation call = (JCTree.JCMethodInvocation) receiver;
+            if (!(call.meth instanceof JCTree.JCFieldAccess) || !call.typeargs.isEmpty()) {
+                return null;
+            }
+            JCTree.JCFieldAccess method = (JCTree.JCFieldAccess) call.meth;
+            if (method.name.contentEquals(BuilderProcessor.BUILDER_METHOD) && call.args.isEmpty()) {
+                if (!method.selected.toString().equals(buildMethod.selected.toString())) {
+                    return null;
+                }
+                break;
+            }
+            if (call.args.size() != 1) {
+                return null;
+            }
+            setters.prepend(method.name);
+            values.prepend(call.args.head);
+            receiver = method.selected;
+        }
+        Target target = scope.resolve(buildMethod.selected);
+        if (target == null || setters.size() != target.fields.size()
+                || !target.publicConstructor && !target.packageName.equals(scope.packageName)) {
+            return null;
+        }
+        JCTree.JCExpression[] args = new JCTree.JCExpression[target.fields.size()];
+        boolean inOrder = true;
+        List<JCTree.JCExpression> value = values.toList();
+        int position = 0;
+        for (Name setter : setters) {
+            int index = target.fields.indexOf(setter.toString());
+            if (index < 0 || args[index] != null) {
+                return null;
+            }
+            inOrder &= index == position++;
+            args[index] = value.head;
+            value = value.tail;
+        }
+        if (!inOrder) {
+            for (JCTree.JCExpression arg : args) {
+                if (!isPlain(arg)) {
+                    keptSites++;
+                    return null;
+                }
+            }
+        }
+        target.sites++;
+        treeMaker.at(build.pos);
+        return treeMaker.NewClass(null, List.nil(), buildMethod.selected, List.from(args), null);
+    }
+
+    /**
+     * @return the {@code Foo.name} of a {@code Foo.name(...)} call with {@code argCount} args and no type args
+     */
+    private static JCTree.JCFieldAccess staticCall(JCTree.JCMethodInvocation call, String name, int argCount) {
+        if (!(call.meth instanceof JCTree.JCFieldAccess) || !call.typeargs.isEmpty()
+                || call.args.size() != argCount) {
+            return null;
+        }
+        JCTree.JCFieldAccess method = (JCTree.JCFieldAccess) call.meth;
+        if (!method.name.contentEquals(name)
+                || !(method.selected instanceof JCTree.JCIdent || method.selected instanceof JCTree.JCFieldAccess)) {
+            return null;
+        }
+        return method;
+    }
+
+    /**
+     * Whether evaluating {@code tree} has no side effect, so it can be moved: literals, names, field reads,
+     * arithmetic, casts and lambdas
+     */
+    static boolean isPlain(JCTree tree) {
+        switch (tree.getTag()) {
+            case LITERAL:
+            case IDENT:
+            case LAMBDA:
+                return true;
+            case SELECT:
+                return isPlain(((JCTree.JCFieldAccess) tree).selected);
+            case REFERENCE:
+                return isPlain(((JCTree.JCMemberReference) tree).expr);
+            case PARENS:
+                return isPlain(((JCTree.JCParens) tree).expr);
+            case TYPECAST:
+                return isPlain(((JCTree.JCTypeCast) tree).expr);
+            case CONDEXPR:
+                JCTree.JCConditional conditional = (JCTree.JCConditional) tree;
+                return isPlain(conditional.cond) && isPlain(conditional.truepart)
+                        && isPlain(conditional.falsepart);
+            case POS:
+            case NEG:
+            case NOT:
+            case COMPL:
+                return isPlain(((JCTree.JCUnary) tree).arg);
+            case DIV:
+            case MOD:
+                // may throw
+                return false;
+            default:
+                if (tree instanceof JCTree.JCBinary) {
+                    JCTree.JCBinary binary = (JCTree.JCBinary) tree;
+                    return isPlain(binary.lhs) && isPlain(binary.rhs);
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Resolves the class names of a compilation unit to targets, as javac would for a type name: a class of the
+     * unit, a single type import, the package, then the on demand imports
+     */
+    private final class UnitScope {
+        final String packageName;
+        private final Map<String, String> declared = new HashMap<>();
+        private final Map<String, String> singleImports = new HashMap<>();
+        private final java.util.List<String> onDemandImports = new ArrayList<>();
+        private final Set<String> variables = new HashSet<>();
+
+        UnitScope(JCTree.JCCompilationUnit unit) {
+            packageName = unit.getPackageName() == null ? "" : unit.getPackageName().toString();
+            for (JCTree.JCImport anImport : unit.getImports()) {
+                if (anImport.isStatic() || !(anImport.qualid instanceof JCTree.JCFieldAccess)) {
+                    continue;
+                }
+                JCTree.JCFieldAccess qualid = (JCTree.JCFieldAccess) anImport.qualid;
+                if (qualid.name.contentEquals("*")) {
+                    onDemandImports.add(qualid.selected.toString());
+                } else {
+                    singleImports.put(qualid.name.toString(), qualid.toString());
+                }
+            }
+            new TreeScanner() {
+                @Override
+                public void visitClassDef(JCTree.JCClassDecl tree) {
+                    // two classes of one name: leave it to javac
+                    declared.put(tree.name.toString(), declared.containsKey(tree.name.toString()) ? null
+                            : tree.sym == null ? null : tree.sym.getQualifiedName().toString());
+                    super.visitClassDef(tree);
+                }
+
+                @Override
+                public void visitVarDef(JCTree.JCVariableDecl tree) {
+                    variables.add(tree.name.toString());
+                    super.visitVarDef(tree);
+                }
+            }.scan(unit);
+        }
+
+        Target resolve(JCTree.JCExpression name) {
+            if (name instanceof JCTree.JCFieldAccess) {
+                return targets.get(name.toString());
+            }
+            String simpleName = name.toString();
+            if (variables.contains(simpleName)) {
+                // Foo.build(...) would call a method of the variable
+                return null;
+            }
+            if (declared.containsKey(simpleName)) {
+                String qualifiedName = declared.get(simpleName);
+                return qualifiedName == null ? null : targets.get(qualifiedName);
+            }
+            if (singleImports.containsKey(simpleName)) {
+                return targets.get(singleImports.get(simpleName));
+            }
+            String samePackage = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            if (elements.getTypeElement(samePackage) != null) {
+                return targets.get(samePackage);
+            }
+            Target found = null;
+            for (String onDemand : onDemandImports) {
+                Target target = targets.get(onDemand + "." + simpleName);
+                if (target != null) {
+                    if (found != null) {
+                        return null;
+                    }
+                    found = target;
+                }
+            }
+            return found;
+        }
+    }
+}
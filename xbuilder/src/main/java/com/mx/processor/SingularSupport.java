@@ -0,0 +1,534 @@
+package com.mx.processor;
+
+import com.mx.ann.Default;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.mx.utils.StringUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Generates the accumulators of {@link Singular} fields. The builder keeps such a field as an {@code Object[]}
+ * named like the field plus a {@code field$size} count, map keys and values interleaved, and gets:
+ * <pre>
+ * public Builder&lt;...&gt; tags(List&lt;String&gt; tags)    // replaces the elements
+ * public Builder&lt;...&gt; addTag(String tag)            // or putAttr(K key, V value)
+ * public Builder&lt;...&gt; tagsCapacity(int capacity)   // pre-sizes the array
+ * </pre>
+ * {@code build} turns the array into an unmodifiable collection through the static {@code $list}, {@code $set}
+ * or {@code $map} of the builder, wrapping the array as is when it is full.
+ *
+ * @author milo
+ */
+class SingularSupport {
+
+    static final String SIZE_SUFFIX = "$size";
+    static final String CAPACITY_SUFFIX = "Capacity";
+    static final int DEFAULT_CAPACITY = 8;
+
+    enum Kind {
+        LIST("$list", "add"),
+        SET("$set", "add"),
+        MAP("$map", "put");
+
+        final String helper;
+        final String adderPrefix;
+
+        Kind(String helper, String adderPrefix) {
+            this.helper = helper;
+            this.adderPrefix = adderPrefix;
+        }
+    }
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Types types;
+
+    SingularSupport(TreeMaker treeMaker, Names names, Types types) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Fails on a {@link Singular} field that isn't a List, Set, Collection or Map, is a raw Map, or is also
+     * {@link Default}.
+     */
+    void checkFields(TypeElement classElement) throws ProcessingException {
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            if (field.getAnnotation(Singular.class) == null) {
+                continue;
+            }
+            if (kindOf(field.asType()) == null) {
+                throw new ProcessingException(field, "@Singular field %s must be a List, Set, Collection or Map",
+                        field.getSimpleName().toString());
+            }
+            if (kindOf(field.asType()) == Kind.MAP
+                    && ((DeclaredType) field.asType()).getTypeArguments().isEmpty()) {
+                throw new ProcessingException(field, "@Singular field %s must declare its key and value types",
+                        field.getSimpleName().toString());
+            }
+            if (field.getAnnotation(Default.class) != null) {
+                throw new ProcessingException(field, "@Singular field %s can't have a @Default, it defaults to empty",
+                        field.getSimpleName().toString());
+            }
+        }
+    }
+
+    boolean isSingular(JCTree.JCVariableDecl field) {
+        return field.sym != null && field.sym.getAnnotation(Singular.class) != null;
+    }
+
+    Kind kindOf(JCTree.JCVariableDecl field) {
+        return isSingular(field) ? kindOf(field.sym.type) : null;
+    }
+
+    private Kind kindOf(TypeMirror type) {
+        switch (types.erasure(type).toString()) {
+            case "java.util.List":
+            case "java.util.Collection":
+                return Kind.LIST;
+            case "java.util.Set":
+                return Kind.SET;
+            case "java.util.Map":
+                return Kind.MAP;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * What the builder stores for a field: the field itself, or the array and the size of a singular field.
+     */
+    List<JCTree.JCVariableDecl> storageFields(JCTree.JCVariableDecl field) {
+        if (!isSingular(field)) {
+            return List.of(field);
+        }
+        return List.of(
+                treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), field.name, objectArrayType(), null),
+                treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE), sizeName(field), treeMaker.TypeIdent(TypeTag.INT), null));
+    }
+
+    /**
+     * Plural setter, adder and capacity hint, all returning {@code this} typed by {@code builderType}.
+     */
+    List<JCTree.JCMethodDecl> createMethods(JCTree.JCVariableDecl field, Supplier<JCTree.JCExpression> builderType) {
+        return List.of(
+                createPluralSetter(field, builderType.get()),
+                createAdder(field, builderType.get()),
+                createCapacityMethod(field, builderType.get()));
+    }
+
+    /**
+     * {@code Builder.$list(builder.tags, builder.tags$size)}
+     */
+    JCTree.JCExpression createBuildValue(JCTree.JCVariableDecl field, Name builderClassName, Name builder) {
+        return treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(treeMaker.Ident(builderClassName), names.fromString(kindOf(field).helper)),
+                List.of(treeMaker.Select(treeMaker.Ident(builder), field.name),
+                        treeMaker.Select(treeMaker.Ident(builder), sizeName(field))));
+    }
+
+    /**
+     * {@code Collections.emptyList()}, {@code emptySet()} or {@code emptyMap()}
+     */
+    JCTree.JCExpression createEmptyValue(JCTree.JCVariableDecl field) {
+        String empty;
+        switch (kindOf(field)) {
+            case SET:
+                empty = "java.util.Collections.emptySet";
+                break;
+            case MAP:
+                empty = "java.util.Collections.emptyMap";
+                break;
+            default:
+                empty = "java.util.Collections.emptyList";
+        }
+        return treeMaker.Apply(List.nil(), qualifiedName(empty), List.nil());
+    }
+
+    /**
+     * The value {@code build} would give the elements of the parameter {@code tags}, which may be null:
+     * {@code tags == null || tags.isEmpty() ? Collections.emptyList()
+     * : Collections.unmodifiableList(new ArrayList<>(tags))}, or a LinkedHashSet or LinkedHashMap copy
+     */
+    JCTree.JCExpression createCopyValue(JCTree.JCVariableDecl field) {
+        String empty;
+        String unmodifiable;
+        String copy;
+        switch (kindOf(field)) {
+            case SET:
+                empty = "java.util.Collections.emptySet";
+                unmodifiable = "java.util.Collections.unmodifiableSet";
+                copy = "java.util.LinkedHashSet";
+                break;
+            case MAP:
+                empty = "java.util.Collections.emptyMap";
+                unmodifiable = "java.util.Collections.unmodifiableMap";
+                copy = "java.util.LinkedHashMap";
+                break;
+            default:
+                empty = "java.util.Collections.emptyList";
+                unmodifiable = "java.util.Collections.unmodifiableList";
+                copy = "java.util.ArrayList";
+        }
+        return treeMaker.Conditional(
+                treeMaker.Binary(JCTree.Tag.OR,
+                        treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(field.name),
+                                treeMaker.Literal(TypeTag.BOT, null)),
+                        call(treeMaker.Ident(field.name), "isEmpty")),
+                treeMaker.Apply(List.nil(), qualifiedName(empty), List.nil()),
+                treeMaker.Apply(List.nil(), qualifiedName(unmodifiable), List.of(treeMaker.NewClass(null, List.nil(),
+                        treeMaker.TypeApply(qualifiedName(copy), List.nil()), List.of(treeMaker.Ident(field.name)),
+                        null))));
+    }
+
+    /**
+     * The static helpers needed by the singular fields among {@code fields}.
+     */
+    List<JCTree.JCMethodDecl> createHelpers(List<JCTree.JCVariableDecl> fields) {
+        Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+        fields.stream().filter(this::isSingular).forEach(field -> kinds.add(kindOf(field)));
+        ListBuffer<JCTree.JCMethodDecl> helpers = new ListBuffer<>();
+        for (Kind kind : kinds) {
+            helpers.append(kind == Kind.LIST ? createListHelper() : createHashedHelper(kind));
+        }
+        return helpers.toList();
+    }
+
+    private JCTree.JCMethodDecl createPluralSetter(JCTree.JCVariableDecl field, JCTree.JCExpression returnType) {
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        // this.tags = null; this.tags$size = 0;
+        statements.append(assign(thisField(field.name), treeMaker.Literal(TypeTag.BOT, null)));
+        statements.append(assign(thisField(sizeName(field)), intLiteral(0)));
+        JCTree.JCStatement fill;
+        if (kindOf(field) == Kind.MAP) {
+            // for (Map.Entry<K, V> entry : attrs.entrySet()) { putAttr(entry.getKey(), entry.getValue()); }
+            // the declared type args, wildcards included, checkFields rejects a raw map
+            Name entry = names.fromString("entry");
+            JCTree.JCVariableDecl entryVar = treeMaker.VarDef(treeMaker.Modifiers(0), entry,
+                    treeMaker.TypeApply(qualifiedName("java.util.Map.Entry"),
+                            ((JCTree.JCTypeApply) field.vartype).arguments), null);
+            fill = treeMaker.ForeachLoop(entryVar,
+                    call(treeMaker.Ident(field.name), "entrySet"),
+                    treeMaker.Exec(treeMaker.Apply(List.nil(), treeMaker.Ident(adderName(field)),
+                            List.of(call(treeMaker.Ident(entry), "getKey"),
+                                    call(treeMaker.Ident(entry), "getValue")))));
+        } else {
+            // this.tags = tags.toArray(); this.tags$size = this.tags.length;
+            fill = treeMaker.Block(0, List.of(
+                    assign(thisField(field.name), call(treeMaker.Ident(field.name), "toArray")),
+                    assign(thisField(sizeName(field)),
+                            treeMaker.Select(thisField(field.name), names.fromString("length")))));
+        }
+        // if (tags != null && !tags.isEmpty()) ..., leaving no empty array for the adder to grow
+        statements.append(treeMaker.If(
+                treeMaker.Binary(JCTree.Tag.AND,
+                        treeMaker.Binary(JCTree.Tag.NE, treeMaker.Ident(field.name),
+                                treeMaker.Literal(TypeTag.BOT, null)),
+                        treeMaker.Unary(JCTree.Tag.NOT, call(treeMaker.Ident(field.name), "isEmpty"))),
+                fill, null));
+        statements.append(treeMaker.Return(treeMaker.Ident(names._this)));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), field.name, returnType, List.nil(),
+                List.of(param(field.name, field.vartype)), List.nil(), treeMaker.Block(0, statements.toList()), null);
+    }
+
+    private JCTree.JCMethodDecl createAdder(JCTree.JCVariableDecl field, JCTree.JCExpression returnType) {
+        boolean map = kindOf(field) == Kind.MAP;
+        // slots taken by one element
+        int width = map ? 2 : 1;
+        Singular singular = field.sym.getAnnotation(Singular.class);
+        int capacity = singular.capacity() > 0 ? singular.capacity() : DEFAULT_CAPACITY;
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        // if (this.tags == null) this.tags = new Object[capacity];
+        // else if (this.tags$size * width == this.tags.length)
+        //     this.tags = Arrays.copyOf(this.tags, Math.max(this.tags.length * 2, capacity * width));
+        // so the empty array of tagsCapacity(0) grows too
+        statements.append(treeMaker.If(
+                treeMaker.Binary(JCTree.Tag.EQ, thisField(field.name), treeMaker.Literal(TypeTag.BOT, null)),
+                assign(thisField(field.name), newObjectArray(intLiteral(capacity * width))),
+                treeMaker.If(
+                        treeMaker.Binary(JCTree.Tag.EQ,
+                                slot(field, width, 0),
+                                treeMaker.Select(thisField(field.name), names.fromString("length"))),
+                        assign(thisField(field.name), treeMaker.Apply(List.nil(),
+                                qualifiedName("java.util.Arrays.copyOf"),
+                                List.of(thisField(field.name), treeMaker.Apply(List.nil(),
+                                        qualifiedName("java.lang.Math.max"),
+                                        List.of(treeMaker.Binary(JCTree.Tag.MUL,
+                                                treeMaker.Select(thisField(field.name), names.fromString("length")),
+                                                intLiteral(2)), intLiteral(capacity * width)))))),
+                        null)));
+        ListBuffer<JCTree.JCVariableDecl> params = new ListBuffer<>();
+        if (map) {
+            // this.attrs[this.attrs$size * 2] = key; this.attrs[this.attrs$size * 2 + 1] = value;
+            List<JCTree.JCExpression> typeArgs = typeArgs(field, 2);
+            Name key = names.fromString("key");
+            Name value = names.fromString("value");
+            params.append(param(key, typeArgs.head)).append(param(value, typeArgs.tail.head));
+            statements.append(assign(treeMaker.Indexed(thisField(field.name), slot(field, 2, 0)), treeMaker.Ident(key)));
+            statements.append(assign(treeMaker.Indexed(thisField(field.name), slot(field, 2, 1)), treeMaker.Ident(value)));
+        } else {
+            // this.tags[this.tags$size] = tag;
+            Name element = singularName(field);
+            params.append(param(element, typeArgs(field, 1).head));
+            statements.append(assign(treeMaker.Indexed(thisField(field.name), slot(field, 1, 0)), treeMaker.Ident(element)));
+        }
+        // this.tags$size++;
+        statements.append(treeMaker.Exec(treeMaker.Unary(JCTree.Tag.POSTINC, thisField(sizeName(field)))));
+        statements.append(treeMaker.Return(treeMaker.Ident(names._this)));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC), adderName(field), returnType, List.nil(),
+                params.toList(), List.nil(), treeMaker.Block(0, statements.toList()), null);
+    }
+
+    private JCTree.JCMethodDecl createCapacityMethod(JCTree.JCVariableDecl field, JCTree.JCExpression returnType) {
+        int width = kindOf(field) == Kind.MAP ? 2 : 1;
+        Name capacity = names.fromString("capacity");
+        JCTree.JCExpression slots = width == 1 ? treeMaker.Ident(capacity)
+                : treeMaker.Binary(JCTree.Tag.MUL, treeMaker.Ident(capacity), intLiteral(width));
+        JCTree.JCExpression slotsAgain = width == 1 ? treeMaker.Ident(capacity)
+                : treeMaker.Binary(JCTree.Tag.MUL, treeMaker.Ident(capacity), intLiteral(width));
+        JCTree.JCExpression slotsOnceMore = width == 1 ? treeMaker.Ident(capacity)
+                : treeMaker.Binary(JCTree.Tag.MUL, treeMaker.Ident(capacity), intLiteral(width));
+        // if (this.tags == null) this.tags = new Object[capacity];
+        // else if (this.tags.length < capacity) this.tags = Arrays.copyOf(this.tags, capacity);
+        JCTree.JCStatement grow = treeMaker.If(
+                treeMaker.Binary(JCTree.Tag.EQ, thisField(field.name), treeMaker.Literal(TypeTag.BOT, null)),
+                assign(thisField(field.name), newObjectArray(slots)),
+                treeMaker.If(
+                        treeMaker.Binary(JCTree.Tag.LT,
+                                treeMaker.Select(thisField(field.name), names.fromString("length")), slotsAgain),
+                        assign(thisField(field.name), treeMaker.Apply(List.nil(),
+                                qualifiedName("java.util.Arrays.copyOf"),
+                                List.of(thisField(field.name), slotsOnceMore))),
+                        null));
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PUBLIC),
+                names.fromString(field.name.toString() + CAPACITY_SUFFIX), returnType, List.nil(),
+                List.of(param(capacity, treeMaker.TypeIdent(TypeTag.INT))), List.nil(),
+                treeMaker.Block(0, List.of(grow, treeMaker.Return(treeMaker.Ident(names._this)))),
+                null);
+    }
+
+    /**
+     * <pre>
+     * private static &lt;E&gt; List&lt;E&gt; $list(Object[] elements, int size) {
+     *     if (size == 0) return Collections.emptyList();
+     *     return (List&lt;E&gt;) Collections.unmodifiableList(Arrays.asList(size == elements.length ? elements : Arrays.copyOf(elements, size)));
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createListHelper() {
+        Name e = names.fromString("E");
+        Name elements = names.fromString("elements");
+        Name size = names.fromString("size");
+        JCTree.JCExpression listType = treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(treeMaker.Ident(e)));
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.If(treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(size), intLiteral(0)),
+                        treeMaker.Return(treeMaker.Apply(List.nil(), qualifiedName("java.util.Collections.emptyList"), List.nil())),
+                        null),
+                treeMaker.Return(treeMaker.TypeCast(
+                        treeMaker.TypeApply(qualifiedName("java.util.List"), List.of(treeMaker.Ident(e))),
+                        treeMaker.Apply(List.nil(), qualifiedName("java.util.Collections.unmodifiableList"), List.of(
+                                treeMaker.Apply(List.nil(), qualifiedName("java.util.Arrays.asList"), List.of(
+                                        treeMaker.Conditional(
+                                                treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(size),
+                                                        treeMaker.Select(treeMaker.Ident(elements), names.fromString("length"))),
+                                                treeMaker.Ident(elements),
+                                                treeMaker.Apply(List.nil(), qualifiedName("java.util.Arrays.copyOf"),
+                                                        List.of(treeMaker.Ident(elements), treeMaker.Ident(size)))))))))));
+        return helper(Kind.LIST, List.of(e), listType, statements);
+    }
+
+    /**
+     * <pre>
+     * private static &lt;E&gt; Set&lt;E&gt; $set(Object[] elements, int size) {
+     *     if (size == 0) return Collections.emptySet();
+     *     Set&lt;E&gt; set = new LinkedHashSet&lt;E&gt;((int) (size / 0.75F) + 1);
+     *     for (int i = 0; i &lt; size; i++) set.add((E) elements[i]);
+     *     return Collections.unmodifiableSet(set);
+     * }
+     * </pre>
+     * and likewise {@code $map} over interleaved keys and values.
+     */
+    private JCTree.JCMethodDecl createHashedHelper(Kind kind) {
+        boolean map = kind == Kind.MAP;
+        List<Name> typeParams = map ? List.of(names.fromString("K"), names.fromString("V")) : List.of(names.fromString("E"));
+        Name elements = names.fromString("elements");
+        Name size = names.fromString("size");
+        Name result = names.fromString("result");
+        Name i = names.fromString("i");
+        String iface = map ? "java.util.Map" : "java.util.Set";
+        String impl = map ? "java.util.LinkedHashMap" : "java.util.LinkedHashSet";
+        Supplier<List<JCTree.JCExpression>> typeArgs = () -> {
+            ListBuffer<JCTree.JCExpression> args = new ListBuffer<>();
+            typeParams.forEach(name -> args.append(treeMaker.Ident(name)));
+            return args.toList();
+        };
+        // (E) elements[i], or (K) elements[i], (V) elements[i + 1]
+        JCTree.JCStatement add;
+        if (map) {
+            add = treeMaker.Exec(call(treeMaker.Ident(result), "put",
+                    treeMaker.TypeCast(treeMaker.Ident(typeParams.head), treeMaker.Indexed(treeMaker.Ident(elements), treeMaker.Ident(i))),
+                    treeMaker.TypeCast(treeMaker.Ident(typeParams.tail.head), treeMaker.Indexed(treeMaker.Ident(elements),
+                            treeMaker.Binary(JCTree.Tag.PLUS, treeMaker.Ident(i), intLiteral(1))))));
+        } else {
+            add = treeMaker.Exec(call(treeMaker.Ident(result), "add",
+                    treeMaker.TypeCast(treeMaker.Ident(typeParams.head), treeMaker.Indexed(treeMaker.Ident(elements), treeMaker.Ident(i)))));
+        }
+        List<JCTree.JCStatement> statements = List.of(
+                treeMaker.If(treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(size), intLiteral(0)),
+                        treeMaker.Return(treeMaker.Apply(List.nil(),
+                                qualifiedName(map ? "java.util.Collections.emptyMap" : "java.util.Collections.emptySet"),
+                                List.nil())),
+                        null),
+                treeMaker.VarDef(treeMaker.Modifiers(0), result,
+                        treeMaker.TypeApply(qualifiedName(iface), typeArgs.get()),
+                        treeMaker.NewClass(null, List.nil(), treeMaker.TypeApply(qualifiedName(impl), typeArgs.get()),
+                                List.of(treeMaker.Binary(JCTree.Tag.PLUS,
+                                        treeMaker.TypeCast(treeMaker.TypeIdent(TypeTag.INT),
+                                                treeMaker.Parens(treeMaker.Binary(JCTree.Tag.DIV, treeMaker.Ident(size),
+                                                        treeMaker.Literal(TypeTag.FLOAT, 0.75F)))),
+                                        intLiteral(1))),
+                                null)),
+                treeMaker.ForLoop(
+                        List.of(treeMaker.VarDef(treeMaker.Modifiers(0), i, treeMaker.TypeIdent(TypeTag.INT), intLiteral(0))),
+                        treeMaker.Binary(JCTree.Tag.LT, treeMaker.Ident(i),
+                                map ? treeMaker.Binary(JCTree.Tag.MUL, treeMaker.Ident(size), intLiteral(2)) : treeMaker.Ident(size)),
+                        List.of(treeMaker.Exec(map
+                                ? treeMaker.Assignop(JCTree.Tag.PLUS_ASG, treeMaker.Ident(i), intLiteral(2))
+                                : treeMaker.Unary(JCTree.Tag.POSTINC, treeMaker.Ident(i)))),
+                        add),
+                treeMaker.Return(treeMaker.Apply(List.nil(),
+                        qualifiedName(map ? "java.util.Collections.unmodifiableMap" : "java.util.Collections.unmodifiableSet"),
+                        List.of(treeMaker.Ident(result)))));
+        return helper(kind, typeParams, treeMaker.TypeApply(qualifiedName(iface), typeArgs.get()), statements);
+    }
+
+    private JCTree.JCMethodDecl helper(Kind kind, List<Name> typeParams, JCTree.JCExpression returnType,
+                                       List<JCTree.JCStatement> statements) {
+        ListBuffer<JCTree.JCTypeParameter> typeParamDefs = new ListBuffer<>();
+        typeParams.forEach(name -> typeParamDefs.append(treeMaker.TypeParameter(name, List.nil())));
+        return treeMaker.MethodDef(
+                treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC, List.of(treeMaker.Annotation(
+                        treeMaker.Ident(names.fromString("SuppressWarnings")), List.of(treeMaker.Literal("unchecked"))))),
+                names.fromString(kind.helper),
+                returnType,
+                typeParamDefs.toList(),
+                List.of(param(names.fromString("elements"), objectArrayType()),
+                        param(names.fromString("size"), treeMaker.TypeIdent(TypeTag.INT))),
+                List.nil(),
+                treeMaker.Block(0, statements),
+                null);
+    }
+
+    /**
+     * {@code this.tags$size * width + offset}
+     */
+    private JCTree.JCExpression slot(JCTree.JCVariableDecl field, int width, int offset) {
+        JCTree.JCExpression slot = thisField(sizeName(field));
+        if (width != 1) {
+            slot = treeMaker.Binary(JCTree.Tag.MUL, slot, intLiteral(width));
+        }
+        if (offset != 0) {
+            slot = treeMaker.Binary(JCTree.Tag.PLUS, slot, intLiteral(offset));
+        }
+        return slot;
+    }
+
+    /**
+     * The element types of a collection field, Object for a raw one, the bound of a wildcard
+     */
+    private List<JCTree.JCExpression> typeArgs(JCTree.JCVariableDecl field, int count) {
+        ListBuffer<JCTree.JCExpression> typeArgs = new ListBuffer<>();
+        if (field.vartype instanceof JCTree.JCTypeApply
+                && ((JCTree.JCTypeApply) field.vartype).arguments.size() == count) {
+            for (JCTree.JCExpression arg : ((JCTree.JCTypeApply) field.vartype).arguments) {
+                if (arg instanceof JCTree.JCWildcard) {
+                    JCTree.JCWildcard wildcard = (JCTree.JCWildcard) arg;
+                    typeArgs.append(wildcard.kind.kind == com.sun.tools.javac.code.BoundKind.EXTENDS
+                            ? (JCTree.JCExpression) wildcard.inner : qualifiedName("java.lang.Object"));
+                } else {
+                    typeArgs.append(arg);
+                }
+            }
+            return typeArgs.toList();
+        }
+        for (int i = 0; i < count; i++) {
+            typeArgs.append(qualifiedName("java.lang.Object"));
+        }
+        return typeArgs.toList();
+    }
+
+    Name sizeName(JCTree.JCVariableDecl field) {
+        return names.fromString(field.name.toString() + SIZE_SUFFIX);
+    }
+
+    private Name adderName(JCTree.JCVariableDecl field) {
+        return names.fromString(kindOf(field).adderPrefix + StringUtils.upperFirstChar(singularName(field).toString()));
+    }
+
+    private Name singularName(JCTree.JCVariableDecl field) {
+        String value = field.sym.getAnnotation(Singular.class).value();
+        if (!value.isEmpty()) {
+            return names.fromString(value);
+        }
+        String name = field.name.toString();
+        if (name.endsWith("ies") && name.length() > 3) {
+            return names.fromString(name.substring(0, name.length() - 3) + "y");
+        }
+        if (name.endsWith("s") && name.length() > 1) {
+            return names.fromString(name.substring(0, name.length() - 1));
+        }
+        return field.name;
+    }
+
+    private JCTree.JCExpression objectArrayType() {
+        return treeMaker.TypeArray(qualifiedName("java.lang.Object"));
+    }
+
+    private JCTree.JCExpression newObjectArray(JCTree.JCExpression length) {
+        return treeMaker.NewArray(qualifiedName("java.lang.Object"), List.of(length), null);
+    }
+
+    private JCTree.JCExpression thisField(Name name) {
+        return treeMaker.Select(treeMaker.Ident(names._this), name);
+    }
+
+    private JCTree.JCStatement assign(JCTree.JCExpression lhs, JCTree.JCExpression rhs) {
+        return treeMaker.Exec(treeMaker.Assign(lhs, rhs));
+    }
+
+    private JCTree.JCExpression call(JCTree.JCExpression target, String method, JCTree.JCExpression... args) {
+        return treeMaker.Apply(List.nil(), treeMaker.Select(target, names.fromString(method)), List.from(args));
+    }
+
+    private JCTree.JCVariableDecl param(Name name, JCTree.JCExpression type) {
+        return treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), name, type, null);
+    }
+
+    private JCTree.JCExpression intLiteral(int value) {
+        return treeMaker.Literal(TypeTag.INT, value);
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+}
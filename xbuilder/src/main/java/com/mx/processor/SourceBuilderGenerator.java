@@ -0,0 +1,415 @@
+package com.mx.processor;
+
+import com.mx.ann.Builder;
+import com.mx.ann.Canonical;
+import com.mx.ann.Default;
+import com.mx.ann.Singular;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the builder of a {@code @Builder} class as a companion source file {@code FooBuilder} through the
+ * {@link Filer}, leaving the annotated class untouched:
+ * <pre>
+ * Foo foo = FooBuilder.build(FooBuilder.builder().a(1).b(2));
+ * </pre>
+ * Each file only depends on its annotated class, which is its originating element, so the processor is isolating
+ * in this mode.
+ *
+ * @author milo
+ */
+class SourceBuilderGenerator {
+
+    static final String BUILDER_SUFFIX = "Builder";
+
+    private final Filer filer;
+    private final Elements elements;
+    private final boolean sharedPhantomTypes;
+    private final boolean metrics;
+    private final int metricsSample;
+
+    SourceBuilderGenerator(Filer filer, Elements elements, boolean sharedPhantomTypes, boolean metrics,
+                           int metricsSample) {
+        this.filer = filer;
+        this.elements = elements;
+        this.sharedPhantomTypes = sharedPhantomTypes;
+        this.metrics = metrics;
+        this.metricsSample = metricsSample;
+    }
+
+    /**
+     * @param constraints the constrained fields, checked by {@code build}
+     * @return the number of fields of the class
+     */
+    int generate(TypeElement classElement, Builder annotation,
+                 List<ValidationSupport.FieldConstraints> constraints) throws ProcessingException, IOException {
+        if (!classElement.getTypeParameters().isEmpty()) {
+            // the companion would have to declare and pass along the type params of the class
+            throw new ProcessingException(classElement, "The generic class %s is not supported with -A%s=%s",
+                    classElement.getQualifiedName().toString(), BuilderProcessor.GENERATE_OPTION,
+                    BuilderProcessor.GENERATE_SOURCE);
+        }
+        List<VariableElement> fields = ElementUtils.getInstanceFields(classElement);
+        ExecutableElement constructor = ElementUtils.getConstructor(classElement, fields.size());
+        if (constructor == null || constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new ProcessingException(classElement,
+                    "The class %s must provide a non private all args constructor to generate its builder source",
+                    classElement.getQualifiedName().toString());
+        }
+        if (annotation.toBuilder() || annotation.withers() || annotation.binding() || annotation.intern()
+                || annotation.flyweight() || annotation.concurrent()) {
+            // all need members on the annotated class itself
+            throw new ProcessingException(classElement,
+                    "toBuilder, withers, binding, intern, flyweight and concurrent of %s are not supported"
+                            + " with -A%s=%s",
+                    classElement.getQualifiedName().toString(), BuilderProcessor.GENERATE_OPTION,
+                    BuilderProcessor.GENERATE_SOURCE);
+        }
+        if (annotation.mode() == Builder.Mode.PERSISTENT) {
+            throw new ProcessingException(classElement, "Mode.PERSISTENT of %s is not supported with -A%s=%s",
+                    classElement.getQualifiedName().toString(), BuilderProcessor.GENERATE_OPTION,
+                    BuilderProcessor.GENERATE_SOURCE);
+        }
+        for (VariableElement field : fields) {
+            if (field.getAnnotation(Singular.class) != null) {
+                throw new ProcessingException(field, "@Singular field %s is not supported with -A%s=%s",
+                        field.getSimpleName().toString(), BuilderProcessor.GENERATE_OPTION,
+                        BuilderProcessor.GENERATE_SOURCE);
+            }
+        }
+        List<VariableElement> requiredFields = fields.stream()
+                .filter(field -> field.getAnnotation(Default.class) == null)
+                .collect(Collectors.toList());
+
+        PackageElement packageElement = elements.getPackageOf(classElement);
+        String packageName = packageElement.isUnnamed() ? null : packageElement.getQualifiedName().toString();
+        String builderName = builderName(classElement);
+        String source = new SourceWriter(classElement, builderName, packageName, fields, requiredFields, annotation,
+                constraints).write();
+
+        String qualifiedName = packageName == null ? builderName : packageName + "." + builderName;
+        JavaFileObject file = filer.createSourceFile(qualifiedName, classElement);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+        return fields.size();
+    }
+
+    /**
+     * {@code FooBuilder}, or {@code Outer_FooBuilder} for a nested class
+     */
+    static String builderName(TypeElement classElement) {
+        StringBuilder name = new StringBuilder(classElement.getSimpleName());
+        Element enclosing = classElement.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(BUILDER_SUFFIX).toString();
+    }
+
+    private class SourceWriter {
+        final TypeElement classElement;
+        final String builderName;
+        final String packageName;
+        final List<VariableElement> fields;
+        final List<VariableElement> requiredFields;
+        final Builder annotation;
+        final List<ValidationSupport.FieldConstraints> constraints;
+        final Builder.Mode mode;
+        final StringBuilder src = new StringBuilder();
+
+        SourceWriter(TypeElement classElement, String builderName, String packageName,
+                     List<VariableElement> fields, List<VariableElement> requiredFields, Builder annotation,
+                     List<ValidationSupport.FieldConstraints> constraints) {
+            this.classElement = classElement;
+            this.builderName = builderName;
+            this.packageName = packageName;
+            this.fields = fields;
+            this.requiredFields = requiredFields;
+            this.annotation = annotation;
+            this.constraints = constraints;
+            this.mode = annotation.mode();
+        }
+
+        String write() {
+            String className = classElement.getQualifiedName().toString();
+            if (packageName != null) {
+                src.append("package ").append(packageName).append(";\n\n");
+            }
+            src.append("/**\n * Type safe builder of {@link ").append(className).append("}, generated by xbuilder.\n */\n");
+            src.append("public final class ").append(builderName);
+            if (!requiredFields.isEmpty()) {
+                src.append(requiredFields.stream().map(this::typeParam).collect(Collectors.joining(", ", "<", ">")));
+            }
+            src.append(" {\n");
+
+            if (!sharedPhantomTypes) {
+                phantomType(BuilderProcessor.TRUE);
+                phantomType(BuilderProcessor.FALSE);
+            }
+
+            for (VariableElement field : fields) {
+                src.append("\n    private ").append(type(field)).append(' ').append(field.getSimpleName());
+                Default defaultValue = field.getAnnotation(Default.class);
+                if (defaultValue != null && !defaultValue.value().trim().isEmpty()) {
+                    src.append(" = ").append(defaultValue.value());
+                }
+                src.append(';');
+            }
+            src.append("\n\n    private ").append(builderName).append("() {\n    }\n");
+
+            // all args constructor
+            src.append("\n    private ").append(builderName).append('(')
+                    .append(fields.stream().map(field -> type(field) + " " + field.getSimpleName())
+                            .collect(Collectors.joining(", ")))
+                    .append(") {\n");
+            for (VariableElement field : fields) {
+                src.append("        this.").append(field.getSimpleName()).append(" = ")
+                        .append(field.getSimpleName()).append(";\n");
+            }
+            src.append("    }\n");
+
+            // static builder & build
+            String emptyBuilder = builderType(null, BuilderProcessor.FALSE);
+            src.append("\n    public static ").append(emptyBuilder).append(' ').append(BuilderProcessor.BUILDER_METHOD)
+                    .append("() {\n        return new ").append(emptyBuilder).append("();\n    }\n");
+            src.append("\n    public static ").append(className).append(' ').append(BuilderProcessor.BUILD_METHOD)
+                    .append('(').append(builderType(null, BuilderProcessor.TRUE)).append(" builder) {\n");
+            if (metrics) {
+                src.append(MetricsSupport.writeBegin("        "));
+            }
+            if (!constraints.isEmpty()) {
+                src.append(ValidationSupport.writeChecks(classElement.getSimpleName().toString(), constraints,
+                        "builder.", "        "));
+            }
+            String built = "new " + className + "("
+                    + fields.stream().map(this::buildValue).collect(Collectors.joining(", ")) + ")";
+            src.append(metrics ? MetricsSupport.writeEnd(className, built, "        ")
+                    : "        return " + built + ";\n").append("    }\n");
+            if (metrics) {
+                src.append(MetricsSupport.writeField(className, metricsSample));
+            }
+            if (!constraints.isEmpty()) {
+                src.append(ValidationSupport.writeMembers(constraints));
+            }
+            for (VariableElement field : fields) {
+                if (field.getAnnotation(Canonical.class) != null) {
+                    src.append(CanonicalSupport.writeCache(className, field, type(field)));
+                }
+            }
+
+            for (VariableElement field : fields) {
+                setter(field);
+            }
+            if (annotation.reusable()) {
+                reset();
+                localBuilder();
+            }
+            if (annotation.batch()) {
+                create(className);
+                buildAll(className, BatchSupport.BUILD_ALL_METHOD, false);
+                buildAll(className, BatchSupport.BUILD_ALL_PARALLEL_METHOD, true);
+                collector(className);
+            }
+            return src.append("}\n").toString();
+        }
+
+        void reset() {
+            String emptyBuilder = builderType(null, BuilderProcessor.FALSE);
+            src.append("\n    @SuppressWarnings(\"unchecked\")\n")
+                    .append("    public ").append(emptyBuilder).append(' ').append(BuilderProcessor.RESET_METHOD)
+                    .append("() {\n");
+            for (VariableElement field : fields) {
+                Default defaultValue = field.getAnnotation(Default.class);
+                src.append("        this.").append(field.getSimpleName()).append(" = ")
+                        .append(defaultValue != null && !defaultValue.value().trim().isEmpty()
+                                ? defaultValue.value() : zeroValue(field))
+                        .append(";\n");
+            }
+            src.append("        return (").append(emptyBuilder).append(") this;\n    }\n");
+        }
+
+        void localBuilder() {
+            String emptyBuilder = builderType(null, BuilderProcessor.FALSE);
+            String anyBuilder = requiredFields.isEmpty() ? builderName
+                    : builderName + requiredFields.stream().map(__ -> "?").collect(Collectors.joining(", ", "<", ">"));
+            src.append("\n    private static final java.lang.ThreadLocal<").append(anyBuilder).append("> ")
+                    .append(BuilderProcessor.LOCAL_BUILDER_FIELD).append(" = new java.lang.ThreadLocal<")
+                    .append(anyBuilder).append(">();\n");
+            src.append("\n    public static ").append(emptyBuilder).append(' ')
+                    .append(BuilderProcessor.LOCAL_BUILDER_METHOD).append("() {\n")
+                    .append("        ").append(anyBuilder).append(" builder = ")
+                    .append(BuilderProcessor.LOCAL_BUILDER_FIELD).append(".get();\n")
+                    .append("        if (builder == null) {\n")
+                    .append("            builder = new ").append(emptyBuilder).append("();\n")
+                    .append("            ").append(BuilderProcessor.LOCAL_BUILDER_FIELD).append(".set(builder);\n")
+                    .append("        }\n")
+                    .append("        return builder.").append(BuilderProcessor.RESET_METHOD).append("();\n    }\n");
+        }
+
+        /**
+         * {@code $create}, creating an instance of {@code buildAll} with the checks and canonicalization of
+         * {@code build}
+         */
+        void create(String className) {
+            src.append("\n    private static ").append(className).append(' ').append(BuilderProcessor.CREATE_METHOD)
+                    .append('(')
+                    .append(fields.stream().map(field -> type(field) + " " + field.getSimpleName())
+                            .collect(Collectors.joining(", ")))
+                    .append(") {\n");
+            if (!constraints.isEmpty()) {
+                src.append(ValidationSupport.writeChecks(classElement.getSimpleName().toString(), constraints, "",
+                        "        "));
+            }
+            src.append("        return new ").append(className).append('(')
+                    .append(fields.stream().map(field -> field.getAnnotation(Canonical.class) == null
+                            ? field.getSimpleName().toString()
+                            : CanonicalSupport.writeCanonicalize(field, field.getSimpleName().toString()))
+                            .collect(Collectors.joining(", ")))
+                    .append(");\n    }\n");
+        }
+
+        void buildAll(String className, String methodName, boolean parallel) {
+            String first = fields.get(0).getSimpleName().toString();
+            src.append("\n    public static ").append(className).append("[] ").append(methodName).append('(')
+                    .append(fields.stream().map(field -> type(field) + "[] " + field.getSimpleName())
+                            .collect(Collectors.joining(", ")))
+                    .append(") {\n")
+                    .append("        int $size = ").append(first).append(".length;\n");
+            for (VariableElement field : fields.subList(1, fields.size())) {
+                String name = field.getSimpleName().toString();
+                src.append("        if (").append(name).append(".length != $size) {\n")
+                        .append("            throw new IllegalArgumentException(\"").append(name)
+                        .append(" has \" + ").append(name).append(".length + \" values, expected \" + $size);\n")
+                        .append("        }\n");
+            }
+            // $ prefixed locals, the parameters being named like the fields
+            String create = "$result[$i] = " + BuilderProcessor.CREATE_METHOD + "("
+                    + fields.stream().map(field -> field.getSimpleName() + "[$i]").collect(Collectors.joining(", "))
+                    + ")";
+            src.append("        final ").append(className).append("[] $result = new ").append(className)
+                    .append("[$size];\n");
+            if (parallel) {
+                src.append("        java.util.stream.IntStream.range(0, $size).parallel().forEach($i -> ")
+                        .append(create).append(");\n");
+            } else {
+                src.append("        for (int $i = 0; $i < $size; $i++) {\n")
+                        .append("            ").append(create).append(";\n")
+                        .append("        }\n");
+            }
+            src.append("        return $result;\n    }\n");
+        }
+
+        void collector(String className) {
+            src.append("\n    public static java.util.stream.Collector<")
+                    .append(builderType(null, BuilderProcessor.TRUE)).append(", ?, java.util.List<")
+                    .append(className).append(">> ").append(BatchSupport.COLLECTOR_METHOD).append("() {\n")
+                    .append("        return java.util.stream.Collectors.mapping(").append(builderName).append("::")
+                    .append(BuilderProcessor.BUILD_METHOD).append(", java.util.stream.Collectors.toList());\n")
+                    .append("    }\n");
+        }
+
+        String zeroValue(VariableElement field) {
+            switch (field.asType().getKind()) {
+                case BOOLEAN:
+                    return "false";
+                case LONG:
+                    return "0L";
+                case FLOAT:
+                    return "0F";
+                case DOUBLE:
+                    return "0D";
+                case BYTE:
+                case SHORT:
+                case CHAR:
+                case INT:
+                    return "0";
+                default:
+                    return "null";
+            }
+        }
+
+        void setter(VariableElement field) {
+            boolean required = requiredFields.contains(field);
+            String returnType = builderType(required ? field : null, null);
+            String name = field.getSimpleName().toString();
+            src.append('\n');
+            if (required && mode == Builder.Mode.MUTABLE) {
+                src.append("    @SuppressWarnings(\"unchecked\")\n");
+            }
+            src.append("    public ").append(returnType).append(' ').append(name)
+                    .append('(').append(type(field)).append(' ').append(name).append(") {\n")
+                    .append("        this.").append(name).append(" = ").append(name).append(";\n");
+            if (!required) {
+                src.append("        return this;\n");
+            } else if (mode == Builder.Mode.MUTABLE) {
+                src.append("        return (").append(returnType).append(") this;\n");
+            } else {
+                src.append("        return new ").append(returnType).append('(')
+                        .append(fields.stream()
+                                .map(arg -> arg.equals(field) ? name : "this." + arg.getSimpleName())
+                                .collect(Collectors.joining(", ")))
+                        .append(");\n");
+            }
+            src.append("    }\n");
+        }
+
+        void phantomType(String name) {
+            src.append("\n    public static abstract class ").append(name).append(" {\n")
+                    .append("        private ").append(name).append("() {\n        }\n    }\n");
+        }
+
+        /**
+         * {@code FooBuilder<...>} with TRUE for the set field, or every type arg set to {@code phantomType}
+         */
+        String builderType(VariableElement setField, String phantomType) {
+            if (requiredFields.isEmpty()) {
+                return builderName;
+            }
+            return builderName + requiredFields.stream()
+                    .map(field -> {
+                        if (phantomType != null) {
+                            return phantomTypeRef(phantomType);
+                        }
+                        return field.equals(setField) ? phantomTypeRef(BuilderProcessor.TRUE) : typeParam(field);
+                    })
+                    .collect(Collectors.joining(", ", "<", ">"));
+        }
+
+        String phantomTypeRef(String name) {
+            return sharedPhantomTypes ? BuilderProcessor.PHANTOM_PACKAGE + "." + name : name;
+        }
+
+        String typeParam(VariableElement field) {
+            return BuilderProcessor.TYPE_PREFIX + field.getSimpleName().toString().toUpperCase();
+        }
+
+        /**
+         * {@code builder.a}, canonicalized for a {@link Canonical} field
+         */
+        String buildValue(VariableElement field) {
+            String value = "builder." + field.getSimpleName();
+            return field.getAnnotation(Canonical.class) == null ? value
+                    : CanonicalSupport.writeCanonicalize(field, value);
+        }
+
+        String type(VariableElement field) {
+            return field.asType().toString();
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package com.mx.processor;
+
+import com.mx.ann.NotNull;
+import com.mx.ann.Pattern;
+import com.mx.ann.Range;
+import com.mx.ann.Singular;
+import com.mx.ann.Size;
+import com.mx.exception.ProcessingException;
+import com.mx.utils.ElementUtils;
+import com.mx.utils.JCTreeUtils;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the {@link NotNull}, {@link Range}, {@link Size} and {@link Pattern} constraints of a class into
+ * straight-line checks run by {@code build} before calling the constructor:
+ * <pre>
+ * String violations = null;
+ * if (builder.name == null) violations = Foo.$violation(violations, "name must not be null");
+ * if (builder.age &lt; 0L || builder.age &gt; 150L) violations = Foo.$violation(violations, "age must be ...");
+ * if (builder.code != null &amp;&amp; !code$matcher.get().reset(builder.code).matches()) ...
+ * if (violations != null) throw new IllegalArgumentException("Invalid Foo: " + violations);
+ * </pre>
+ * Messages are constants, and patterns are compiled once into a static {@code code$pattern} matched through a
+ * per-thread {@code code$matcher}, so a valid instance costs no allocation. The same checks are written as
+ * source by {@link SourceBuilderGenerator}.
+ *
+ * @author milo
+ */
+class ValidationSupport {
+
+    static final String VIOLATIONS = "$violations";
+    static final String VIOLATION_METHOD = "$violation";
+    static final String PATTERN_SUFFIX = "$pattern";
+    static final String MATCHER_SUFFIX = "$matcher";
+
+    enum SizeOf {
+        /**
+         * {@code value.length()} of a CharSequence
+         */
+        LENGTH,
+        /**
+         * {@code value.size()} of a Collection or Map
+         */
+        SIZE,
+        /**
+         * {@code value.length} of an array
+         */
+        ARRAY_LENGTH
+    }
+
+    /**
+     * The constraints of one field
+     */
+    static final class FieldConstraints {
+        final String field;
+        final boolean reference;
+        final boolean singular;
+        final boolean notNull;
+        final Range range;
+        final Size size;
+        final SizeOf sizeOf;
+        final String regexp;
+
+        FieldConstraints(String field, boolean reference, boolean singular, boolean notNull, Range range, Size size,
+                         SizeOf sizeOf, String regexp) {
+            this.field = field;
+            this.reference = reference;
+            this.singular = singular;
+            this.notNull = notNull;
+            this.range = range;
+            this.size = size;
+            this.sizeOf = sizeOf;
+            this.regexp = regexp;
+        }
+
+        boolean hasMin() {
+            return range.min() != Long.MIN_VALUE;
+        }
+
+        boolean hasMax() {
+            return range.max() != Long.MAX_VALUE;
+        }
+
+        boolean hasMinSize() {
+            return size.min() > 0;
+        }
+
+        boolean hasMaxSize() {
+            return size.max() != Integer.MAX_VALUE;
+        }
+
+        String notNullMessage() {
+            return field + " must not be null";
+        }
+
+        String rangeMessage() {
+            return bounds(field, hasMin(), range.min(), hasMax(), range.max());
+        }
+
+        String sizeMessage() {
+            return bounds(field + " size", hasMinSize(), size.min(), hasMaxSize(), size.max());
+        }
+
+        String patternMessage() {
+            return field + " must match " + regexp;
+        }
+
+        private static String bounds(String subject, boolean hasMin, long min, boolean hasMax, long max) {
+            if (hasMin && hasMax) {
+                return subject + " must be between " + min + " and " + max;
+            }
+            return hasMin ? subject + " must be at least " + min : subject + " must be at most " + max;
+        }
+    }
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final Types types;
+    private final Elements elements;
+
+    ValidationSupport(TreeMaker treeMaker, Names names, Types types, Elements elements) {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.types = types;
+        this.elements = elements;
+    }
+
+    /**
+     * The constrained fields of a class, in field order, failing on a constraint that doesn't fit its field type
+     */
+    java.util.List<FieldConstraints> getConstraints(TypeElement classElement) throws ProcessingException {
+        java.util.List<FieldConstraints> constraints = new ArrayList<>();
+        for (VariableElement field : ElementUtils.getInstanceFields(classElement)) {
+            NotNull notNull = field.getAnnotation(NotNull.class);
+            Range range = field.getAnnotation(Range.class);
+            Size size = field.getAnnotation(Size.class);
+            Pattern pattern = field.getAnnotation(Pattern.class);
+            if (notNull == null && range == null && size == null && pattern == null) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            TypeMirror type = field.asType();
+            boolean reference = !type.getKind().isPrimitive();
+            boolean singular = field.getAnnotation(Singular.class) != null;
+            if (notNull != null && !reference) {
+                throw new ProcessingException(field, "@NotNull field %s can't be primitive", name);
+            }
+            if (range != null) {
+                if (!isNumeric(type)) {
+                    throw new ProcessingException(field, "@Range field %s must be a primitive or boxed number", name);
+                }
+                if (range.min() > range.max()) {
+                    throw new ProcessingException(field, "@Range of %s has min > max", name);
+                }
+            }
+            SizeOf sizeOf = null;
+            if (size != null) {
+                sizeOf = sizeOf(type);
+                if (sizeOf == null) {
+                    throw new ProcessingException(field,
+                            "@Size field %s must be a CharSequence, Collection, Map or array", name);
+                }
+                if (size.min() > size.max()) {
+                    throw new ProcessingException(field, "@Size of %s has min > max", name);
+                }
+                // the builder counts the adds, which duplicates don't grow a Set or Map by
+                if (singular && (isSubtype(type, "java.util.Set") || isSubtype(type, "java.util.Map"))) {
+                    throw new ProcessingException(field,
+                            "@Size of @Singular field %s is only supported on a List or Collection", name);
+                }
+            }
+            String regexp = null;
+            if (pattern != null) {
+                if (!isSubtype(type, "java.lang.CharSequence")) {
+                    throw new ProcessingException(field, "@Pattern field %s must be a CharSequence", name);
+                }
+                try {
+                    java.util.regex.Pattern.compile(pattern.value());
+                } catch (PatternSyntaxException e) {
+                    throw new ProcessingException(field, "@Pattern of %s is invalid: %s", name, e.getDescription());
+                }
+                regexp = pattern.value();
+            }
+            constraints.add(new FieldConstraints(name, reference, singular, notNull != null, range, size, sizeOf,
+                    regexp));
+        }
+        return constraints;
+    }
+
+    private boolean isNumeric(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind.isPrimitive()) {
+            return kind != TypeKind.BOOLEAN;
+        }
+        if (kind != TypeKind.DECLARED) {
+            return false;
+        }
+        try {
+            kind = types.unboxedType(type).getKind();
+            return kind != TypeKind.BOOLEAN;
+        } catch (IllegalArgumentException e) {
+            // not a box
+            return false;
+        }
+    }
+
+    private SizeOf sizeOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return SizeOf.ARRAY_LENGTH;
+        }
+        if (isSubtype(type, "java.lang.CharSequence")) {
+            return SizeOf.LENGTH;
+        }
+        if (isSubtype(type, "java.util.Collection") || isSubtype(type, "java.util.Map")) {
+            return SizeOf.SIZE;
+        }
+        return null;
+    }
+
+    private boolean isSubtype(TypeMirror type, String className) {
+        TypeElement typeElement = elements.getTypeElement(className);
+        return type.getKind() == TypeKind.DECLARED
+                && types.isSubtype(types.erasure(type), types.erasure(typeElement.asType()));
+    }
+
+    // --- trees ---
+
+    /**
+     * The checks, ending with the throw if there is any violation
+     *
+     * @param value         the value of a field, e.g. {@code builder.name}
+     * @param singularSizes a singular field is stored as an array and a {@code field$size}, as in the Builder
+     */
+    List<JCTree.JCStatement> createChecks(Name className,
+                                          java.util.List<FieldConstraints> constraints,
+                                          Function<Name, JCTree.JCExpression> value,
+                                          boolean singularSizes) {
+        Name violations = names.fromString(VIOLATIONS);
+        ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        // String violations = null;
+        statements.append(treeMaker.VarDef(treeMaker.Modifiers(0), violations, qualifiedName("java.lang.String"),
+                treeMaker.Literal(TypeTag.BOT, null)));
+        for (FieldConstraints constraint : constraints) {
+            Name field = names.fromString(constraint.field);
+            boolean storedAsArray = constraint.singular && singularSizes;
+            if (constraint.notNull && !storedAsArray) {
+                statements.append(violationIf(className, violations,
+                        treeMaker.Binary(JCTree.Tag.EQ, value.apply(field), treeMaker.Literal(TypeTag.BOT, null)),
+                        constraint.notNullMessage()));
+            }
+            if (constraint.range != null) {
+                JCTree.JCExpression outOfRange = outOfBounds(() -> value.apply(field),
+                        constraint.hasMin(), constraint.range.min(), constraint.hasMax(), constraint.range.max());
+                if (outOfRange != null) {
+                    statements.append(violationIf(className, violations,
+                            nullSafe(constraint.reference, value.apply(field), outOfRange), constraint.rangeMessage()));
+                }
+            }
+            if (constraint.size != null) {
+                java.util.function.Supplier<JCTree.JCExpression> size = storedAsArray
+                        ? () -> value.apply(names.fromString(constraint.field + SingularSupport.SIZE_SUFFIX))
+                        : () -> sizeOf(constraint.sizeOf, value.apply(field));
+                JCTree.JCExpression outOfSize = outOfBounds(size,
+                        constraint.hasMinSize(), constraint.size.min(), constraint.hasMaxSize(), constraint.size.max());
+                if (outOfSize != null) {
+                    statements.append(violationIf(className, violations,
+                            nullSafe(!storedAsArray, value.apply(field), outOfSize), constraint.sizeMessage()));
+                }
+            }
+            if (constraint.regexp != null) {
+                // !code$matcher.get().reset(value).matches()
+                JCTree.JCExpression matcher = treeMaker.Apply(List.nil(), treeMaker.Select(
+                        treeMaker.Ident(names.fromString(constraint.field + MATCHER_SUFFIX)), names.fromString("get")),
+                        List.nil());
+                JCTree.JCExpression reset = treeMaker.Apply(List.nil(),
+                        treeMaker.Select(matcher, names.fromString("reset")), List.of(value.apply(field)));
+                JCTree.JCExpression mismatch = treeMaker.Unary(JCTree.Tag.NOT, treeMaker.Apply(List.nil(),
+                        treeMaker.Select(reset, names.fromString("matches")), List.nil()));
+                statements.append(violationIf(className, violations,
+                        nullSafe(true, value.apply(field), mismatch), constraint.patternMessage()));
+            }
+        }
+        // if (violations != null) throw new IllegalArgumentException("Invalid Foo: " + violations);
+        statements.append(treeMaker.If(
+                treeMaker.Binary(JCTree.Tag.NE, treeMaker.Ident(violations), treeMaker.Literal(TypeTag.BOT, null)),
+                treeMaker.Throw(treeMaker.NewClass(null, List.nil(),
+                        qualifiedName("java.lang.IllegalArgumentException"),
+                        List.of(treeMaker.Binary(JCTree.Tag.PLUS, treeMaker.Literal("Invalid " + className + ": "),
+                                treeMaker.Ident(violations))),
+                        null)),
+                null));
+        return statements.toList();
+    }
+
+    /**
+     * The pattern and matcher constants and {@code $violation}, to add to the class holding {@code build}
+     */
+    List<JCTree> createMembers(java.util.List<FieldConstraints> constraints) {
+        ListBuffer<JCTree> members = new ListBuffer<>();
+        for (FieldConstraints constraint : constraints) {
+            if (constraint.regexp == null) {
+                continue;
+            }
+            Name pattern = names.fromString(constraint.field + PATTERN_SUFFIX);
+            // private static final Pattern code$pattern = Pattern.compile("...");
+            members.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                    pattern, qualifiedName("java.util.regex.Pattern"),
+                    treeMaker.Apply(List.nil(), qualifiedName("java.util.regex.Pattern.compile"),
+                            List.of(treeMaker.Literal(constraint.regexp)))));
+            // private static final ThreadLocal<Matcher> code$matcher = ThreadLocal.withInitial(() -> code$pattern.matcher(""));
+            members.append(treeMaker.VarDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC + Flags.FINAL),
+                    names.fromString(constraint.field + MATCHER_SUFFIX),
+                    treeMaker.TypeApply(qualifiedName("java.lang.ThreadLocal"),
+                            List.of(qualifiedName("java.util.regex.Matcher"))),
+                    treeMaker.Apply(List.nil(), qualifiedName("java.lang.ThreadLocal.withInitial"),
+                            List.of(treeMaker.Lambda(List.nil(), treeMaker.Apply(List.nil(),
+                                    treeMaker.Select(treeMaker.Ident(pattern), names.fromString("matcher")),
+                                    List.of(treeMaker.Literal(""))))))));
+        }
+        members.append(createViolationMethod());
+        return members.toList();
+    }
+
+    /**
+     * <pre>
+     * private static String $violation(String violations, String violation) {
+     *     return violations == null ? violation : violations + ", " + violation;
+     * }
+     * </pre>
+     */
+    private JCTree.JCMethodDecl createViolationMethod() {
+        Name violations = names.fromString(VIOLATIONS);
+        Name violation = names.fromString("violation");
+        return treeMaker.MethodDef(treeMaker.Modifiers(Flags.PRIVATE + Flags.STATIC),
+                names.fromString(VIOLATION_METHOD), qualifiedName("java.lang.String"), List.nil(),
+                List.of(treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), violations,
+                                qualifiedName("java.lang.String"), null),
+                        treeMaker.VarDef(treeMaker.Modifiers(Flags.PARAMETER), violation,
+                                qualifiedName("java.lang.String"), null)),
+                List.nil(),
+                treeMaker.Block(0, List.of(treeMaker.Return(treeMaker.Conditional(
+                        treeMaker.Binary(JCTree.Tag.EQ, treeMaker.Ident(violations),
+                                treeMaker.Literal(TypeTag.BOT, null)),
+                        treeMaker.Ident(violation),
+                        treeMaker.Binary(JCTree.Tag.PLUS,
+                                treeMaker.Binary(JCTree.Tag.PLUS, treeMaker.Ident(violations), treeMaker.Literal(", ")),
+                                treeMaker.Ident(violation)))))),
+                null);
+    }
+
+    /**
+     * {@code if (condition) violations = Foo.$violation(violations, "message");}
+     */
+    private JCTree.JCStatement violationIf(Name className, Name violations, JCTree.JCExpression condition,
+                                           String message) {
+        return treeMaker.If(condition,
+                treeMaker.Exec(treeMaker.Assign(treeMaker.Ident(violations), treeMaker.Apply(List.nil(),
+                        treeMaker.Select(treeMaker.Ident(className), names.fromString(VIOLATION_METHOD)),
+                        List.of(treeMaker.Ident(violations), treeMaker.Literal(message))))),
+                null);
+    }
+
+    /**
+     * {@code value < min || value > max}, either side left out when unbounded, null if both are
+     */
+    private JCTree.JCExpression outOfBounds(java.util.function.Supplier<JCTree.JCExpression> value,
+                                            boolean hasMin, long min, boolean hasMax, long max) {
+        JCTree.JCExpression below = hasMin
+                ? treeMaker.Binary(JCTree.Tag.LT, value.get(), treeMaker.Literal(TypeTag.LONG, min)) : null;
+        JCTree.JCExpression above = hasMax
+                ? treeMaker.Binary(JCTree.Tag.GT, value.get(), treeMaker.Literal(TypeTag.LONG, max)) : null;
+        if (below != null && above != null) {
+            return treeMaker.Binary(JCTree.Tag.OR, below, above);
+        }
+        return below != null ? below : above;
+    }
+
+    /**
+     * {@code value != null && (condition)} for a reference
+     */
+    private JCTree.JCExpression nullSafe(boolean reference, JCTree.JCExpression value, JCTree.JCExpression condition) {
+        if (!reference) {
+            return condition;
+        }
+        return treeMaker.Binary(JCTree.Tag.AND,
+                treeMaker.Binary(JCTree.Tag.NE, value, treeMaker.Literal(TypeTag.BOT, null)),
+                treeMaker.Parens(condition));
+    }
+
+    private JCTree.JCExpression sizeOf(SizeOf sizeOf, JCTree.JCExpression value) {
+        switch (sizeOf) {
+            case ARRAY_LENGTH:
+                return treeMaker.Select(value, names.fromString("length"));
+            case LENGTH:
+                return treeMaker.Apply(List.nil(), treeMaker.Select(value, names.fromString("length")), List.nil());
+            default:
+                return treeMaker.Apply(List.nil(), treeMaker.Select(value, names.fromString("size")), List.nil());
+        }
+    }
+
+    private JCTree.JCExpression qualifiedName(String name) {
+        return JCTreeUtils.qualifiedName(treeMaker, names, name);
+    }
+
+    // --- source ---
+
+    /**
+     * The same checks as {@link #createChecks}, as source
+     *
+     * @param owner what the values are read from, {@code "builder."}, or {@code ""} for parameters
+     */
+    static String writeChecks(String className, java.util.List<FieldConstraints> constraints, String owner,
+                              String indent) {
+        StringBuilder src = new StringBuilder();
+        src.append(indent).append("String ").append(VIOLATIONS).append(" = null;\n");
+        for (FieldConstraints constraint : constraints) {
+            String value = owner + constraint.field;
+            if (constraint.notNull) {
+                writeViolationIf(src, indent, value + " == null", constraint.notNullMessage());
+            }
+            if (constraint.range != null && (constraint.hasMin() || constraint.hasMax())) {
+                String outOfRange = outOfBounds(value, constraint.hasMin(), constraint.range.min(),
+                        constraint.hasMax(), constraint.range.max());
+                writeViolationIf(src, indent, nullSafe(constraint.reference, value, outOfRange),
+                        constraint.rangeMessage());
+            }
+            if (constraint.size != null && (constraint.hasMinSize() || constraint.hasMaxSize())) {
+                String size = value + (constraint.sizeOf == SizeOf.ARRAY_LENGTH ? ".length"
+                        : constraint.sizeOf == SizeOf.LENGTH ? ".length()" : ".size()");
+                String outOfSize = outOfBounds(size, constraint.hasMinSize(), constraint.size.min(),
+                        constraint.hasMaxSize(), constraint.size.max());
+                writeViolationIf(src, indent, nullSafe(true, value, outOfSize), constraint.sizeMessage());
+            }
+            if (constraint.regexp != null) {
+                writeViolationIf(src, indent, nullSafe(true, value, "!" + constraint.field + MATCHER_SUFFIX
+                        + ".get().reset(" + value + ").matches()"), constraint.patternMessage());
+            }
+        }
+        src.append(indent).append("if (").append(VIOLATIONS).append(" != null) {\n")
+                .append(indent).append("    throw new IllegalArgumentException(")
+                .append(javaString("Invalid " + className + ": ")).append(" + ").append(VIOLATIONS).append(");\n")
+                .append(indent).append("}\n");
+        return src.toString();
+    }
+
+    /**
+     * The same members as {@link #createMembers}, as source
+     */
+    static String writeMembers(java.util.List<FieldConstraints> constraints) {
+        StringBuilder src = new StringBuilder();
+        for (FieldConstraints constraint : constraints) {
+            if (constraint.regexp == null) {
+                continue;
+            }
+            String pattern = constraint.field + PATTERN_SUFFIX;
+            src.append("\n    private static final java.util.regex.Pattern ").append(pattern)
+                    .append(" = java.util.regex.Pattern.compile(").append(javaString(constraint.regexp)).append(");\n")
+                    .append("    private static final java.lang.ThreadLocal<java.util.regex.Matcher> ")
+                    .append(constraint.field).append(MATCHER_SUFFIX)
+                    .append(" = java.lang.ThreadLocal.withInitial(() -> ").append(pattern)
+                    .append(".matcher(\"\"));\n");
+        }
+        src.append("\n    private static String ").append(VIOLATION_METHOD)
+                .append("(String violations, String violation) {\n")
+                .append("        return violations == null ? violation : violations + \", \" + violation;\n")
+                .append("    }\n");
+        return src.toString();
+    }
+
+    private static void writeViolationIf(StringBuilder src, String indent, String condition, String message) {
+        src.append(indent).append("if (").append(condition).append(") {\n")
+                .append(indent).append("    ").append(VIOLATIONS).append(" = ").append(VIOLATION_METHOD)
+                .append('(').append(VIOLATIONS).append(", ").append(javaString(message)).append(");\n")
+                .append(indent).append("}\n");
+    }
+
+    private static String outOfBounds(String value, boolean hasMin, long min, boolean hasMax, long max) {
+        String below = value + " < " + min + "L";
+        String above = value + " > " + max + "L";
+        if (hasMin && hasMax) {
+            return below + " || " + above;
+        }
+        return hasMin ? below : above;
+    }
+
+    private static String nullSafe(boolean reference, String value, String condition) {
+        return reference ? value + " != null && (" + condition + ")" : condition;
+    }
+
+    /**
+     * {@code value} as a Java string literal
+     */
+    static String javaString(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
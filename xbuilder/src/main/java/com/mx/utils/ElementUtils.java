@@ -60,6 +60,22 @@ public final class ElementUtils {
                 .collect(Collectors.toList());
     }
 
+    public static List<VariableElement> getInstanceFields(Element classElement) {
+        return getFields(classElement).stream()
+                .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+                .collect(Collectors.toList());
+    }
+
+    public static ExecutableElement getConstructor(TypeElement classElement, int paramNum) {
+        for (Element enclosed : classElement.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.CONSTRUCTOR
+                    && ((ExecutableElement) enclosed).getParameters().size() == paramNum) {
+                return (ExecutableElement) enclosed;
+            }
+        }
+        return null;
+    }
+
     public static boolean isClass(Element element) {
         return element.getKind() == ElementKind.CLASS;
     }
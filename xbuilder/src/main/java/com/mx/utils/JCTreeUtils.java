@@ -0,0 +1,42 @@
+package com.mx.utils;
+
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+/**
+ * @author milo
+ */
+public final class JCTreeUtils {
+
+    /**
+     * {@code java.util.List} as a chain of field accesses
+     */
+    public static JCTree.JCExpression qualifiedName(TreeMaker treeMaker, Names names, String qualifiedName) {
+        return qualifiedName(treeMaker, names(names, qualifiedName));
+    }
+
+    /**
+     * A chain of field accesses over names interned beforehand, see {@link #names(Names, String)}
+     */
+    public static JCTree.JCExpression qualifiedName(TreeMaker treeMaker, Name[] parts) {
+        JCTree.JCExpression expression = treeMaker.Ident(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            expression = treeMaker.Select(expression, parts[i]);
+        }
+        return expression;
+    }
+
+    /**
+     * The interned names of the parts of {@code java.util.List}
+     */
+    public static Name[] names(Names names, String qualifiedName) {
+        String[] parts = qualifiedName.split("\\.");
+        Name[] result = new Name[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = names.fromString(parts[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mx.utils;
+
+/**
+ * @author milo
+ */
+public final class StringUtils {
+
+    public static String upperFirstChar(String name) {
+        if (name.length() < 1) {
+            return name;
+        }
+        String firstChar = name.substring(0, 1).toUpperCase();
+        if (name.length() > 1) {
+            return firstChar + name.substring(1);
+        }
+        return firstChar;
+    }
+
+    /**
+     * {@code firstName} to {@code FIRST_NAME}
+     */
+    public static String upperSnakeCase(String name) {
+        StringBuilder constant = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))) {
+                constant.append('_');
+            }
+            constant.append(Character.toUpperCase(c));
+        }
+        return constant.toString();
+    }
+}
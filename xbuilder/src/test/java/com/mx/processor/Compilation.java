@@ -0,0 +1,142 @@
+package com.mx.processor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles sources with {@link BuilderProcessor} through javax.tools, then loads the classes:
+ * <pre>
+ * Compilation compilation = new Compilation(dir)
+ *         .source("p.User", "package p; ...")
+ *         .compile("-Axbuilder.rewrite=true");
+ * Object value = compilation.call("p.Main", "run");
+ * </pre>
+ *
+ * @author milo
+ */
+final class Compilation {
+
+    private static final Pattern REWROTE = Pattern.compile("@Builder rewrote (\\d+) builder chains");
+    private static final Pattern KEPT = Pattern.compile("kept (\\d+) for their evaluation order");
+
+    private final File dir;
+    private final Map<String, String> sources = new LinkedHashMap<>();
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    private boolean success;
+    private ClassLoader classLoader;
+
+    Compilation(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @param className the qualified name of the top level class of {@code source}
+     */
+    Compilation source(String className, String source) {
+        sources.put(className, source);
+        return this;
+    }
+
+    Compilation compile(String... options) throws IOException {
+        File sourceDir = new File(dir, "src");
+        File classDir = new File(dir, "classes");
+        if (!classDir.mkdirs()) {
+            throw new IOException("Can't create " + classDir);
+        }
+        List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            File file = new File(sourceDir, source.getKey().replace('.', File.separatorChar) + ".java");
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), source.getValue().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", BuilderProcessor.class.getName(),
+                "-d", classDir.getPath()));
+        args.addAll(Arrays.asList(options));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            success = compiler.getTask(null, fileManager, diagnostics, args, null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+        if (success) {
+            classLoader = new URLClassLoader(new URL[]{classDir.toURI().toURL()}, getClass().getClassLoader());
+        }
+        return this;
+    }
+
+    boolean succeeded() {
+        return success;
+    }
+
+    /**
+     * The errors and warnings, one per line
+     */
+    String problems() {
+        StringBuilder problems = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.NOTE) {
+                problems.append(diagnostic).append('\n');
+            }
+        }
+        return problems.toString();
+    }
+
+    /**
+     * The call sites rewritten under {@code -Axbuilder.rewrite=true}
+     */
+    int rewrittenSites() {
+        return sumNotes(REWROTE);
+    }
+
+    /**
+     * The complete chains kept for their evaluation order
+     */
+    int keptSites() {
+        return sumNotes(KEPT);
+    }
+
+    private int sumNotes(Pattern pattern) {
+        int sum = 0;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            Matcher matcher = pattern.matcher(diagnostic.getMessage(null));
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE && matcher.find()) {
+                sum += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return sum;
+    }
+
+    Class<?> load(String className) throws ClassNotFoundException {
+        if (classLoader == null) {
+            throw new IllegalStateException("Compilation failed:\n" + problems());
+        }
+        return Class.forName(className, true, classLoader);
+    }
+
+    /**
+     * Calls the static no args {@code method} of {@code className}
+     */
+    Object call(String className, String method) throws ReflectiveOperationException {
+        return load(className).getMethod(method).invoke(null);
+    }
+}
@@ -0,0 +1,221 @@
+package com.mx.processor;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Races the setters of a {@code @Builder(concurrent = true)} class against each other and against {@code fail},
+ * checking the claim, written and DONE protocol of its ConcurrentBuilder: a field is set once, the future
+ * completes once, and a set that returns normally is never lost.
+ *
+ * @author milo
+ */
+public class ConcurrentSupportTest {
+
+    private static final int ROUNDS = 2000;
+    private static final int THREADS = 4;
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static ExecutorService executor;
+    private static Method concurrentBuilder;
+    private static Method id;
+    private static Method note;
+    private static Method retries;
+    private static Method future;
+    private static Method failMethod;
+
+    @BeforeClass
+    public static void compile() throws Exception {
+        Compilation compilation = new Compilation(folder.getRoot())
+                .source("p.Order", "package p;\n"
+                        + "@com.mx.ann.Builder(concurrent = true)\n"
+                        + "public class Order {\n"
+                        + "    private final long id;\n"
+                        + "    private final String note;\n"
+                        + "    @com.mx.ann.Default(\"0\")\n"
+                        + "    private final int retries;\n"
+                        + "    public Order(long id, String note, int retries) {\n"
+                        + "        this.id = id;\n"
+                        + "        this.note = note;\n"
+                        + "        this.retries = retries;\n"
+                        + "    }\n"
+                        + "    public String toString() {\n"
+                        + "        return id + \"/\" + note + \"/\" + retries;\n"
+                        + "    }\n"
+                        + "}\n")
+                .compile();
+        assertTrue(compilation.problems(), compilation.succeeded());
+        Class<?> builderClass = compilation.load("p.Order$" + ConcurrentSupport.CONCURRENT_CLASS);
+        concurrentBuilder = compilation.load("p.Order").getMethod(ConcurrentSupport.CONCURRENT_METHOD);
+        id = builderClass.getMethod("id", long.class);
+        note = builderClass.getMethod("note", String.class);
+        retries = builderClass.getMethod("retries", int.class);
+        future = builderClass.getMethod("future");
+        failMethod = builderClass.getMethod("fail", Throwable.class);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Object invoke(Method method, Object builder, Object... args) throws Exception {
+        try {
+            return method.invoke(builder, args);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static CompletableFuture<?> futureOf(Object builder) throws Exception {
+        return (CompletableFuture<?>) invoke(future, builder);
+    }
+
+    /**
+     * Runs the tasks at once on the pool
+     *
+     * @return per task, its result, or the exception it threw
+     */
+    private static List<Object> race(List<Callable<Object>> tasks) throws InterruptedException {
+        CyclicBarrier start = new CyclicBarrier(tasks.size());
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<Object> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> outcome : futures) {
+            try {
+                outcomes.add(outcome.get());
+            } catch (ExecutionException e) {
+                outcomes.add(e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    @Test
+    public void racingSettersOfOneFieldClaimItOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Object builder = concurrentBuilder.invoke(null);
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (long value = 1; value <= THREADS; value++) {
+                long setValue = value;
+                tasks.add(() -> {
+                    invoke(id, builder, setValue);
+                    return setValue;
+                });
+            }
+            long winner = 0;
+            for (Object outcome : race(tasks)) {
+                if (outcome instanceof Long) {
+                    assertEquals("a single setter wins", 0, winner);
+                    winner = (Long) outcome;
+                } else {
+                    assertTrue(String.valueOf(outcome), outcome instanceof IllegalStateException
+                            && ((IllegalStateException) outcome).getMessage().contains("already set"));
+                }
+            }
+            assertTrue("a setter wins", winner != 0);
+            assertTrue(!futureOf(builder).isDone());
+
+            invoke(note, builder, "n");
+            assertEquals(winner + "/n/0", futureOf(builder).getNow(null).toString());
+        }
+    }
+
+    @Test
+    public void lateOptionalSetAfterCompletionThrows() throws Exception {
+        Object builder = concurrentBuilder.invoke(null);
+        invoke(id, builder, 1L);
+        invoke(note, builder, "n");
+        try {
+            invoke(retries, builder, 3);
+            fail("set after completion");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("already built"));
+        }
+        assertEquals("1/n/0", futureOf(builder).getNow(null).toString());
+    }
+
+    @Test
+    public void optionalSetRacingCompletionIsNeverLost() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Object builder = concurrentBuilder.invoke(null);
+            invoke(id, builder, 1L);
+            List<Callable<Object>> tasks = new ArrayList<>();
+            tasks.add(() -> invoke(note, builder, "n"));
+            tasks.add(() -> invoke(retries, builder, 7));
+            List<Object> outcomes = race(tasks);
+
+            assertSame(builder, outcomes.get(0));
+            CompletableFuture<?> completed = futureOf(builder);
+            assertTrue(completed.isDone());
+            if (outcomes.get(1) == builder) {
+                // claimed before the completion, which then waited for it
+                assertEquals("1/n/7", completed.getNow(null).toString());
+            } else {
+                assertTrue(String.valueOf(outcomes.get(1)), outcomes.get(1) instanceof IllegalStateException);
+                assertEquals("1/n/0", completed.getNow(null).toString());
+            }
+        }
+    }
+
+    @Test
+    public void failRacingCompletingWriteCompletesOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Object builder = concurrentBuilder.invoke(null);
+            invoke(id, builder, 1L);
+            RuntimeException cause = new RuntimeException("cancelled");
+            List<Callable<Object>> tasks = new ArrayList<>();
+            tasks.add(() -> invoke(failMethod, builder, cause));
+            tasks.add(() -> invoke(note, builder, "n"));
+            List<Object> outcomes = race(tasks);
+
+            CompletableFuture<?> completed = futureOf(builder);
+            assertTrue(completed.isDone());
+            if (Boolean.TRUE.equals(outcomes.get(0))) {
+                // the write either came too late, or was claimed before fail and never completes
+                assertTrue(completed.isCompletedExceptionally());
+                try {
+                    completed.join();
+                    fail("completed normally after fail");
+                } catch (CompletionException e) {
+                    assertSame(cause, e.getCause());
+                }
+                assertTrue(String.valueOf(outcomes.get(1)),
+                        outcomes.get(1) == builder || outcomes.get(1) instanceof IllegalStateException);
+            } else {
+                assertEquals(Boolean.FALSE, outcomes.get(0));
+                assertSame(builder, outcomes.get(1));
+                assertEquals("1/n/0", completed.getNow(null).toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.mx.processor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles builder chains under {@code -Axbuilder.rewrite=true}, then checks which ones were rewritten and that
+ * they still build the same instances.
+ *
+ * @author milo
+ */
+public class RewriteSupportTest {
+
+    private static final String REWRITE = "-A" + BuilderProcessor.REWRITE_OPTION + "=true";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A {@code @Builder} class {@code pkg.name} of two String fields, printed as {@code pkg:a/b}
+     *
+     * @param constructor the modifier of the all args constructor
+     */
+    private static String builderClass(String pkg, String name, String constructor) {
+        return "package " + pkg + ";\n"
+                + "@com.mx.ann.Builder\n"
+                + "public class " + name + " {\n"
+                + "    private final String a;\n"
+                + "    private final String b;\n"
+                + "    " + constructor + " " + name + "(String a, String b) {\n"
+                + "        this.a = a;\n"
+                + "        this.b = b;\n"
+                + "    }\n"
+                + "    public String toString() {\n"
+                + "        return \"" + pkg + ":\" + a + \"/\" + b;\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    /**
+     * {@code pkg.Main} whose static {@code run()} returns {@code body}
+     */
+    private static String main(String pkg, String imports, String members, String body) {
+        return "package " + pkg + ";\n"
+                + imports
+                + "public class Main {\n"
+                + members
+                + "    public static Object run() {\n"
+                + "        " + body + "\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    private Compilation compile(Compilation compilation) throws IOException {
+        compilation.compile(REWRITE);
+        assertTrue(compilation.problems(), compilation.succeeded());
+        return compilation;
+    }
+
+    @Test
+    public void rewritesChainInOrder() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("p.Item", builderClass("p", "Item", "public"))
+                .source("p.Main", main("p", "", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));")));
+
+        assertEquals(1, compilation.rewrittenSites());
+        assertEquals("p:x/y", compilation.call("p.Main", "run").toString());
+    }
+
+    @Test
+    public void rewritesReorderedChainOfPlainArgs() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("p.Item", builderClass("p", "Item", "public"))
+                .source("p.Main", main("p", "", "",
+                        "String x = \"x\"; return Item.build(Item.builder().b(x + \"y\").a(x));")));
+
+        assertEquals(1, compilation.rewrittenSites());
+        assertEquals(0, compilation.keptSites());
+        assertEquals("p:x/xy", compilation.call("p.Main", "run").toString());
+    }
+
+    @Test
+    public void keepsReorderedChainWithSideEffects() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("p.Item", builderClass("p", "Item", "public"))
+                .source("p.Main", main("p", "",
+                        "    static int count;\n"
+                                + "    static String next() { return String.valueOf(++count); }\n",
+                        "return Item.build(Item.builder().b(next()).a(next()));")));
+
+        assertEquals(0, compilation.rewrittenSites());
+        assertEquals(1, compilation.keptSites());
+        // b is still evaluated first
+        assertEquals("p:2/1", compilation.call("p.Main", "run").toString());
+    }
+
+    @Test
+    public void skipsClassNameShadowedByVariable() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("p.Item", builderClass("p", "Item", "public"))
+                .source("p.Main", main("p", "",
+                        "    public static class Shadow {\n"
+                                + "        public Shadow builder() { return this; }\n"
+                                + "        public Shadow a(String a) { return this; }\n"
+                                + "        public Shadow b(String b) { return this; }\n"
+                                + "        public String build(Shadow shadow) { return \"shadow\"; }\n"
+                                + "    }\n"
+                                + "    static final Shadow Item = new Shadow();\n",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));")));
+
+        assertEquals(0, compilation.rewrittenSites());
+        assertEquals("shadow", compilation.call("p.Main", "run"));
+    }
+
+    @Test
+    public void resolvesSingleImportBeforeOnDemandImports() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("a.Item", builderClass("a", "Item", "public"))
+                .source("b.Item", builderClass("b", "Item", "public"))
+                .source("c.Main", main("c", "import a.*;\nimport b.*;\nimport b.Item;\n", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));")));
+
+        assertEquals(1, compilation.rewrittenSites());
+        assertEquals("b:x/y", compilation.call("c.Main", "run").toString());
+    }
+
+    @Test
+    public void resolvesPackageBeforeOnDemandImports() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("a.Item", builderClass("a", "Item", "public"))
+                .source("b.Item", builderClass("b", "Item", "public"))
+                .source("b.Main", main("b", "import a.*;\n", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));")));
+
+        assertEquals(1, compilation.rewrittenSites());
+        assertEquals("b:x/y", compilation.call("b.Main", "run").toString());
+    }
+
+    @Test
+    public void leavesAmbiguousOnDemandImportsToJavac() throws Exception {
+        Compilation compilation = new Compilation(folder.getRoot())
+                .source("a.Item", builderClass("a", "Item", "public"))
+                .source("b.Item", builderClass("b", "Item", "public"))
+                .source("c.Main", main("c", "import a.*;\nimport b.*;\n", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));"))
+                .compile(REWRITE);
+
+        assertFalse(compilation.succeeded());
+        assertEquals(0, compilation.rewrittenSites());
+        assertTrue(compilation.problems(), compilation.problems().contains("reference to Item is ambiguous"));
+    }
+
+    @Test
+    public void skipsNonPublicConstructorFromAnotherPackage() throws Exception {
+        Compilation compilation = compile(new Compilation(folder.getRoot())
+                .source("a.Item", builderClass("a", "Item", ""))
+                .source("a.Main", main("a", "", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));"))
+                .source("c.Main", main("c", "import a.Item;\n", "",
+                        "return Item.build(Item.builder().a(\"x\").b(\"y\"));")));
+
+        // only the call of the same package
+        assertEquals(1, compilation.rewrittenSites());
+        assertEquals("a:x/y", compilation.call("a.Main", "run").toString());
+        assertEquals("a:x/y", compilation.call("c.Main", "run").toString());
+    }
+}
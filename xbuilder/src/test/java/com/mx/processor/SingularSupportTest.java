@@ -0,0 +1,178 @@
+package com.mx.processor;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fills the List, Set and Map {@code @Singular} fields of a compiled class through their adders, from unset, empty,
+ * zero capacity and copied builders.
+ *
+ * @author milo
+ */
+public class SingularSupportTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static Compilation compilation;
+
+    @BeforeClass
+    public static void compile() throws Exception {
+        compilation = new Compilation(folder.newFolder())
+                .source("p.Ev", "package p;\n"
+                        + "import java.util.*;\n"
+                        + "@com.mx.ann.Builder(toBuilder = true)\n"
+                        + "public class Ev {\n"
+                        + "    private final String name;\n"
+                        + "    @com.mx.ann.Singular\n"
+                        + "    private final List<String> items;\n"
+                        + "    @com.mx.ann.Singular\n"
+                        + "    private final Set<String> tags;\n"
+                        + "    @com.mx.ann.Singular(\"attr\")\n"
+                        + "    private final Map<String, Integer> attributes;\n"
+                        + "    public Ev(String name, List<String> items, Set<String> tags,\n"
+                        + "              Map<String, Integer> attributes) {\n"
+                        + "        this.name = name;\n"
+                        + "        this.items = items;\n"
+                        + "        this.tags = tags;\n"
+                        + "        this.attributes = attributes;\n"
+                        + "    }\n"
+                        + "    public String toString() {\n"
+                        + "        return name + items + tags + attributes;\n"
+                        + "    }\n"
+                        + "}\n")
+                .source("p.Main", "package p;\n"
+                        + "import java.util.*;\n"
+                        + "public class Main {\n"
+                        + "    public static Object unset() {\n"
+                        + "        return Ev.build(Ev.builder().name(\"e\").addItem(\"a\").addTag(\"a\")\n"
+                        + "                .putAttr(\"a\", 1));\n"
+                        + "    }\n"
+                        + "    public static Object empty() {\n"
+                        + "        return Ev.build(Ev.builder().name(\"e\").items(Collections.emptyList())\n"
+                        + "                .tags(Collections.emptySet()).attributes(Collections.emptyMap())\n"
+                        + "                .addItem(\"a\").addTag(\"a\").putAttr(\"a\", 1));\n"
+                        + "    }\n"
+                        + "    public static Object zeroCapacity() {\n"
+                        + "        return Ev.build(Ev.builder().name(\"e\").itemsCapacity(0).tagsCapacity(0)\n"
+                        + "                .attributesCapacity(0).addItem(\"a\").addTag(\"a\").putAttr(\"a\", 1)\n"
+                        + "                .addItem(\"b\").addTag(\"b\").putAttr(\"b\", 2));\n"
+                        + "    }\n"
+                        + "    public static Object emptyInstance() {\n"
+                        + "        Ev ev = Ev.build(Ev.builder().name(\"e\"));\n"
+                        + "        return Ev.build(ev.toBuilder().addItem(\"x\").addTag(\"x\").putAttr(\"x\", 1));\n"
+                        + "    }\n"
+                        + "    public static Object copiedInstance() {\n"
+                        + "        Ev ev = Ev.build(Ev.builder().name(\"e\").addItem(\"a\").addTag(\"a\")\n"
+                        + "                .putAttr(\"a\", 1));\n"
+                        + "        return Ev.build(ev.toBuilder().addItem(\"x\").addTag(\"x\").putAttr(\"x\", 2));\n"
+                        + "    }\n"
+                        + "    public static Object grown() {\n"
+                        + "        Ev.Builder<?> builder = Ev.builder().name(\"e\").itemsCapacity(1).tagsCapacity(1)\n"
+                        + "                .attributesCapacity(1);\n"
+                        + "        for (int i = 0; i < 20; i++) {\n"
+                        + "            builder = builder.addItem(\"i\" + i).addTag(\"t\" + i % 10)\n"
+                        + "                    .putAttr(\"a\" + i % 5, i);\n"
+                        + "        }\n"
+                        + "        return Ev.build((Ev.Builder) builder);\n"
+                        + "    }\n"
+                        + "    public static Object duplicates() {\n"
+                        + "        return Ev.build(Ev.builder().name(\"e\").addItem(\"a\").addItem(\"a\")\n"
+                        + "                .addTag(\"a\").addTag(\"a\").putAttr(\"a\", 1).putAttr(\"a\", 2));\n"
+                        + "    }\n"
+                        + "}\n")
+                .compile();
+        assertTrue(compilation.problems(), compilation.succeeded());
+    }
+
+    @Test
+    public void addsToUnsetFields() throws Exception {
+        assertEquals("e[a][a]{a=1}", compilation.call("p.Main", "unset").toString());
+    }
+
+    @Test
+    public void addsAfterEmptyPluralSetters() throws Exception {
+        assertEquals("e[a][a]{a=1}", compilation.call("p.Main", "empty").toString());
+    }
+
+    @Test
+    public void addsAfterZeroCapacity() throws Exception {
+        assertEquals("e[a, b][a, b]{a=1, b=2}", compilation.call("p.Main", "zeroCapacity").toString());
+    }
+
+    @Test
+    public void addsToBuilderOfEmptyInstance() throws Exception {
+        assertEquals("e[x][x]{x=1}", compilation.call("p.Main", "emptyInstance").toString());
+    }
+
+    @Test
+    public void addsToBuilderOfFilledInstance() throws Exception {
+        assertEquals("e[a, x][a, x]{a=1, x=2}", compilation.call("p.Main", "copiedInstance").toString());
+    }
+
+    @Test
+    public void growsPastCapacity() throws Exception {
+        assertEquals("e[i0, i1, i2, i3, i4, i5, i6, i7, i8, i9, i10, i11, i12, i13, i14, i15, i16, i17, i18, i19]"
+                        + "[t0, t1, t2, t3, t4, t5, t6, t7, t8, t9]{a0=15, a1=16, a2=17, a3=18, a4=19}",
+                compilation.call("p.Main", "grown").toString());
+    }
+
+    @Test
+    public void keepsListDuplicatesOnly() throws Exception {
+        assertEquals("e[a, a][a]{a=2}", compilation.call("p.Main", "duplicates").toString());
+    }
+
+    /**
+     * Compiles {@code p.Sized} whose {@code @Singular} field is {@code @Size(max = 1) type values}
+     */
+    private static Compilation compileSized(String type) throws IOException {
+        return new Compilation(folder.newFolder())
+                .source("p.Sized", "package p;\n"
+                        + "import java.util.*;\n"
+                        + "@com.mx.ann.Builder\n"
+                        + "public class Sized {\n"
+                        + "    @com.mx.ann.Singular @com.mx.ann.Size(max = 1)\n"
+                        + "    private final " + type + " values;\n"
+                        + "    public Sized(" + type + " values) {\n"
+                        + "        this.values = values;\n"
+                        + "    }\n"
+                        + "    public static Object tooMany() {\n"
+                        + "        try {\n"
+                        + "            return build(builder().addValue(\"a\").addValue(\"a\"));\n"
+                        + "        } catch (IllegalArgumentException e) {\n"
+                        + "            return e.getMessage();\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "}\n")
+                .compile();
+    }
+
+    @Test
+    public void checksSizeOfSingularList() throws Exception {
+        Compilation sized = compileSized("List<String>");
+
+        assertTrue(sized.problems(), sized.succeeded());
+        assertEquals("Invalid Sized: values size must be at most 1", sized.call("p.Sized", "tooMany"));
+    }
+
+    @Test
+    public void rejectsSizeOfSingularSetAndMap() throws Exception {
+        Compilation set = compileSized("Set<String>");
+        Compilation map = compileSized("Map<String, String>");
+
+        assertFalse(set.succeeded());
+        assertTrue(set.problems(), set.problems().contains(
+                "@Size of @Singular field values is only supported on a List or Collection"));
+        assertFalse(map.succeeded());
+        assertTrue(map.problems(), map.problems().contains(
+                "@Size of @Singular field values is only supported on a List or Collection"));
+    }
+}